@@ -7,17 +7,21 @@ import (
     "net/http"
     "net/http/httputil"
     "net/url"
+    "os"
+    "strings"
     "sync"
     "sync/atomic"
     "time"
     "github.com/julienschmidt/httprouter"
 )
 
-var backendServers = []string{
+var defaultBackendServers = []string{
     "http://api1:8080",
     "http://api2:8080",
 }
 
+var backendServers = loadBackendServers()
+
 var backendProxies = make([]*httputil.ReverseProxy, len(backendServers))
 var counter uint64
 
@@ -50,6 +54,25 @@ var httpClient = &http.Client{
     Timeout:   10 * time.Second,
 }
 
+func loadBackendServers() []string {
+    configured := os.Getenv("BACKENDS")
+    if configured == "" {
+       return defaultBackendServers
+    }
+
+    servers := []string{}
+    for _, server := range strings.Split(configured, ",") {
+       server = strings.TrimSpace(server)
+       if server != "" {
+          servers = append(servers, server)
+       }
+    }
+    if len(servers) == 0 {
+       return defaultBackendServers
+    }
+    return servers
+}
+
 func getNextBackendIndex() int {
     nextIndex := atomic.AddUint64(&counter, 1)
     return int(nextIndex % uint64(len(backendServers)))
@@ -0,0 +1,52 @@
+package br.com.rinha.harness;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class Arguments {
+
+	private final Map<String, String> values;
+
+	private Arguments(Map<String, String> values) {
+		this.values = values;
+	}
+
+	public static Arguments parse(String[] args, int offset) {
+		Map<String, String> values = new HashMap<>();
+		for (int i = offset; i < args.length; i++) {
+			String arg = args[i];
+			if (!arg.startsWith("--")) {
+				throw new IllegalArgumentException("Unexpected argument: " + arg);
+			}
+			int separator = arg.indexOf('=');
+			if (separator > 0) {
+				values.put(arg.substring(2, separator), arg.substring(separator + 1));
+			} else if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+				values.put(arg.substring(2), args[++i]);
+			} else {
+				values.put(arg.substring(2), "true");
+			}
+		}
+		return new Arguments(values);
+	}
+
+	public String get(String name, String defaultValue) {
+		return values.getOrDefault(name, defaultValue);
+	}
+
+	public int getInt(String name, int defaultValue) {
+		String value = values.get(name);
+		return value == null ? defaultValue : Integer.parseInt(value);
+	}
+
+	public double getDouble(String name, double defaultValue) {
+		String value = values.get(name);
+		return value == null ? defaultValue : Double.parseDouble(value);
+	}
+
+	public Duration getSeconds(String name, long defaultSeconds) {
+		String value = values.get(name);
+		return Duration.ofMillis(value == null ? defaultSeconds * 1_000 : (long) (Double.parseDouble(value) * 1_000));
+	}
+}
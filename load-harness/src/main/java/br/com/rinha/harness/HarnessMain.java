@@ -0,0 +1,34 @@
+package br.com.rinha.harness;
+
+import br.com.rinha.harness.load.DrainBenchmark;
+import br.com.rinha.harness.load.LoadGenerator;
+import br.com.rinha.harness.load.StartupBenchmark;
+import br.com.rinha.harness.stub.StubProcessor;
+
+public final class HarnessMain {
+
+	private HarnessMain() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		if (args.length == 0) {
+			System.err.println("""
+					usage:
+					  stub --port 8080 --fee 0.05 --latency 5 [--script "0-10:latency=10,jitter=5;10-20:fail=0.5;20-30:down=true,fail=1"]
+					  load --target http://localhost:9999 --duration 60 --rate 550 --ramp 10 --max-in-flight 550
+					       --default-admin http://localhost:8001 --fallback-admin http://localhost:8002 [--settle 5]
+					  drain --target http://localhost:9999 --backlog 20000 --down 15 [--timeout 120] [--label "4 nodes"]
+					  startup --target http://localhost:9999 --command "docker compose start api1" [--requests 10000] [--label crac]""");
+			System.exit(2);
+		}
+
+		Arguments arguments = Arguments.parse(args, 1);
+		switch (args[0]) {
+			case "stub" -> StubProcessor.fromArguments(arguments).start().onDispose().block();
+			case "load" -> System.exit(LoadGenerator.fromArguments(arguments).run().isConsistent() ? 0 : 1);
+			case "drain" -> System.exit(DrainBenchmark.fromArguments(arguments).run().isDrained() ? 0 : 1);
+			case "startup" -> System.exit(StartupBenchmark.fromArguments(arguments).run().isStarted() ? 0 : 1);
+			default -> throw new IllegalArgumentException("Unknown command: " + args[0]);
+		}
+	}
+}
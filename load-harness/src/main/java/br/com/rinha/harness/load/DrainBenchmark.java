@@ -0,0 +1,171 @@
+package br.com.rinha.harness.load;
+
+import br.com.rinha.harness.Arguments;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class DrainBenchmark {
+
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+	private static final long PROBE_INTERVAL_MS = 100;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.executor(Executors.newVirtualThreadPerTaskExecutor())
+			.connectTimeout(Duration.ofSeconds(2))
+			.build();
+
+	private final URI target;
+	private final URI defaultAdmin;
+	private final URI fallbackAdmin;
+	private final int backlog;
+	private final Duration down;
+	private final Duration timeout;
+	private final int maxInFlight;
+	private final String amount;
+	private final String label;
+
+	private final LongAdder rejected = new LongAdder();
+
+	public DrainBenchmark(URI target, URI defaultAdmin, URI fallbackAdmin, int backlog, Duration down, Duration timeout,
+			int maxInFlight, String amount, String label) {
+		this.target = target;
+		this.defaultAdmin = defaultAdmin;
+		this.fallbackAdmin = fallbackAdmin;
+		this.backlog = backlog;
+		this.down = down;
+		this.timeout = timeout;
+		this.maxInFlight = maxInFlight;
+		this.amount = amount;
+		this.label = label;
+	}
+
+	public static DrainBenchmark fromArguments(Arguments arguments) {
+		return new DrainBenchmark(
+				URI.create(arguments.get("target", "http://localhost:9999")),
+				URI.create(arguments.get("default-admin", "http://localhost:8001")),
+				URI.create(arguments.get("fallback-admin", "http://localhost:8002")),
+				arguments.getInt("backlog", 20_000),
+				arguments.getSeconds("down", 15),
+				arguments.getSeconds("timeout", 120),
+				arguments.getInt("max-in-flight", 256),
+				arguments.get("amount", "19.90"),
+				arguments.get("label", "")
+		);
+	}
+
+	public Result run() throws IOException, InterruptedException {
+		post(defaultAdmin.resolve("/admin/purge-payments"));
+		post(fallbackAdmin.resolve("/admin/purge-payments"));
+		Instant from = Instant.now();
+		long start = System.nanoTime();
+
+		Semaphore inFlight = new Semaphore(maxInFlight);
+		for (int i = 0; i < backlog; i++) {
+			inFlight.acquire();
+			sendPayment(inFlight);
+		}
+		inFlight.acquire(maxInFlight);
+		double enqueueSeconds = (System.nanoTime() - start) / 1e9;
+
+		long recoveredAt = start + down.toNanos();
+		long deadline = recoveredAt + timeout.toNanos();
+		long firstProcessedAt = 0;
+		long processed = 0;
+		while (System.nanoTime() < deadline) {
+			processed = processed(from);
+			if (processed > 0 && firstProcessedAt == 0) {
+				firstProcessedAt = System.nanoTime();
+			}
+			if (processed >= backlog - rejected.sum()) {
+				break;
+			}
+			Thread.sleep(PROBE_INTERVAL_MS);
+		}
+		long drainedAt = System.nanoTime();
+
+		Result result = new Result(label, backlog, rejected.sum(), processed, enqueueSeconds, down.toMillis() / 1e3,
+				firstProcessedAt == 0 ? 0 : (drainedAt - firstProcessedAt) / 1e9);
+		result.print(System.out);
+		return result;
+	}
+
+	private void sendPayment(Semaphore inFlight) {
+		String body = "{\"correlationId\":\"" + UUID.randomUUID() + "\",\"amount\":" + amount + "}";
+		HttpRequest request = HttpRequest.newBuilder(target.resolve("/payments"))
+				.timeout(REQUEST_TIMEOUT)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+
+		client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+			if (error != null || response.statusCode() / 100 != 2) {
+				rejected.increment();
+			}
+			inFlight.release();
+		});
+	}
+
+	private long processed(Instant from) throws InterruptedException {
+		try {
+			String range = "?from=" + URLEncoder.encode(from.toString(), StandardCharsets.UTF_8);
+			return Totals.from(getJson(defaultAdmin.resolve("/admin/payments-summary" + range))).requests()
+					+ Totals.from(getJson(fallbackAdmin.resolve("/admin/payments-summary" + range))).requests();
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	private JsonNode getJson(URI uri) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).GET().build();
+		HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() != 200) {
+			throw new IOException("GET " + uri + " returned " + response.statusCode());
+		}
+		return objectMapper.readTree(response.body());
+	}
+
+	private void post(URI uri) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).POST(HttpRequest.BodyPublishers.noBody()).build();
+		client.send(request, HttpResponse.BodyHandlers.discarding());
+	}
+
+	public record Result(
+			String label,
+			long backlog,
+			long rejected,
+			long processed,
+			double enqueueSeconds,
+			double downSeconds,
+			double drainSeconds) {
+
+		public boolean isDrained() {
+			return processed >= backlog - rejected && drainSeconds > 0;
+		}
+
+		public void print(PrintStream out) {
+			out.printf("drain        %s backlog=%d rejected=%d processed=%d%n", label, backlog, rejected, processed);
+			out.printf("enqueue      %.2fs (processors down for %.2fs)%s%n", enqueueSeconds, downSeconds,
+					enqueueSeconds > downSeconds ? " WARNING: backlog was not fully queued before recovery" : "");
+			out.printf("throughput   %.1f payments/s over %.2fs%s%n", drainSeconds == 0 ? 0 : processed / drainSeconds, drainSeconds,
+					isDrained() ? "" : " INCOMPLETE");
+		}
+	}
+}
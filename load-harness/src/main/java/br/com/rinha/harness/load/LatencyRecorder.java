@@ -0,0 +1,39 @@
+package br.com.rinha.harness.load;
+
+import java.util.Arrays;
+
+public final class LatencyRecorder {
+
+	private long[] samples = new long[4_096];
+	private int size;
+
+	public synchronized void record(long latencyMicros) {
+		if (size == samples.length) {
+			samples = Arrays.copyOf(samples, size * 2);
+		}
+		samples[size++] = latencyMicros;
+	}
+
+	public synchronized Percentiles percentiles() {
+		if (size == 0) {
+			return new Percentiles(0, 0, 0, 0, 0);
+		}
+		long[] sorted = Arrays.copyOf(samples, size);
+		Arrays.sort(sorted);
+		return new Percentiles(size, at(sorted, 0.50), at(sorted, 0.99), at(sorted, 0.999), sorted[size - 1]);
+	}
+
+	private static long at(long[] sorted, double quantile) {
+		int index = (int) Math.ceil(quantile * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+	}
+
+	public record Percentiles(int count, long p50Micros, long p99Micros, long p999Micros, long maxMicros) {
+
+		@Override
+		public String toString() {
+			return String.format("n=%d p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms",
+					count, p50Micros / 1_000.0, p99Micros / 1_000.0, p999Micros / 1_000.0, maxMicros / 1_000.0);
+		}
+	}
+}
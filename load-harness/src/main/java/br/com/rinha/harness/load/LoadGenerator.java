@@ -0,0 +1,192 @@
+package br.com.rinha.harness.load;
+
+import br.com.rinha.harness.Arguments;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public final class LoadGenerator {
+
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+	private static final long SUMMARY_PROBE_INTERVAL_MS = 1_000;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.executor(Executors.newVirtualThreadPerTaskExecutor())
+			.connectTimeout(Duration.ofSeconds(2))
+			.build();
+
+	private final URI target;
+	private final URI defaultAdmin;
+	private final URI fallbackAdmin;
+	private final Duration duration;
+	private final Duration ramp;
+	private final Duration settle;
+	private final double maxRate;
+	private final int maxInFlight;
+	private final String amount;
+	private final boolean purge;
+
+	private final LatencyRecorder paymentLatency = new LatencyRecorder();
+	private final LatencyRecorder summaryLatency = new LatencyRecorder();
+	private final LongAdder sent = new LongAdder();
+	private final LongAdder succeeded = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder skipped = new LongAdder();
+
+	public LoadGenerator(URI target, URI defaultAdmin, URI fallbackAdmin, Duration duration, Duration ramp, Duration settle,
+			double maxRate, int maxInFlight, String amount, boolean purge) {
+		this.target = target;
+		this.defaultAdmin = defaultAdmin;
+		this.fallbackAdmin = fallbackAdmin;
+		this.duration = duration;
+		this.ramp = ramp;
+		this.settle = settle;
+		this.maxRate = maxRate;
+		this.maxInFlight = maxInFlight;
+		this.amount = amount;
+		this.purge = purge;
+	}
+
+	public static LoadGenerator fromArguments(Arguments arguments) {
+		return new LoadGenerator(
+				URI.create(arguments.get("target", "http://localhost:9999")),
+				URI.create(arguments.get("default-admin", "http://localhost:8001")),
+				URI.create(arguments.get("fallback-admin", "http://localhost:8002")),
+				arguments.getSeconds("duration", 60),
+				arguments.getSeconds("ramp", 10),
+				arguments.getSeconds("settle", 5),
+				arguments.getDouble("rate", 550),
+				arguments.getInt("max-in-flight", 550),
+				arguments.get("amount", "19.90"),
+				Boolean.parseBoolean(arguments.get("purge", "true"))
+		);
+	}
+
+	public Report run() throws IOException, InterruptedException {
+		if (purge) {
+			post(defaultAdmin.resolve("/admin/purge-payments"));
+			post(fallbackAdmin.resolve("/admin/purge-payments"));
+		}
+
+		Instant from = Instant.now();
+		Semaphore inFlight = new Semaphore(maxInFlight);
+		ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor();
+		prober.scheduleAtFixedRate(() -> probeSummary(from), SUMMARY_PROBE_INTERVAL_MS, SUMMARY_PROBE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+		long start = System.nanoTime();
+		long end = start + duration.toNanos();
+		long previous = start;
+		double credit = 0;
+		while (true) {
+			long now = System.nanoTime();
+			if (now >= end) {
+				break;
+			}
+			credit += rateAt(now - start) * (now - previous) / 1e9;
+			previous = now;
+			for (; credit >= 1; credit--) {
+				if (inFlight.tryAcquire()) {
+					sendPayment(inFlight);
+				} else {
+					skipped.increment();
+				}
+			}
+			LockSupport.parkNanos(1_000_000);
+		}
+		double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+		prober.shutdownNow();
+		inFlight.tryAcquire(maxInFlight, REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+		Instant to = Instant.now();
+		Thread.sleep(settle.toMillis());
+
+		JsonNode backendSummary = getJson(target.resolve("/payments-summary" + range(from, to)));
+		Totals stubDefault = Totals.from(getJson(defaultAdmin.resolve("/admin/payments-summary" + range(from, to))));
+		Totals stubFallback = Totals.from(getJson(fallbackAdmin.resolve("/admin/payments-summary" + range(from, to))));
+
+		Report report = new Report(
+				sent.sum(), succeeded.sum(), failed.sum(), skipped.sum(), elapsedSeconds,
+				paymentLatency.percentiles(), summaryLatency.percentiles(),
+				Totals.from(backendSummary.get("default")), Totals.from(backendSummary.get("fallback")),
+				stubDefault, stubFallback);
+		report.print(System.out);
+		return report;
+	}
+
+	private double rateAt(long elapsedNanos) {
+		if (ramp.isZero() || elapsedNanos >= ramp.toNanos()) {
+			return maxRate;
+		}
+		return Math.max(1, maxRate * elapsedNanos / ramp.toNanos());
+	}
+
+	private void sendPayment(Semaphore inFlight) {
+		String body = "{\"correlationId\":\"" + UUID.randomUUID() + "\",\"amount\":" + amount + "}";
+		HttpRequest request = HttpRequest.newBuilder(target.resolve("/payments"))
+				.timeout(REQUEST_TIMEOUT)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+
+		long start = System.nanoTime();
+		sent.increment();
+		client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+			paymentLatency.record((System.nanoTime() - start) / 1_000);
+			if (error == null && response.statusCode() / 100 == 2) {
+				succeeded.increment();
+			} else {
+				failed.increment();
+			}
+			inFlight.release();
+		});
+	}
+
+	private void probeSummary(Instant from) {
+		long start = System.nanoTime();
+		try {
+			getJson(target.resolve("/payments-summary" + range(from, Instant.now())));
+			summaryLatency.record((System.nanoTime() - start) / 1_000);
+		} catch (IOException e) {
+			summaryLatency.record(REQUEST_TIMEOUT.toNanos() / 1_000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private JsonNode getJson(URI uri) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).GET().build();
+		HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() != 200) {
+			throw new IOException("GET " + uri + " returned " + response.statusCode());
+		}
+		return objectMapper.readTree(response.body());
+	}
+
+	private void post(URI uri) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).POST(HttpRequest.BodyPublishers.noBody()).build();
+		client.send(request, HttpResponse.BodyHandlers.discarding());
+	}
+
+	private static String range(Instant from, Instant to) {
+		return "?from=" + URLEncoder.encode(from.toString(), StandardCharsets.UTF_8)
+				+ "&to=" + URLEncoder.encode(to.toString(), StandardCharsets.UTF_8);
+	}
+}
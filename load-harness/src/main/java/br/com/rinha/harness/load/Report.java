@@ -0,0 +1,33 @@
+package br.com.rinha.harness.load;
+
+import java.io.PrintStream;
+
+public record Report(
+		long sent,
+		long succeeded,
+		long failed,
+		long skipped,
+		double elapsedSeconds,
+		LatencyRecorder.Percentiles paymentLatency,
+		LatencyRecorder.Percentiles summaryLatency,
+		Totals backendDefault,
+		Totals backendFallback,
+		Totals stubDefault,
+		Totals stubFallback) {
+
+	public boolean isConsistent() {
+		return backendDefault.equals(stubDefault) && backendFallback.equals(stubFallback);
+	}
+
+	public void print(PrintStream out) {
+		long processed = backendDefault.requests() + backendFallback.requests();
+		out.printf("requests     sent=%d 2xx=%d errors=%d skipped(in-flight limit)=%d%n", sent, succeeded, failed, skipped);
+		out.printf("throughput   %.1f req/s over %.1fs%n", sent / elapsedSeconds, elapsedSeconds);
+		out.printf("payments     %s%n", paymentLatency);
+		out.printf("summary      %s%n", summaryLatency);
+		out.printf("split        default=%s (%.1f%%) fallback=%s%n",
+				backendDefault, processed == 0 ? 0 : 100.0 * backendDefault.requests() / processed, backendFallback);
+		out.printf("consistency  default backend=%s stub=%s %s%n", backendDefault, stubDefault, backendDefault.equals(stubDefault) ? "OK" : "MISMATCH");
+		out.printf("             fallback backend=%s stub=%s %s%n", backendFallback, stubFallback, backendFallback.equals(stubFallback) ? "OK" : "MISMATCH");
+	}
+}
@@ -0,0 +1,142 @@
+package br.com.rinha.harness.load;
+
+import br.com.rinha.harness.Arguments;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class StartupBenchmark {
+
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+	private static final long PROBE_INTERVAL_MS = 10;
+
+	private final HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.executor(Executors.newVirtualThreadPerTaskExecutor())
+			.connectTimeout(Duration.ofSeconds(2))
+			.build();
+
+	private final URI target;
+	private final String command;
+	private final int requests;
+	private final int maxInFlight;
+	private final Duration timeout;
+	private final String amount;
+	private final String label;
+
+	private final LatencyRecorder latencies = new LatencyRecorder();
+	private final LongAdder rejected = new LongAdder();
+
+	public StartupBenchmark(URI target, String command, int requests, int maxInFlight, Duration timeout, String amount,
+			String label) {
+		this.target = target;
+		this.command = command;
+		this.requests = requests;
+		this.maxInFlight = maxInFlight;
+		this.timeout = timeout;
+		this.amount = amount;
+		this.label = label;
+	}
+
+	public static StartupBenchmark fromArguments(Arguments arguments) {
+		return new StartupBenchmark(
+				URI.create(arguments.get("target", "http://localhost:9999")),
+				arguments.get("command", ""),
+				arguments.getInt("requests", 10_000),
+				arguments.getInt("max-in-flight", 64),
+				arguments.getSeconds("timeout", 120),
+				arguments.get("amount", "19.90"),
+				arguments.get("label", "")
+		);
+	}
+
+	public Result run() throws IOException, InterruptedException {
+		long start = System.nanoTime();
+		if (!command.isBlank()) {
+			Process process = new ProcessBuilder("sh", "-c", command).inheritIO().start();
+			if (process.waitFor() != 0) {
+				throw new IOException("Command failed: " + command);
+			}
+		}
+
+		long deadline = start + timeout.toNanos();
+		long firstResponseAt = 0;
+		while (System.nanoTime() < deadline) {
+			if (isUp()) {
+				firstResponseAt = System.nanoTime();
+				break;
+			}
+			Thread.sleep(PROBE_INTERVAL_MS);
+		}
+
+		if (firstResponseAt != 0) {
+			Semaphore inFlight = new Semaphore(maxInFlight);
+			for (int i = 0; i < requests; i++) {
+				inFlight.acquire();
+				sendPayment(inFlight);
+			}
+			inFlight.acquire(maxInFlight);
+		}
+
+		Result result = new Result(label, firstResponseAt == 0 ? -1 : (firstResponseAt - start) / 1e9, requests,
+				rejected.sum(), latencies.percentiles());
+		result.print(System.out);
+		return result;
+	}
+
+	private boolean isUp() throws InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(target.resolve("/payments-summary")).timeout(REQUEST_TIMEOUT).GET().build();
+		try {
+			return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private void sendPayment(Semaphore inFlight) {
+		String body = "{\"correlationId\":\"" + UUID.randomUUID() + "\",\"amount\":" + amount + "}";
+		HttpRequest request = HttpRequest.newBuilder(target.resolve("/payments"))
+				.timeout(REQUEST_TIMEOUT)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+
+		long sentAt = System.nanoTime();
+		client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+			if (error != null || response.statusCode() / 100 != 2) {
+				rejected.increment();
+			} else {
+				latencies.record((System.nanoTime() - sentAt) / 1_000);
+			}
+			inFlight.release();
+		});
+	}
+
+	public record Result(
+			String label,
+			double firstRequestSeconds,
+			int requests,
+			long rejected,
+			LatencyRecorder.Percentiles latency) {
+
+		public boolean isStarted() {
+			return firstRequestSeconds >= 0;
+		}
+
+		public void print(PrintStream out) {
+			out.printf("startup      %s%n", label);
+			out.printf("first        %s%n", isStarted() ? String.format("%.3fs", firstRequestSeconds) : "TIMED OUT");
+			out.printf("requests     %d rejected=%d%n", requests, rejected);
+			out.printf("latency      %s%n", latency);
+		}
+	}
+}
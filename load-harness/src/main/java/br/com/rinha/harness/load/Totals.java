@@ -0,0 +1,20 @@
+package br.com.rinha.harness.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public record Totals(long requests, long amountCents) {
+
+	public static Totals from(JsonNode summary) {
+		if (summary == null || summary.isNull()) {
+			return new Totals(0, 0);
+		}
+		return new Totals(
+				summary.get("totalRequests").asLong(),
+				summary.get("totalAmount").decimalValue().movePointRight(2).longValueExact());
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d payments / %d.%02d", requests, amountCents / 100, Math.abs(amountCents % 100));
+	}
+}
@@ -0,0 +1,70 @@
+package br.com.rinha.harness.stub;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+public final class FailureScript {
+
+	private final Phase basePhase;
+	private final List<Phase> phases;
+
+	private FailureScript(Phase basePhase, List<Phase> phases) {
+		this.basePhase = basePhase;
+		this.phases = phases;
+	}
+
+	public static FailureScript parse(String script, long baseLatencyMillis) {
+		Phase base = new Phase(0, Long.MAX_VALUE, baseLatencyMillis, 0, 0, false);
+		List<Phase> phases = new ArrayList<>();
+		if (script == null || script.isBlank()) {
+			return new FailureScript(base, phases);
+		}
+
+		for (String rawPhase : script.split(";")) {
+			String[] rangeAndSettings = rawPhase.trim().split(":", 2);
+			String[] range = rangeAndSettings[0].split("-", 2);
+			long fromMillis = (long) (Double.parseDouble(range[0]) * 1_000);
+			long toMillis = (long) (Double.parseDouble(range[1]) * 1_000);
+
+			long latency = base.latencyMillis();
+			long jitter = 0;
+			double failureRate = 0;
+			boolean down = false;
+			if (rangeAndSettings.length > 1) {
+				for (String setting : rangeAndSettings[1].split(",")) {
+					String[] keyValue = setting.trim().split("=", 2);
+					switch (keyValue[0]) {
+						case "latency" -> latency = Long.parseLong(keyValue[1]);
+						case "jitter" -> jitter = Long.parseLong(keyValue[1]);
+						case "fail" -> failureRate = Double.parseDouble(keyValue[1]);
+						case "down" -> down = Boolean.parseBoolean(keyValue[1]);
+						default -> throw new IllegalArgumentException("Unknown script setting: " + keyValue[0]);
+					}
+				}
+			}
+			phases.add(new Phase(fromMillis, toMillis, latency, jitter, failureRate, down));
+		}
+		return new FailureScript(base, phases);
+	}
+
+	public Phase phaseAt(long elapsedMillis) {
+		for (Phase phase : phases) {
+			if (elapsedMillis >= phase.fromMillis() && elapsedMillis < phase.toMillis()) {
+				return phase;
+			}
+		}
+		return basePhase;
+	}
+
+	public record Phase(long fromMillis, long toMillis, long latencyMillis, long jitterMillis, double failureRate, boolean down) {
+
+		public long sampleLatencyMillis() {
+			return jitterMillis == 0 ? latencyMillis : latencyMillis + ThreadLocalRandom.current().nextLong(jitterMillis + 1);
+		}
+
+		public boolean sampleFailure() {
+			return failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate;
+		}
+	}
+}
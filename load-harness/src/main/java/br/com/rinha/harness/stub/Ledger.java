@@ -0,0 +1,30 @@
+package br.com.rinha.harness.stub;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class Ledger {
+
+	private final Map<UUID, long[]> payments = new ConcurrentHashMap<>();
+
+	public boolean record(UUID correlationId, long requestedAtMillis, long amountCents) {
+		return payments.putIfAbsent(correlationId, new long[]{requestedAtMillis, amountCents}) == null;
+	}
+
+	public long[] summarize(long fromMillis, long toMillis) {
+		long count = 0;
+		long amountCents = 0;
+		for (long[] payment : payments.values()) {
+			if (payment[0] >= fromMillis && payment[0] <= toMillis) {
+				count++;
+				amountCents += payment[1];
+			}
+		}
+		return new long[]{count, amountCents};
+	}
+
+	public void clear() {
+		payments.clear();
+	}
+}
@@ -0,0 +1,136 @@
+package br.com.rinha.harness.stub;
+
+import br.com.rinha.harness.Arguments;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class StubProcessor {
+
+	private static final long HEALTH_RATE_LIMIT_MILLIS = 5_000;
+	private static final String JSON = "application/json";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Ledger ledger = new Ledger();
+	private final AtomicLong lastHealthCheck = new AtomicLong(Long.MIN_VALUE / 2);
+	private final int port;
+	private final BigDecimal fee;
+	private final FailureScript script;
+
+	private volatile long startedAt = System.currentTimeMillis();
+
+	public StubProcessor(int port, BigDecimal fee, FailureScript script) {
+		this.port = port;
+		this.fee = fee;
+		this.script = script;
+	}
+
+	public static StubProcessor fromArguments(Arguments arguments) {
+		return new StubProcessor(
+				arguments.getInt("port", 8080),
+				new BigDecimal(arguments.get("fee", "0.05")),
+				FailureScript.parse(arguments.get("script", ""), arguments.getInt("latency", 5))
+		);
+	}
+
+	public DisposableServer start() {
+		return HttpServer.create()
+				.port(port)
+				.route(routes -> routes
+						.post("/payments", this::handlePayment)
+						.get("/payments/service-health", this::handleHealth)
+						.get("/admin/payments-summary", this::handleSummary)
+						.post("/admin/purge-payments", this::handlePurge))
+				.bindNow();
+	}
+
+	private Publisher<Void> handlePayment(HttpServerRequest request, HttpServerResponse response) {
+		return request.receive().aggregate().asByteArray().flatMap(body -> {
+			FailureScript.Phase phase = script.phaseAt(System.currentTimeMillis() - startedAt);
+			boolean fail = phase.down() || phase.sampleFailure();
+
+			return Mono.delay(Duration.ofMillis(phase.sampleLatencyMillis())).then(Mono.defer(() -> {
+				if (fail) {
+					return reply(response, HttpResponseStatus.INTERNAL_SERVER_ERROR, "{\"message\":\"internal server error\"}");
+				}
+
+				UUID correlationId;
+				long amountCents;
+				long requestedAt;
+				try {
+					JsonNode payment = objectMapper.readTree(body);
+					correlationId = UUID.fromString(payment.get("correlationId").asText());
+					amountCents = payment.get("amount").decimalValue().movePointRight(2).longValueExact();
+					requestedAt = Instant.parse(payment.get("requestedAt").asText()).toEpochMilli();
+				} catch (IOException | RuntimeException e) {
+					return reply(response, HttpResponseStatus.BAD_REQUEST, "{\"message\":\"invalid payment\"}");
+				}
+
+				if (!ledger.record(correlationId, requestedAt, amountCents)) {
+					return reply(response, HttpResponseStatus.UNPROCESSABLE_ENTITY, "{\"message\":\"correlationId already exists\"}");
+				}
+				return reply(response, HttpResponseStatus.OK, "{\"message\":\"payment processed successfully\"}");
+			}));
+		});
+	}
+
+	private Publisher<Void> handleHealth(HttpServerRequest request, HttpServerResponse response) {
+		long now = System.currentTimeMillis();
+		long last = lastHealthCheck.get();
+		if (now - last < HEALTH_RATE_LIMIT_MILLIS || !lastHealthCheck.compareAndSet(last, now)) {
+			return response.status(HttpResponseStatus.TOO_MANY_REQUESTS).send();
+		}
+
+		FailureScript.Phase phase = script.phaseAt(now - startedAt);
+		return reply(response, HttpResponseStatus.OK,
+				"{\"failing\":" + phase.down() + ",\"minResponseTime\":" + phase.latencyMillis() + "}");
+	}
+
+	private Publisher<Void> handleSummary(HttpServerRequest request, HttpServerResponse response) {
+		QueryStringDecoder query = new QueryStringDecoder(request.uri());
+		long from = parseInstant(query.parameters().get("from"), Long.MIN_VALUE);
+		long to = parseInstant(query.parameters().get("to"), Long.MAX_VALUE);
+
+		long[] totals = ledger.summarize(from, to);
+		BigDecimal totalAmount = BigDecimal.valueOf(totals[1], 2);
+		return reply(response, HttpResponseStatus.OK,
+				"{\"totalRequests\":" + totals[0]
+						+ ",\"totalAmount\":" + totalAmount.toPlainString()
+						+ ",\"totalFee\":" + totalAmount.multiply(fee).toPlainString()
+						+ ",\"feePerTransaction\":" + fee.toPlainString() + "}");
+	}
+
+	private Publisher<Void> handlePurge(HttpServerRequest request, HttpServerResponse response) {
+		ledger.clear();
+		startedAt = System.currentTimeMillis();
+		lastHealthCheck.set(Long.MIN_VALUE / 2);
+		return reply(response, HttpResponseStatus.OK, "{\"message\":\"All payments purged.\"}");
+	}
+
+	private static Mono<Void> reply(HttpServerResponse response, HttpResponseStatus status, String body) {
+		return response.status(status)
+				.header(HttpHeaderNames.CONTENT_TYPE, JSON)
+				.sendString(Mono.just(body))
+				.then();
+	}
+
+	private static long parseInstant(List<String> values, long defaultValue) {
+		return values == null || values.isEmpty() ? defaultValue : Instant.parse(values.get(0)).toEpochMilli();
+	}
+}
@@ -0,0 +1,103 @@
+package br.com.rinha.pagamentos.benchmarks;
+
+import br.com.rinha.pagamentos.codec.PaymentJson;
+import br.com.rinha.pagamentos.model.PaymentSent;
+import br.com.rinha.pagamentos.model.PaymentsSummaryResponse;
+import br.com.rinha.pagamentos.model.QueuedPayment;
+import br.com.rinha.pagamentos.model.Summary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+			.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.build();
+	private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+	private byte[] requestBody;
+	private PaymentSent paymentSent;
+	private PaymentsSummaryResponse summary;
+
+	@Setup
+	public void setUp() {
+		UUID correlationId = UUID.randomUUID();
+		requestBody = ("{\"correlationId\":\"" + correlationId + "\",\"amount\":19.90}").getBytes(StandardCharsets.UTF_8);
+		paymentSent = new PaymentSent(new QueuedPayment(1990, correlationId), Instant.now());
+		summary = new PaymentsSummaryResponse(new Summary(15_234, 30_315_660), new Summary(4_120, 8_198_800));
+	}
+
+	@Benchmark
+	public QueuedPayment jacksonReadQueuedPayment() throws IOException {
+		return objectMapper.readValue(requestBody, QueuedPayment.class);
+	}
+
+	@Benchmark
+	public QueuedPayment customReadQueuedPayment() {
+		DataBuffer buffer = bufferFactory.allocateBuffer(requestBody.length).write(requestBody);
+		try {
+			return PaymentJson.readQueuedPayment(buffer);
+		} finally {
+			DataBufferUtils.release(buffer);
+		}
+	}
+
+	@Benchmark
+	public byte[] jacksonWritePaymentSent() throws IOException {
+		return objectMapper.writeValueAsBytes(paymentSent);
+	}
+
+	@Benchmark
+	public int customWritePaymentSent() {
+		DataBuffer buffer = bufferFactory.allocateBuffer(PaymentJson.PAYMENT_SENT_MAX_BYTES);
+		try {
+			PaymentJson.writePaymentSent(paymentSent, buffer);
+			return buffer.readableByteCount();
+		} finally {
+			DataBufferUtils.release(buffer);
+		}
+	}
+
+	@Benchmark
+	public byte[] jacksonWriteSummary() throws IOException {
+		return objectMapper.writeValueAsBytes(summary);
+	}
+
+	@Benchmark
+	public int customWriteSummary() {
+		DataBuffer buffer = bufferFactory.allocateBuffer(PaymentJson.SUMMARY_MAX_BYTES);
+		try {
+			PaymentJson.writePaymentsSummary(summary, buffer);
+			return buffer.readableByteCount();
+		} finally {
+			DataBufferUtils.release(buffer);
+		}
+	}
+}
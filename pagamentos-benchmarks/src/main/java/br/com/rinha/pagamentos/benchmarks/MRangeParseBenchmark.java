@@ -0,0 +1,76 @@
+package br.com.rinha.pagamentos.benchmarks;
+
+import br.com.rinha.pagamentos.model.PaymentsSummaryResponse;
+import br.com.rinha.pagamentos.summary.MRangeTotalsOutput;
+import br.com.rinha.pagamentos.summary.TimeSeriesSummaryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MRangeParseBenchmark {
+
+	@Param({"1", "1000"})
+	private int pointsPerSeries;
+
+	private List<Object> reply;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		long start = System.currentTimeMillis();
+		List<Object> events = new ArrayList<>();
+		for (String processor : List.of("default", "fallback")) {
+			for (String type : List.of("amount", "count")) {
+				events.add(bytes("payments:" + type + ":ts:" + processor));
+				events.add(bytes("type"));
+				events.add(bytes(type));
+				events.add(bytes("processor"));
+				events.add(bytes(processor));
+				for (int i = 0; i < pointsPerSeries; i++) {
+					long value = "count".equals(type) ? 1 + random.nextInt(5) : 1990L * (1 + random.nextInt(5));
+					events.add(start + i);
+					events.add(bytes(String.valueOf(value)));
+				}
+			}
+		}
+		reply = events;
+	}
+
+	@Benchmark
+	public PaymentsSummaryResponse parseMRangeResponse() {
+		MRangeTotalsOutput output = new MRangeTotalsOutput(new long[4], null);
+		for (Object event : reply) {
+			if (event instanceof Long timestamp) {
+				output.set(timestamp.longValue());
+			} else {
+				output.set(((ByteBuffer) event).duplicate());
+			}
+		}
+		return TimeSeriesSummaryRepository.toResponse(output.get());
+	}
+
+	private static ByteBuffer bytes(String value) {
+		return ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII));
+	}
+}
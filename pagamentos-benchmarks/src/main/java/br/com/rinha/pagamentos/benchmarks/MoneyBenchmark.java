@@ -0,0 +1,89 @@
+package br.com.rinha.pagamentos.benchmarks;
+
+import br.com.rinha.pagamentos.codec.PaymentJson;
+import br.com.rinha.pagamentos.model.Money;
+import br.com.rinha.pagamentos.model.PaymentsSummaryResponse;
+import br.com.rinha.pagamentos.model.Summary;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+	private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+	@Param({"1024"})
+	public int payments;
+
+	private BigDecimal[] decimalAmounts;
+	private long[] centAmounts;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(7);
+		decimalAmounts = new BigDecimal[payments];
+		centAmounts = new long[payments];
+		for (int i = 0; i < payments; i++) {
+			long cents = random.nextLong(1, 1_000_000);
+			decimalAmounts[i] = Money.toDecimal(cents);
+			centAmounts[i] = cents;
+		}
+	}
+
+	@Benchmark
+	public BigDecimal bigDecimalSum() {
+		BigDecimal total = BigDecimal.ZERO;
+		for (BigDecimal amount : decimalAmounts) {
+			total = total.add(amount);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public long centsSum() {
+		long total = 0;
+		for (long amount : centAmounts) {
+			total += amount;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public String bigDecimalWriteTotal() {
+		return bigDecimalSum().setScale(Money.SCALE).toPlainString();
+	}
+
+	@Benchmark
+	public int centsWriteTotal() {
+		PaymentsSummaryResponse response = new PaymentsSummaryResponse(new Summary(payments, centsSum()), null);
+		DataBuffer buffer = bufferFactory.allocateBuffer(PaymentJson.SUMMARY_MAX_BYTES);
+		try {
+			PaymentJson.writePaymentsSummary(response, buffer);
+			return buffer.readableByteCount();
+		} finally {
+			DataBufferUtils.release(buffer);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package br.com.rinha.pagamentos.benchmarks;
+
+import br.com.rinha.pagamentos.routing.AdaptiveRoutingPolicy;
+import br.com.rinha.pagamentos.routing.CircuitBreaker;
+import br.com.rinha.pagamentos.routing.FixedPriorityRoutingPolicy;
+import br.com.rinha.pagamentos.routing.Processor;
+import br.com.rinha.pagamentos.routing.ProcessorStats;
+import br.com.rinha.pagamentos.routing.RoutingDecision;
+import br.com.rinha.pagamentos.routing.RoutingPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+
+	@Param({"fixed", "adaptive"})
+	private String policyName;
+
+	private RoutingPolicy policy;
+	private ProcessorStats defaultStats;
+	private ProcessorStats fallbackStats;
+	private CircuitBreaker defaultBreaker;
+	private CircuitBreaker fallbackBreaker;
+
+	@Setup
+	public void setUp() {
+		policy = "fixed".equals(policyName)
+				? new FixedPriorityRoutingPolicy()
+				: new AdaptiveRoutingPolicy(0.5, 300);
+		defaultStats = new ProcessorStats(Processor.DEFAULT, 0.05);
+		fallbackStats = new ProcessorStats(Processor.FALLBACK, 0.15);
+		defaultBreaker = new CircuitBreaker(1_000, 10, 0.5, 10, 500, 3, 3_000, state -> {});
+		fallbackBreaker = new CircuitBreaker(1_000, 10, 0.5, 10, 500, 3, 3_000, state -> {});
+	}
+
+	@Benchmark
+	public RoutingDecision routeAndRecord() {
+		long now = System.currentTimeMillis();
+		boolean isDefaultUp = defaultBreaker.isAvailable(now);
+		boolean isFallbackUp = fallbackBreaker.isAvailable(now);
+		defaultStats.updateHealth(isDefaultUp, 5, now);
+		fallbackStats.updateHealth(isFallbackUp, 5, now);
+
+		RoutingDecision decision = policy.route(defaultStats, fallbackStats, now);
+		if (!decision.isQueued()) {
+			Processor processor = decision.primary();
+			CircuitBreaker breaker = processor == Processor.DEFAULT ? defaultBreaker : fallbackBreaker;
+			if (breaker.tryAcquirePermission(now)) {
+				(processor == Processor.DEFAULT ? defaultStats : fallbackStats).recordSuccess(8_000_000);
+				breaker.recordSuccess(now);
+			}
+		}
+		return decision;
+	}
+}
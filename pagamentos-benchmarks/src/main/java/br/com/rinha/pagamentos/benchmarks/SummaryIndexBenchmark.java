@@ -0,0 +1,52 @@
+package br.com.rinha.pagamentos.benchmarks;
+
+import br.com.rinha.pagamentos.summary.SummaryIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SummaryIndexBenchmark {
+
+	private static final int WINDOW_BITS = 17;
+	private static final long START = 1_700_000_000_000L;
+
+	private final long[] totals = new long[4];
+	private SummaryIndex index;
+	private long next;
+
+	@Setup
+	public void setUp() {
+		index = new SummaryIndex(WINDOW_BITS, START);
+		for (long timestamp = START; timestamp < START + (1 << WINDOW_BITS); timestamp += 3) {
+			index.add((int) (timestamp & 1), timestamp, 1990, 1);
+		}
+		next = index.getHead() + 1;
+	}
+
+	@Benchmark
+	public void add() {
+		index.add(SummaryIndex.DEFAULT, next++, 1990, 1);
+	}
+
+	@Benchmark
+	public long[] summarizeWindow() {
+		long head = index.getHead();
+		index.summarize(head - 60_000, head, totals);
+		return totals;
+	}
+}
@@ -0,0 +1,68 @@
+package br.com.rinha.pagamentos.config;
+
+import br.com.rinha.pagamentos.model.QueuedPayment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueuedPaymentSerializerBenchmark {
+
+	private final QueuedPaymentRedisSerializer compactSerializer = new QueuedPaymentRedisSerializer();
+	private final KyroRedisSerializer kryoSerializer = new KyroRedisSerializer();
+
+	private QueuedPayment payment;
+	private LegacyQueuedPayment legacyPayment;
+	private byte[] compactBytes;
+	private byte[] kryoBytes;
+
+	@Setup
+	public void setUp() {
+		UUID correlationId = UUID.randomUUID();
+		payment = new QueuedPayment(1990, correlationId);
+		legacyPayment = new LegacyQueuedPayment(correlationId, new BigDecimal("19.90"));
+		compactBytes = compactSerializer.serialize(payment);
+		kryoBytes = kryoSerializer.serialize(legacyPayment);
+	}
+
+	@Benchmark
+	public byte[] compactSerialize() {
+		return compactSerializer.serialize(payment);
+	}
+
+	@Benchmark
+	public QueuedPayment compactDeserialize() {
+		return compactSerializer.deserialize(compactBytes);
+	}
+
+	@Benchmark
+	public byte[] kryoSerialize() {
+		return kryoSerializer.serialize(legacyPayment);
+	}
+
+	@Benchmark
+	public Object kryoDeserialize() {
+		return kryoSerializer.deserialize(kryoBytes);
+	}
+
+	@Benchmark
+	public QueuedPayment legacyMigration() {
+		return compactSerializer.deserialize(kryoBytes);
+	}
+}
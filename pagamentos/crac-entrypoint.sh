@@ -0,0 +1,31 @@
+#!/bin/sh
+set -e
+
+CHECKPOINT_DIR="${CRAC_CHECKPOINT_DIR:-/app/checkpoint}"
+WARMUP_URL="${CRAC_WARMUP_URL:-http://localhost:8080}"
+WARMUP_REQUESTS="${CRAC_WARMUP_REQUESTS:-2000}"
+
+if [ -f "$CHECKPOINT_DIR/.ready" ]; then
+	exec java -XX:CRaCRestoreFrom="$CHECKPOINT_DIR"
+fi
+
+mkdir -p "$CHECKPOINT_DIR"
+java -XX:CRaCCheckpointTo="$CHECKPOINT_DIR" $JAVA_OPTS -jar /app/pagamentos.jar &
+pid=$!
+
+until curl -sf -o /dev/null "$WARMUP_URL/payments-summary"; do
+	sleep 0.2
+done
+
+i=0
+while [ "$i" -lt "$WARMUP_REQUESTS" ]; do
+	curl -s -o /dev/null "$WARMUP_URL/payments-summary?from=2000-01-01T00:00:00Z&to=2000-01-01T00:00:01Z"
+	curl -s -o /dev/null -X POST -H "Content-Type: application/json" -d '{"correlationId":"warm-up"}' "$WARMUP_URL/payments"
+	i=$((i + 1))
+done
+
+jcmd "$pid" JDK.checkpoint
+wait "$pid" || true
+touch "$CHECKPOINT_DIR/.ready"
+
+exec java -XX:CRaCRestoreFrom="$CHECKPOINT_DIR"
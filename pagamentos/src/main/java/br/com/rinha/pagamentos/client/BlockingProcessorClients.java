@@ -0,0 +1,107 @@
+package br.com.rinha.pagamentos.client;
+
+import br.com.rinha.pagamentos.codec.PaymentJson;
+import br.com.rinha.pagamentos.model.PaymentSent;
+import br.com.rinha.pagamentos.routing.Processor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+@Component
+@ConditionalOnProperty(name = "dispatch.engine", havingValue = "virtual-threads")
+public class BlockingProcessorClients implements SmartLifecycle {
+
+	private final Executor executor;
+	private final Duration connectTimeout;
+	private final Map<Processor, URI> paymentsUris = new EnumMap<>(Processor.class);
+
+	private volatile HttpClient client;
+	private volatile boolean running;
+
+	public BlockingProcessorClients(
+			@Qualifier("virtualThreadExecutor") Executor executor,
+			@Value("${processor.default.payments.url}") String defaultPaymentsUrl,
+			@Value("${processor.fallback.payments.url}") String fallbackPaymentsUrl,
+			@Value("${processor.client.connect-timeout-ms}") long connectTimeoutMs) {
+		this.executor = executor;
+		this.connectTimeout = Duration.ofMillis(connectTimeoutMs);
+		this.paymentsUris.put(Processor.DEFAULT, URI.create(defaultPaymentsUrl));
+		this.paymentsUris.put(Processor.FALLBACK, URI.create(fallbackPaymentsUrl));
+		this.client = newClient();
+	}
+
+	public DispatchOutcome send(Processor processor, PaymentSent payment, Duration timeout) {
+		HttpClient current = client;
+		if (current == null) {
+			return DispatchOutcome.CONNECTION_ERROR;
+		}
+		HttpRequest request = HttpRequest.newBuilder(paymentsUris.get(processor))
+				.timeout(timeout)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofByteArray(encode(payment)))
+				.build();
+		try {
+			int status = current.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+			return DispatchOutcome.of(HttpStatusCode.valueOf(status));
+		} catch (IOException | IllegalStateException e) {
+			return DispatchOutcome.of(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return DispatchOutcome.of(e);
+		}
+	}
+
+	private static byte[] encode(PaymentSent payment) {
+		DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.allocateBuffer(PaymentJson.PAYMENT_SENT_MAX_BYTES);
+		PaymentJson.writePaymentSent(payment, buffer);
+		byte[] body = new byte[buffer.readableByteCount()];
+		buffer.read(body);
+		return body;
+	}
+
+	private HttpClient newClient() {
+		return HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.executor(executor)
+				.connectTimeout(connectTimeout)
+				.build();
+	}
+
+	@Override
+	public void start() {
+		if (client == null) {
+			client = newClient();
+		}
+		running = true;
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		HttpClient current = client;
+		client = null;
+		if (current != null) {
+			current.close();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+}
@@ -0,0 +1,78 @@
+package br.com.rinha.pagamentos.client;
+
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import reactor.netty.internal.shaded.reactor.pool.PoolAcquireTimeoutException;
+
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.TimeoutException;
+
+public enum DispatchOutcome {
+
+	SUCCESS,
+	DUPLICATE,
+	CLIENT_ERROR,
+	SERVER_ERROR,
+	CONNECT_TIMEOUT,
+	RESPONSE_TIMEOUT,
+	CONNECTION_ERROR;
+
+	public static DispatchOutcome of(HttpStatusCode status) {
+		if (status.is2xxSuccessful()) {
+			return SUCCESS;
+		}
+		if (status.is5xxServerError()) {
+			return SERVER_ERROR;
+		}
+		if (status.value() == HttpStatus.UNPROCESSABLE_ENTITY.value()) {
+			return DUPLICATE;
+		}
+		return CLIENT_ERROR;
+	}
+
+	public static DispatchOutcome of(Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof PoolAcquireTimeoutException) {
+				return CONNECTION_ERROR;
+			}
+			if (cause instanceof ConnectTimeoutException || cause instanceof HttpConnectTimeoutException) {
+				return CONNECT_TIMEOUT;
+			}
+			if (cause instanceof ReadTimeoutException || cause instanceof TimeoutException || cause instanceof HttpTimeoutException) {
+				return RESPONSE_TIMEOUT;
+			}
+		}
+		return CONNECTION_ERROR;
+	}
+
+	public boolean isSuccess() {
+		return this == SUCCESS;
+	}
+
+	public boolean isTimeout() {
+		return this == CONNECT_TIMEOUT || this == RESPONSE_TIMEOUT;
+	}
+
+	public boolean isOverload() {
+		return this == SERVER_ERROR || isTimeout() || this == CONNECTION_ERROR;
+	}
+
+	public boolean mayHaveBeenProcessed() {
+		return this == RESPONSE_TIMEOUT;
+	}
+
+	public boolean isRetryable() {
+		return isOverload();
+	}
+
+	public boolean canFallBack() {
+		return isRetryable() && !mayHaveBeenProcessed();
+	}
+
+	public DispatchOutcome forAttempt(int attempts) {
+		return this == DUPLICATE && attempts > 0 ? SUCCESS : this;
+	}
+}
@@ -0,0 +1,80 @@
+package br.com.rinha.pagamentos.client;
+
+import br.com.rinha.pagamentos.routing.Processor;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+public class ProcessorClient {
+
+	private final Processor processor;
+	private final WebClient webClient;
+	private final ConnectionProvider connectionProvider;
+	private final String paymentsUrl;
+	private final String warmupUrl;
+
+	private volatile Duration responseTimeout;
+
+	public ProcessorClient(
+			Processor processor,
+			WebClient webClient,
+			ConnectionProvider connectionProvider,
+			String paymentsUrl,
+			String warmupUrl,
+			Duration initialResponseTimeout) {
+		this.processor = processor;
+		this.webClient = webClient;
+		this.connectionProvider = connectionProvider;
+		this.paymentsUrl = paymentsUrl;
+		this.warmupUrl = warmupUrl;
+		this.responseTimeout = initialResponseTimeout;
+	}
+
+	public Mono<DispatchOutcome> sendPayment(Object payment) {
+		final Duration timeout = responseTimeout;
+		return webClient.post()
+				.uri(paymentsUrl)
+				.bodyValue(payment)
+				.httpRequest(request -> request.<HttpClientRequest>getNativeRequest().responseTimeout(timeout))
+				.exchangeToMono(response -> response.releaseBody().thenReturn(DispatchOutcome.of(response.statusCode())))
+				.onErrorResume(e -> Mono.just(DispatchOutcome.of(e)));
+	}
+
+	public <T> Mono<T> get(String url, Class<T> type, Duration timeout) {
+		return webClient.get()
+				.uri(url)
+				.httpRequest(request -> request.<HttpClientRequest>getNativeRequest().responseTimeout(timeout))
+				.retrieve()
+				.bodyToMono(type);
+	}
+
+	public Mono<Void> warmUp(int connections) {
+		return Flux.range(0, connections)
+				.flatMap(i -> webClient.get()
+						.uri(warmupUrl)
+						.httpRequest(request -> request.<HttpClientRequest>getNativeRequest().responseTimeout(responseTimeout))
+						.exchangeToMono(response -> response.releaseBody())
+						.onErrorResume(e -> Mono.empty()), connections)
+				.then();
+	}
+
+	public Processor getProcessor() {
+		return processor;
+	}
+
+	public Duration getResponseTimeout() {
+		return responseTimeout;
+	}
+
+	void setResponseTimeout(Duration responseTimeout) {
+		this.responseTimeout = responseTimeout;
+	}
+
+	Mono<Void> dispose() {
+		return connectionProvider.disposeLater();
+	}
+}
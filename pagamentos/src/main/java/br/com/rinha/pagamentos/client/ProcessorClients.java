@@ -0,0 +1,202 @@
+package br.com.rinha.pagamentos.client;
+
+import br.com.rinha.pagamentos.metrics.LatencyHistogram;
+import br.com.rinha.pagamentos.metrics.PaymentMetrics;
+import br.com.rinha.pagamentos.routing.Processor;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class ProcessorClients implements ApplicationListener<ApplicationReadyEvent>, SmartLifecycle {
+
+	private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(2);
+	private static final double TIMEOUT_QUANTILE = 0.99;
+	private static final double MAX_TIMEOUT_RATE = 0.01;
+	private static final int HEALTH_CHECK_CONNECTIONS = 1;
+
+	private final WebClient.Builder webClientBuilder;
+	private final PaymentMetrics metrics;
+	private final Map<Processor, LatencyHistogram.Snapshot> lastSnapshots = new EnumMap<>(Processor.class);
+	private final Map<Processor, Long> lastTimeouts = new EnumMap<>(Processor.class);
+	private final String defaultPaymentsUrl;
+	private final String defaultWarmupUrl;
+	private final String fallbackPaymentsUrl;
+	private final String fallbackWarmupUrl;
+	private final int maxConnections;
+	private final int pendingAcquireMax;
+	private final long maxIdleMs;
+	private final long maxLifeMs;
+	private final long evictIntervalMs;
+	private final int connectTimeoutMs;
+	private final int warmupConnections;
+	private final boolean pooledDispatch;
+	private final long minResponseTimeoutMs;
+	private final long maxResponseTimeoutMs;
+	private final double timeoutMultiplier;
+	private final int minTimeoutSamples;
+
+	private volatile Map<Processor, ProcessorClient> clients;
+	private volatile boolean running;
+	private volatile boolean stopped;
+
+	public ProcessorClients(
+			WebClient.Builder webClientBuilder,
+			PaymentMetrics metrics,
+			@Value("${processor.default.payments.url}") String defaultPaymentsUrl,
+			@Value("${processor.default.warmup.url}") String defaultWarmupUrl,
+			@Value("${processor.fallback.payments.url}") String fallbackPaymentsUrl,
+			@Value("${processor.fallback.warmup.url}") String fallbackWarmupUrl,
+			@Value("${processor.client.max-connections}") int maxConnections,
+			@Value("${processor.client.pending-acquire-max}") int pendingAcquireMax,
+			@Value("${processor.client.max-idle-ms}") long maxIdleMs,
+			@Value("${processor.client.max-life-ms}") long maxLifeMs,
+			@Value("${processor.client.evict-interval-ms}") long evictIntervalMs,
+			@Value("${processor.client.connect-timeout-ms}") int connectTimeoutMs,
+			@Value("${processor.client.warmup-connections}") int warmupConnections,
+			@Value("${processor.client.response-timeout.min-ms}") long minResponseTimeoutMs,
+			@Value("${processor.client.response-timeout.max-ms}") long maxResponseTimeoutMs,
+			@Value("${processor.client.response-timeout.multiplier}") double timeoutMultiplier,
+			@Value("${processor.client.response-timeout.min-samples}") int minTimeoutSamples,
+			@Value("${dispatch.engine}") String dispatchEngine) {
+		this.webClientBuilder = webClientBuilder;
+		this.metrics = metrics;
+		this.defaultPaymentsUrl = defaultPaymentsUrl;
+		this.defaultWarmupUrl = defaultWarmupUrl;
+		this.fallbackPaymentsUrl = fallbackPaymentsUrl;
+		this.fallbackWarmupUrl = fallbackWarmupUrl;
+		this.maxConnections = maxConnections;
+		this.pendingAcquireMax = pendingAcquireMax;
+		this.maxIdleMs = maxIdleMs;
+		this.maxLifeMs = maxLifeMs;
+		this.evictIntervalMs = evictIntervalMs;
+		this.connectTimeoutMs = connectTimeoutMs;
+		this.warmupConnections = warmupConnections;
+		this.pooledDispatch = !"virtual-threads".equals(dispatchEngine);
+		this.minResponseTimeoutMs = minResponseTimeoutMs;
+		this.maxResponseTimeoutMs = maxResponseTimeoutMs;
+		this.timeoutMultiplier = timeoutMultiplier;
+		this.minTimeoutSamples = minTimeoutSamples;
+		this.clients = createClients();
+
+		for (Processor processor : Processor.values()) {
+			lastSnapshots.put(processor, metrics.processorLatency(processor));
+			lastTimeouts.put(processor, metrics.processorTimeouts(processor));
+		}
+	}
+
+	public ProcessorClient get(Processor processor) {
+		return clients.get(processor);
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		warmUp();
+	}
+
+	@Override
+	public void start() {
+		if (stopped) {
+			clients = createClients();
+			stopped = false;
+			warmUp();
+		}
+		running = true;
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		stopped = true;
+		dispose();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	private Map<Processor, ProcessorClient> createClients() {
+		Map<Processor, ProcessorClient> created = new EnumMap<>(Processor.class);
+		for (Processor processor : Processor.values()) {
+			ConnectionProvider provider = ConnectionProvider.builder("processor-" + processor.key())
+					.maxConnections(pooledDispatch ? maxConnections : HEALTH_CHECK_CONNECTIONS)
+					.pendingAcquireMaxCount(pendingAcquireMax)
+					.pendingAcquireTimeout(Duration.ofMillis(maxResponseTimeoutMs))
+					.maxIdleTime(Duration.ofMillis(maxIdleMs))
+					.maxLifeTime(Duration.ofMillis(maxLifeMs))
+					.evictInBackground(Duration.ofMillis(evictIntervalMs))
+					.lifo()
+					.build();
+			HttpClient httpClient = HttpClient.create(provider)
+					.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+					.option(ChannelOption.SO_KEEPALIVE, true)
+					.option(ChannelOption.TCP_NODELAY, true)
+					.keepAlive(true);
+			WebClient webClient = webClientBuilder.clone()
+					.clientConnector(new ReactorClientHttpConnector(httpClient))
+					.build();
+
+			String paymentsUrl = processor == Processor.DEFAULT ? defaultPaymentsUrl : fallbackPaymentsUrl;
+			String warmupUrl = processor == Processor.DEFAULT ? defaultWarmupUrl : fallbackWarmupUrl;
+			created.put(processor, new ProcessorClient(processor, webClient, provider, paymentsUrl, warmupUrl,
+					Duration.ofMillis(maxResponseTimeoutMs)));
+		}
+		return created;
+	}
+
+	private void warmUp() {
+		if (!pooledDispatch) {
+			return;
+		}
+		for (ProcessorClient client : clients.values()) {
+			client.warmUp(warmupConnections).subscribe();
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${processor.client.response-timeout.refresh-ms}")
+	public void refreshResponseTimeouts() {
+		for (ProcessorClient client : clients.values()) {
+			Processor processor = client.getProcessor();
+			LatencyHistogram.Snapshot current = metrics.processorLatency(processor);
+			LatencyHistogram.Snapshot window = current.since(lastSnapshots.get(processor));
+			long timeouts = metrics.processorTimeouts(processor);
+			long windowTimeouts = timeouts - lastTimeouts.get(processor);
+
+			if (windowTimeouts > MAX_TIMEOUT_RATE * (window.getCount() + windowTimeouts)) {
+				long widened = Math.min(maxResponseTimeoutMs, client.getResponseTimeout().toMillis() * 2);
+				client.setResponseTimeout(Duration.ofMillis(widened));
+			} else if (window.getCount() >= minTimeoutSamples) {
+				client.setResponseTimeout(Duration.ofMillis(responseTimeoutMillis(window.percentileMicros(TIMEOUT_QUANTILE))));
+			} else {
+				continue;
+			}
+			lastSnapshots.put(processor, current);
+			lastTimeouts.put(processor, timeouts);
+		}
+	}
+
+	long responseTimeoutMillis(long quantileMicros) {
+		long derived = (long) Math.ceil(quantileMicros * timeoutMultiplier / 1_000);
+		return Math.max(minResponseTimeoutMs, Math.min(maxResponseTimeoutMs, derived));
+	}
+
+	private void dispose() {
+		Mono.when(clients.values().stream().map(ProcessorClient::dispose).toList())
+				.onErrorResume(e -> Mono.empty())
+				.block(SHUTDOWN_TIMEOUT);
+	}
+}
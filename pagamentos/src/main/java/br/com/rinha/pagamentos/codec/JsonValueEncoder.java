@@ -0,0 +1,53 @@
+package br.com.rinha.pagamentos.codec;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+public class JsonValueEncoder<T> extends AbstractEncoder<T> {
+
+	private final Class<T> type;
+	private final int initialCapacity;
+	private final BiConsumer<T, DataBuffer> writer;
+
+	public JsonValueEncoder(Class<T> type, int initialCapacity, BiConsumer<T, DataBuffer> writer) {
+		super(MediaType.APPLICATION_JSON);
+		this.type = type;
+		this.initialCapacity = initialCapacity;
+		this.writer = writer;
+	}
+
+	@Override
+	public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+		Class<?> clazz = elementType.resolve();
+		return clazz != null && type.isAssignableFrom(clazz) && super.canEncode(elementType, mimeType);
+	}
+
+	@Override
+	public Flux<DataBuffer> encode(Publisher<? extends T> input, DataBufferFactory bufferFactory,
+			ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+		return Flux.from(input).map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints));
+	}
+
+	@Override
+	public DataBuffer encodeValue(T value, DataBufferFactory bufferFactory,
+			ResolvableType valueType, MimeType mimeType, Map<String, Object> hints) {
+		DataBuffer buffer = bufferFactory.allocateBuffer(initialCapacity);
+		try {
+			writer.accept(value, buffer);
+			return buffer;
+		} catch (RuntimeException e) {
+			DataBufferUtils.release(buffer);
+			throw e;
+		}
+	}
+}
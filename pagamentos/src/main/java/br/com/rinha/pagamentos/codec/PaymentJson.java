@@ -0,0 +1,409 @@
+package br.com.rinha.pagamentos.codec;
+
+import br.com.rinha.pagamentos.model.Money;
+import br.com.rinha.pagamentos.model.PaymentSent;
+import br.com.rinha.pagamentos.model.PaymentsSummaryResponse;
+import br.com.rinha.pagamentos.model.QueuedPayment;
+import br.com.rinha.pagamentos.model.Summary;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+public final class PaymentJson {
+
+	private static final byte[] CORRELATION_ID = ascii("correlationId");
+	private static final byte[] AMOUNT = ascii("amount");
+	private static final byte[] PAYMENT_SENT_PREFIX = ascii("{\"correlationId\":\"");
+	private static final byte[] PAYMENT_SENT_AMOUNT = ascii("\",\"amount\":");
+	private static final byte[] PAYMENT_SENT_REQUESTED_AT = ascii(",\"requestedAt\":\"");
+	private static final byte[] PAYMENT_SENT_SUFFIX = ascii("\"}");
+	private static final byte[] SUMMARY_DEFAULT = ascii("{\"default\":");
+	private static final byte[] SUMMARY_FALLBACK = ascii(",\"fallback\":");
+	private static final byte[] SUMMARY_TOTAL_REQUESTS = ascii("{\"totalRequests\":");
+	private static final byte[] SUMMARY_TOTAL_AMOUNT = ascii(",\"totalAmount\":");
+	private static final byte[] NULL = ascii("null");
+	private static final byte[] HEX = ascii("0123456789abcdef");
+
+	public static final int PAYMENT_SENT_MAX_BYTES = 160;
+	public static final int SUMMARY_MAX_BYTES = 256;
+
+	private PaymentJson() {
+	}
+
+	public static QueuedPayment readQueuedPayment(DataBuffer buffer) {
+		Reader reader = new Reader(buffer);
+		QueuedPayment payment = new QueuedPayment();
+		boolean hasAmount = false;
+		boolean hasCorrelationId = false;
+
+		reader.expect('{');
+		if (reader.skipWhitespaceAndPeek() == '}') {
+			throw reader.error("Missing amount");
+		}
+
+		while (true) {
+			reader.expect('"');
+			int keyStart = reader.pos;
+			int keyEnd = reader.skipStringBody();
+			reader.expect(':');
+			reader.skipWhitespaceAndPeek();
+
+			if (reader.matches(keyStart, keyEnd, CORRELATION_ID)) {
+				payment.setCorrelationId(reader.readUuidOrNull());
+				hasCorrelationId = payment.getCorrelationId() != null;
+			} else if (reader.matches(keyStart, keyEnd, AMOUNT)) {
+				payment.setAmountCents(reader.readCents());
+				hasAmount = true;
+			} else {
+				reader.skipValue();
+			}
+
+			int next = reader.skipWhitespaceAndPeek();
+			reader.pos++;
+			if (next == '}') {
+				if (!hasAmount) {
+					throw reader.error("Missing amount");
+				}
+				if (!hasCorrelationId) {
+					throw reader.error("Missing correlationId");
+				}
+				return payment;
+			}
+			if (next != ',') {
+				throw reader.error("Expected ',' or '}'");
+			}
+		}
+	}
+
+	public static void writePaymentSent(PaymentSent payment, DataBuffer buffer) {
+		buffer.write(PAYMENT_SENT_PREFIX);
+		writeUuid(payment.getCorrelationId(), buffer);
+		buffer.write(PAYMENT_SENT_AMOUNT);
+		writeCents(payment.getAmountCents(), buffer);
+		buffer.write(PAYMENT_SENT_REQUESTED_AT);
+		writeIsoInstant(payment.getRequestedAt().toEpochMilli(), buffer);
+		buffer.write(PAYMENT_SENT_SUFFIX);
+	}
+
+	public static void writePaymentsSummary(PaymentsSummaryResponse response, DataBuffer buffer) {
+		buffer.write(SUMMARY_DEFAULT);
+		writeSummary(response.getDefaultSummary(), buffer);
+		buffer.write(SUMMARY_FALLBACK);
+		writeSummary(response.getFallbackSummary(), buffer);
+		buffer.write((byte) '}');
+	}
+
+	private static void writeSummary(Summary summary, DataBuffer buffer) {
+		if (summary == null) {
+			buffer.write(NULL);
+			return;
+		}
+		buffer.write(SUMMARY_TOTAL_REQUESTS);
+		writeLong(summary.getTotalRequests(), buffer);
+		buffer.write(SUMMARY_TOTAL_AMOUNT);
+		writeCents(summary.getTotalAmountCents(), buffer);
+		buffer.write((byte) '}');
+	}
+
+	private static void writeUuid(UUID uuid, DataBuffer buffer) {
+		long msb = uuid.getMostSignificantBits();
+		long lsb = uuid.getLeastSignificantBits();
+		writeHex(msb >>> 32, 8, buffer);
+		buffer.write((byte) '-');
+		writeHex(msb >>> 16, 4, buffer);
+		buffer.write((byte) '-');
+		writeHex(msb, 4, buffer);
+		buffer.write((byte) '-');
+		writeHex(lsb >>> 48, 4, buffer);
+		buffer.write((byte) '-');
+		writeHex(lsb, 12, buffer);
+	}
+
+	private static void writeHex(long value, int digits, DataBuffer buffer) {
+		for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+			buffer.write(HEX[(int) (value >>> shift) & 0xF]);
+		}
+	}
+
+	private static void writeCents(long cents, DataBuffer buffer) {
+		if (cents < 0) {
+			buffer.write((byte) '-');
+			cents = -cents;
+		}
+		writeLong(cents / 100, buffer);
+		buffer.write((byte) '.');
+		writePadded(cents % 100, Money.SCALE, buffer);
+	}
+
+	private static void writeIsoInstant(long epochMillis, DataBuffer buffer) {
+		long epochDay = Math.floorDiv(epochMillis, 86_400_000L);
+		long millisOfDay = Math.floorMod(epochMillis, 86_400_000L);
+
+		long z = epochDay + 719_468;
+		long era = Math.floorDiv(z, 146_097);
+		long dayOfEra = z - era * 146_097;
+		long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+		long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		long mp = (5 * dayOfYear + 2) / 153;
+		long day = dayOfYear - (153 * mp + 2) / 5 + 1;
+		long month = mp < 10 ? mp + 3 : mp - 9;
+		long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+		writePadded(year, 4, buffer);
+		buffer.write((byte) '-');
+		writePadded(month, 2, buffer);
+		buffer.write((byte) '-');
+		writePadded(day, 2, buffer);
+		buffer.write((byte) 'T');
+		writePadded(millisOfDay / 3_600_000, 2, buffer);
+		buffer.write((byte) ':');
+		writePadded(millisOfDay / 60_000 % 60, 2, buffer);
+		buffer.write((byte) ':');
+		writePadded(millisOfDay / 1_000 % 60, 2, buffer);
+		buffer.write((byte) '.');
+		writePadded(millisOfDay % 1_000, 3, buffer);
+		buffer.write((byte) 'Z');
+	}
+
+	private static void writeLong(long value, DataBuffer buffer) {
+		if (value < 0) {
+			buffer.write((byte) '-');
+			value = -value;
+		}
+		writePadded(value, digits(value), buffer);
+	}
+
+	private static void writePadded(long value, int width, DataBuffer buffer) {
+		for (long divisor = pow10(width - 1); divisor > 0; divisor /= 10) {
+			buffer.write((byte) ('0' + value / divisor % 10));
+		}
+	}
+
+	private static int digits(long value) {
+		int digits = 1;
+		while (value >= 10 && digits < 19) {
+			value /= 10;
+			digits++;
+		}
+		return digits;
+	}
+
+	private static long pow10(int exponent) {
+		long result = 1;
+		for (int i = 0; i < exponent; i++) {
+			result *= 10;
+		}
+		return result;
+	}
+
+	private static byte[] ascii(String value) {
+		return value.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	private static final class Reader {
+
+		private final DataBuffer buffer;
+		private final int end;
+		private int pos;
+
+		private Reader(DataBuffer buffer) {
+			this.buffer = buffer;
+			this.pos = buffer.readPosition();
+			this.end = buffer.writePosition();
+		}
+
+		private int skipWhitespaceAndPeek() {
+			while (pos < end) {
+				byte b = buffer.getByte(pos);
+				if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+					return b;
+				}
+				pos++;
+			}
+			throw error("Unexpected end of JSON input");
+		}
+
+		private void expect(char expected) {
+			if (skipWhitespaceAndPeek() != expected) {
+				throw error("Expected '" + expected + "'");
+			}
+			pos++;
+		}
+
+		private int skipStringBody() {
+			while (pos < end) {
+				byte b = buffer.getByte(pos++);
+				if (b == '\\') {
+					pos++;
+				} else if (b == '"') {
+					return pos - 1;
+				}
+			}
+			throw error("Unterminated string");
+		}
+
+		private boolean matches(int start, int stop, byte[] expected) {
+			if (stop - start != expected.length) {
+				return false;
+			}
+			for (int i = 0; i < expected.length; i++) {
+				if (buffer.getByte(start + i) != expected[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean consumeNull() {
+			if (buffer.getByte(pos) != 'n') {
+				return false;
+			}
+			if (pos + NULL.length > end || !matches(pos, pos + NULL.length, NULL)) {
+				throw error("Invalid literal");
+			}
+			pos += NULL.length;
+			return true;
+		}
+
+		private UUID readUuidOrNull() {
+			if (consumeNull()) {
+				return null;
+			}
+			expect('"');
+			if (pos + 37 > end) {
+				throw error("Invalid UUID");
+			}
+			long msb = 0;
+			long lsb = 0;
+			for (int i = 0; i < 36; i++) {
+				byte b = buffer.getByte(pos + i);
+				if (i == 8 || i == 13 || i == 18 || i == 23) {
+					if (b != '-') {
+						throw error("Invalid UUID");
+					}
+					continue;
+				}
+				int nibble = Character.digit(b, 16);
+				if (nibble < 0) {
+					throw error("Invalid UUID");
+				}
+				if (i < 18) {
+					msb = (msb << 4) | nibble;
+				} else {
+					lsb = (lsb << 4) | nibble;
+				}
+			}
+			pos += 36;
+			expect('"');
+			return new UUID(msb, lsb);
+		}
+
+		private long readCents() {
+			int start = pos;
+			boolean negative = false;
+			long cents = 0;
+			int fractionDigits = -1;
+			int digits = 0;
+
+			if (pos < end && buffer.getByte(pos) == '-') {
+				negative = true;
+				pos++;
+			}
+			while (pos < end) {
+				byte b = buffer.getByte(pos);
+				if (b >= '0' && b <= '9') {
+					digits++;
+					if (fractionDigits < Money.SCALE) {
+						cents = multiplyAddExact(cents, b - '0');
+						if (fractionDigits >= 0) {
+							fractionDigits++;
+						}
+					} else if (b != '0') {
+						throw error("Amount has more than " + Money.SCALE + " decimal places");
+					}
+				} else if (b == '.' && fractionDigits < 0) {
+					fractionDigits = 0;
+				} else if (b == 'e' || b == 'E') {
+					return readExponentCents(start);
+				} else {
+					break;
+				}
+				pos++;
+			}
+			if (digits == 0) {
+				throw error("Invalid amount");
+			}
+			for (int i = Math.max(fractionDigits, 0); i < Money.SCALE; i++) {
+				cents = multiplyAddExact(cents, 0);
+			}
+			return negative ? -cents : cents;
+		}
+
+		private long readExponentCents(int start) {
+			while (pos < end) {
+				byte b = buffer.getByte(pos);
+				if ((b < '0' || b > '9') && b != '.' && b != '-' && b != '+' && b != 'e' && b != 'E') {
+					break;
+				}
+				pos++;
+			}
+			char[] chars = new char[pos - start];
+			for (int i = 0; i < chars.length; i++) {
+				chars[i] = (char) buffer.getByte(start + i);
+			}
+			try {
+				return Money.toCents(new BigDecimal(chars));
+			} catch (ArithmeticException | NumberFormatException e) {
+				throw error("Invalid amount");
+			}
+		}
+
+		private long multiplyAddExact(long value, int digit) {
+			if (value > (Long.MAX_VALUE - digit) / 10) {
+				throw error("Amount out of range");
+			}
+			return value * 10 + digit;
+		}
+
+		private void skipValue() {
+			int depth = 0;
+			do {
+				int b = skipWhitespaceAndPeek();
+				if (b == '"') {
+					pos++;
+					skipStringBody();
+				} else if (b == '{' || b == '[') {
+					pos++;
+					depth++;
+				} else if (b == '}' || b == ']' || b == ',' || b == ':') {
+					if (depth == 0) {
+						throw error("Expected a value");
+					}
+					pos++;
+					if (b == '}' || b == ']') {
+						depth--;
+					}
+				} else {
+					skipLiteral();
+				}
+			} while (depth > 0);
+		}
+
+		private void skipLiteral() {
+			while (pos < end) {
+				byte b = buffer.getByte(pos);
+				if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+					return;
+				}
+				pos++;
+			}
+		}
+
+		private DecodingException error(String message) {
+			return new DecodingException(message + " at offset " + (pos - buffer.readPosition()));
+		}
+	}
+}
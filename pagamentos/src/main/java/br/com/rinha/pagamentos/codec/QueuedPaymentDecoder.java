@@ -0,0 +1,39 @@
+package br.com.rinha.pagamentos.codec;
+
+import br.com.rinha.pagamentos.model.QueuedPayment;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDataBufferDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+public class QueuedPaymentDecoder extends AbstractDataBufferDecoder<QueuedPayment> {
+
+	public QueuedPaymentDecoder() {
+		super(MediaType.APPLICATION_JSON);
+	}
+
+	@Override
+	public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+		return elementType.resolve() == QueuedPayment.class && super.canDecode(elementType, mimeType);
+	}
+
+	@Override
+	public Flux<QueuedPayment> decode(Publisher<DataBuffer> input, ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+		return Flux.from(decodeToMono(input, elementType, mimeType, hints));
+	}
+
+	@Override
+	public QueuedPayment decode(DataBuffer buffer, ResolvableType targetType, MimeType mimeType, Map<String, Object> hints) {
+		try {
+			return PaymentJson.readQueuedPayment(buffer);
+		} finally {
+			DataBufferUtils.release(buffer);
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package br.com.rinha.pagamentos.config;
+
+import br.com.rinha.pagamentos.codec.JsonValueEncoder;
+import br.com.rinha.pagamentos.codec.PaymentJson;
+import br.com.rinha.pagamentos.codec.QueuedPaymentDecoder;
+import br.com.rinha.pagamentos.model.PaymentSent;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CodecConfig {
+
+	@Bean
+	public CodecCustomizer paymentCodecCustomizer() {
+		return configurer -> {
+			configurer.customCodecs().registerWithDefaultConfig(new QueuedPaymentDecoder());
+			configurer.customCodecs().registerWithDefaultConfig(
+					new JsonValueEncoder<>(PaymentSent.class, PaymentJson.PAYMENT_SENT_MAX_BYTES, PaymentJson::writePaymentSent));
+		};
+	}
+}
@@ -1,41 +1,72 @@
 	package br.com.rinha.pagamentos.config;
 
 	import com.esotericsoftware.kryo.Kryo;
+	import com.esotericsoftware.kryo.Registration;
 	import com.esotericsoftware.kryo.io.Input;
 	import com.esotericsoftware.kryo.io.Output;
 	import com.esotericsoftware.kryo.serializers.DefaultSerializers;
+	import com.esotericsoftware.kryo.util.Pool;
 	import de.javakaffee.kryoserializers.UUIDSerializer;
 	import org.objenesis.strategy.StdInstantiatorStrategy;
 	import org.springframework.data.redis.serializer.RedisSerializer;
 	import org.springframework.data.redis.serializer.SerializationException;
-	import java.io.ByteArrayOutputStream;
 	import java.util.UUID;
 
 	public class KyroRedisSerializer implements RedisSerializer<Object> {
 
-		private static final ThreadLocal<Kryo> kryoThreadLocal = ThreadLocal.withInitial(() -> {
+		private static final int POOL_CAPACITY = 16;
+		private static final int OUTPUT_BUFFER_SIZE = 128;
+
+		private static final int PREBUILT_INSTANCES = 2;
+
+		private static final Pool<Kryo> kryoPool = new Pool<>(true, false, POOL_CAPACITY) {
+			@Override
+			protected Kryo create() {
+				return newKryo();
+			}
+		};
+
+		static {
+			for (int i = 0; i < PREBUILT_INSTANCES; i++) {
+				kryoPool.free(newKryo());
+			}
+		}
+
+		private static final Pool<Output> outputPool = new Pool<>(true, false, POOL_CAPACITY) {
+			@Override
+			protected Output create() {
+				return new Output(OUTPUT_BUFFER_SIZE, -1);
+			}
+		};
+
+		private static Kryo newKryo() {
 			Kryo kryo = new Kryo();
 
 			kryo.setInstantiatorStrategy(new StdInstantiatorStrategy());
 
-			kryo.register(br.com.rinha.pagamentos.model.QueuedPayment.class, 10);
+			Registration legacy = kryo.register(LegacyQueuedPayment.class, 10);
+			legacy.setInstantiator(kryo.getInstantiatorStrategy().newInstantiatorOf(LegacyQueuedPayment.class));
 			kryo.register(java.math.BigDecimal.class, new DefaultSerializers.BigDecimalSerializer(), 11);
 			kryo.register(UUID.class, new UUIDSerializer(), 12);
 			return kryo;
-		});
+		}
 
 		@Override
 		public byte[] serialize(Object o) throws SerializationException {
 			if (o == null) {
 				return new byte[0];
 			}
-			try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-					Output output = new Output(baos)) {
-				kryoThreadLocal.get().writeClassAndObject(output, o);
-				output.flush();
-				return baos.toByteArray();
+			Kryo kryo = kryoPool.obtain();
+			Output output = outputPool.obtain();
+			try {
+				output.reset();
+				kryo.writeClassAndObject(output, o);
+				return output.toBytes();
 			} catch (Exception e) {
 				throw new SerializationException("Could not serialize object with Kryo", e);
+			} finally {
+				outputPool.free(output);
+				kryoPool.free(kryo);
 			}
 		}
 
@@ -44,10 +75,13 @@
 			if (bytes == null || bytes.length == 0) {
 				return null;
 			}
+			Kryo kryo = kryoPool.obtain();
 			try (Input input = new Input(bytes)) {
-				return kryoThreadLocal.get().readClassAndObject(input);
+				return kryo.readClassAndObject(input);
 			} catch (Exception e) {
 				throw new SerializationException("Could not deserialize object with Kryo", e);
+			} finally {
+				kryoPool.free(kryo);
 			}
 		}
 	}
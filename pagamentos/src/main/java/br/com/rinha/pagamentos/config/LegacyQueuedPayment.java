@@ -0,0 +1,26 @@
+package br.com.rinha.pagamentos.config;
+
+import br.com.rinha.pagamentos.model.Money;
+import br.com.rinha.pagamentos.model.QueuedPayment;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.UUID;
+
+class LegacyQueuedPayment {
+
+	private UUID correlationId;
+	private BigDecimal amount;
+
+	public LegacyQueuedPayment() {
+	}
+
+	public LegacyQueuedPayment(UUID correlationId, BigDecimal amount) {
+		this.correlationId = correlationId;
+		this.amount = amount;
+	}
+
+	public QueuedPayment toQueuedPayment() {
+		return new QueuedPayment(amount.setScale(Money.SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact(), correlationId);
+	}
+}
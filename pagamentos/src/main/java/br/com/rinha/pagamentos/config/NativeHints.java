@@ -6,8 +6,6 @@ import br.com.rinha.pagamentos.model.PaymentSent;
 import br.com.rinha.pagamentos.model.PaymentsSummaryResponse;
 import br.com.rinha.pagamentos.model.QueuedPayment;
 import br.com.rinha.pagamentos.model.Summary;
-import de.javakaffee.kryoserializers.UUIDSerializer;
-import org.objenesis.strategy.StdInstantiatorStrategy;
 import org.springframework.aot.hint.MemberCategory;
 import org.springframework.aot.hint.RuntimeHints;
 import org.springframework.aot.hint.RuntimeHintsRegistrar;
@@ -16,7 +14,6 @@ import org.springframework.data.redis.connection.MessageListener;
 
 import java.math.BigDecimal;
 import java.util.UUID;
-import com.esotericsoftware.kryo.serializers.DefaultSerializers;
 
 public class NativeHints implements RuntimeHintsRegistrar {
 
@@ -27,15 +24,13 @@ public class NativeHints implements RuntimeHintsRegistrar {
 		hints.reflection().registerTypes(
 				TypeReference.listOf(
 						QueuedPayment.class,
+						LegacyQueuedPayment.class,
 						BigDecimal.class,
 						UUID.class,
-						UUIDSerializer.class,
 						HealthCheckResponse.class,
 						PaymentSent.class,
 						PaymentsSummaryResponse.class,
-						Summary.class,
-						DefaultSerializers.BigDecimalSerializer.class,
-						StdInstantiatorStrategy.class
+						Summary.class
 				),
 				hint -> hint.withMembers(reflectionCategories)
 		);
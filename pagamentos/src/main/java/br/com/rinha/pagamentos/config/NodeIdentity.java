@@ -0,0 +1,20 @@
+package br.com.rinha.pagamentos.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+public class NodeIdentity {
+
+	private final String id;
+
+	public NodeIdentity(@Value("${node.id:}") String configuredId) {
+		this.id = configuredId == null || configuredId.isBlank() ? UUID.randomUUID().toString() : configuredId;
+	}
+
+	public String getId() {
+		return id;
+	}
+}
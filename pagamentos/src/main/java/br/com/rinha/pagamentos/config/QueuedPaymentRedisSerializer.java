@@ -0,0 +1,63 @@
+package br.com.rinha.pagamentos.config;
+
+import br.com.rinha.pagamentos.model.QueuedPayment;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+public class QueuedPaymentRedisSerializer implements RedisSerializer<QueuedPayment> {
+
+	public static final byte COMPACT_V1 = (byte) 0xC1;
+	public static final int COMPACT_V1_BYTES = 1 + Long.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES;
+
+	private final KyroRedisSerializer legacySerializer = new KyroRedisSerializer();
+
+	@Override
+	public byte[] serialize(QueuedPayment payment) throws SerializationException {
+		if (payment == null) {
+			return new byte[0];
+		}
+		UUID correlationId = payment.getCorrelationId();
+		if (correlationId == null) {
+			throw new SerializationException("Queued payment is missing its correlationId");
+		}
+
+		byte[] bytes = new byte[COMPACT_V1_BYTES];
+		ByteBuffer.wrap(bytes)
+				.put(COMPACT_V1)
+				.putLong(correlationId.getMostSignificantBits())
+				.putLong(correlationId.getLeastSignificantBits())
+				.putLong(payment.getAmountCents())
+				.putInt(payment.getAttempts());
+		return bytes;
+	}
+
+	@Override
+	public QueuedPayment deserialize(byte[] bytes) throws SerializationException {
+		if (bytes == null || bytes.length == 0) {
+			return null;
+		}
+		if (bytes[0] != COMPACT_V1) {
+			return deserializeLegacy(bytes);
+		}
+		if (bytes.length != COMPACT_V1_BYTES) {
+			throw new SerializationException("Unexpected queued payment length: " + bytes.length);
+		}
+
+		ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, COMPACT_V1_BYTES - 1);
+		UUID correlationId = new UUID(buffer.getLong(), buffer.getLong());
+		QueuedPayment payment = new QueuedPayment(buffer.getLong(), correlationId);
+		payment.setAttempts(buffer.getInt());
+		return payment;
+	}
+
+	private QueuedPayment deserializeLegacy(byte[] bytes) {
+		Object legacy = legacySerializer.deserialize(bytes);
+		if (legacy instanceof LegacyQueuedPayment legacyPayment) {
+			return legacyPayment.toQueuedPayment();
+		}
+		throw new SerializationException("Unsupported queued payment format");
+	}
+}
@@ -2,24 +2,30 @@ package br.com.rinha.pagamentos.config;
 
 import br.com.rinha.pagamentos.health.ProcessorHealthMonitor;
 import br.com.rinha.pagamentos.model.QueuedPayment;
+import br.com.rinha.pagamentos.routing.ProcessorCircuitBreakers;
+import br.com.rinha.pagamentos.summary.CompactionTier;
+import br.com.rinha.pagamentos.summary.SummaryBarrier;
+import br.com.rinha.pagamentos.summary.SummaryIndexService;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
-import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.connection.ReturnType;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
-import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
-import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class RedisConfig {
@@ -30,20 +36,36 @@ public class RedisConfig {
 	public ReactiveRedisTemplate<String, QueuedPayment> reactiveQueuedRedisTemplate(
 			ReactiveRedisConnectionFactory factory) {
 
-		var kryoSerializer = new KyroRedisSerializer();
+		var paymentSerializer = new QueuedPaymentRedisSerializer();
 		var stringSerializer = new StringRedisSerializer();
 
 		RedisSerializationContext<String, QueuedPayment> serializationContext = RedisSerializationContext
 				.<String, QueuedPayment>newSerializationContext(stringSerializer)
 				.key(stringSerializer)
-				.value((RedisSerializer<QueuedPayment>) (RedisSerializer<?>) kryoSerializer)
+				.value(paymentSerializer)
 				.hashKey(stringSerializer)
-				.hashValue((RedisSerializer<QueuedPayment>) (RedisSerializer<?>) kryoSerializer)
+				.hashValue(paymentSerializer)
 				.build();
 
 		return new ReactiveRedisTemplate<>(factory, serializationContext);
 	}
 
+	@Bean
+	@Qualifier("queuedRedisTemplate")
+	public RedisTemplate<String, QueuedPayment> queuedRedisTemplate(RedisConnectionFactory connectionFactory) {
+		var paymentSerializer = new QueuedPaymentRedisSerializer();
+		var stringSerializer = new StringRedisSerializer();
+
+		RedisTemplate<String, QueuedPayment> template = new RedisTemplate<>();
+		template.setConnectionFactory(connectionFactory);
+		template.setKeySerializer(stringSerializer);
+		template.setValueSerializer(paymentSerializer);
+		template.setHashKeySerializer(stringSerializer);
+		template.setHashValueSerializer(paymentSerializer);
+		template.afterPropertiesSet();
+		return template;
+	}
+
 	@Bean
 	@Qualifier("persistedRedisTemplate")
 	public RedisTemplate<String, String> persistedRedisTemplate(RedisConnectionFactory connectionFactory) {
@@ -56,15 +78,24 @@ public class RedisConfig {
 	}
 
 	@Bean
-	public ApplicationRunner redisTimeSeriesInitializer(@Qualifier("persistedRedisTemplate") RedisTemplate<String, String> redisTemplate) {
+	public ApplicationRunner redisTimeSeriesInitializer(
+			@Qualifier("persistedRedisTemplate") RedisTemplate<String, String> redisTemplate,
+			@Value("${summary.timeseries.retention.raw-ms}") long rawRetentionMs,
+			@Value("${summary.timeseries.retention.second-ms}") long secondRetentionMs,
+			@Value("${summary.timeseries.retention.minute-ms}") long minuteRetentionMs,
+			@Value("${summary.timeseries.retention.hour-ms}") long hourRetentionMs) {
+
+		Map<CompactionTier, Long> retentions = new EnumMap<>(CompactionTier.class);
+		retentions.put(CompactionTier.RAW, rawRetentionMs);
+		retentions.put(CompactionTier.SECOND, secondRetentionMs);
+		retentions.put(CompactionTier.MINUTE, minuteRetentionMs);
+		retentions.put(CompactionTier.HOUR, hourRetentionMs);
+
 		return args -> {
-			redisTemplate.execute((RedisConnection connection) -> {
-				createTimeSeriesIfNotExists(connection, "payments:amount:ts:default", "type", "amount", "processor", "default");
-				createTimeSeriesIfNotExists(connection, "payments:count:ts:default", "type", "count", "processor", "default");
-				createTimeSeriesIfNotExists(connection, "payments:amount:ts:fallback", "type", "amount", "processor", "fallback");
-				createTimeSeriesIfNotExists(connection, "payments:count:ts:fallback", "type", "count", "processor", "fallback");
-				return null;
-			});
+			createTimeSeriesIfNotExists(redisTemplate, "payments:amount:ts:default", "amount", "default", retentions);
+			createTimeSeriesIfNotExists(redisTemplate, "payments:count:ts:default", "count", "default", retentions);
+			createTimeSeriesIfNotExists(redisTemplate, "payments:amount:ts:fallback", "amount", "fallback", retentions);
+			createTimeSeriesIfNotExists(redisTemplate, "payments:count:ts:fallback", "count", "fallback", retentions);
 		};
 	}
 
@@ -76,31 +107,47 @@ public class RedisConfig {
 	@Bean
 	public RedisMessageListenerContainer redisMessageListenerContainer(
 			RedisConnectionFactory connectionFactory,
-			ProcessorHealthMonitor healthMonitor) {
+			ProcessorHealthMonitor healthMonitor,
+			ProcessorCircuitBreakers circuitBreakers,
+			SummaryIndexService summaryIndexService,
+			SummaryBarrier summaryBarrier) {
 
 		RedisMessageListenerContainer container = new RedisMessageListenerContainer();
 		container.setConnectionFactory(connectionFactory);
 		container.addMessageListener(healthMonitor, healthMonitor.getTopic());
+		container.addMessageListener(circuitBreakers, healthMonitor.getTopic());
+		container.addMessageListener(summaryIndexService, summaryIndexService.getTopic());
+		container.addMessageListener(summaryBarrier, summaryBarrier.getTopic());
 		return container;
 	}
 
-	private static final String CREATE_TS_IF_NOT_EXISTS_SCRIPT =
-			"if redis.call('EXISTS', KEYS[1]) == 0 then " +
-					"  return redis.call('TS.CREATE', KEYS[1], 'DUPLICATE_POLICY', 'SUM', 'LABELS', ARGV[1], ARGV[2], ARGV[3], ARGV[4]) " +
-					"else " +
-					"  return 'OK' " +
-					"end";
-
-	private void createTimeSeriesIfNotExists(RedisConnection connection, String key, String label1Name, String label1Value, String label2Name, String label2Value) {
-		connection.scriptingCommands().eval(
-				CREATE_TS_IF_NOT_EXISTS_SCRIPT.getBytes(StandardCharsets.UTF_8),
-				ReturnType.STATUS,
-				1,
-				key.getBytes(StandardCharsets.UTF_8),
-				label1Name.getBytes(StandardCharsets.UTF_8),
-				label1Value.getBytes(StandardCharsets.UTF_8),
-				label2Name.getBytes(StandardCharsets.UTF_8),
-				label2Value.getBytes(StandardCharsets.UTF_8)
-		);
+	private static final RedisScript<String> CREATE_TS_IF_NOT_EXISTS_SCRIPT =
+			new DefaultRedisScript<>(
+					"if redis.call('EXISTS', KEYS[1]) == 0 then " +
+							"  redis.call('TS.CREATE', KEYS[1], 'RETENTION', ARGV[1], 'DUPLICATE_POLICY', ARGV[5], " +
+							"    'LABELS', 'type', ARGV[2], 'processor', ARGV[3], 'tier', ARGV[4]) " +
+							"else " +
+							"  redis.call('TS.ALTER', KEYS[1], 'RETENTION', ARGV[1], " +
+							"    'LABELS', 'type', ARGV[2], 'processor', ARGV[3], 'tier', ARGV[4]) " +
+							"end " +
+							"if KEYS[2] then " +
+							"  redis.pcall('TS.CREATERULE', KEYS[2], KEYS[1], 'AGGREGATION', 'sum', ARGV[6]) " +
+							"end " +
+							"return 'OK'",
+					String.class
+			);
+
+	private void createTimeSeriesIfNotExists(RedisTemplate<String, String> redisTemplate, String rawKey, String type,
+			String processor, Map<CompactionTier, Long> retentions) {
+		for (CompactionTier tier : CompactionTier.values()) {
+			String retention = String.valueOf(retentions.get(tier));
+			if (tier.isRaw()) {
+				redisTemplate.execute(CREATE_TS_IF_NOT_EXISTS_SCRIPT, List.of(rawKey),
+						retention, type, processor, tier.label(), "SUM");
+			} else {
+				redisTemplate.execute(CREATE_TS_IF_NOT_EXISTS_SCRIPT, List.of(tier.keyOf(rawKey), rawKey),
+						retention, type, processor, tier.label(), "LAST", String.valueOf(tier.bucketMillis()));
+			}
+		}
 	}
 }
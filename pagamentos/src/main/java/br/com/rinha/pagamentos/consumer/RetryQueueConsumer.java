@@ -1,65 +1,112 @@
 package br.com.rinha.pagamentos.consumer;
 
-import br.com.rinha.pagamentos.health.ProcessorHealthMonitor;
-import br.com.rinha.pagamentos.model.QueuedPayment;
+import br.com.rinha.pagamentos.metrics.PaymentMetrics;
+import br.com.rinha.pagamentos.queue.PaymentQueue;
+import br.com.rinha.pagamentos.queue.QueueEntry;
+import br.com.rinha.pagamentos.routing.ProcessorConcurrencyLimits;
+import br.com.rinha.pagamentos.routing.ProcessorRouter;
 import br.com.rinha.pagamentos.service.PaymentService;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationListener;
-import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
+import java.util.List;
 
 @Service
 public class RetryQueueConsumer implements ApplicationListener<ApplicationReadyEvent> {
 
-	private static final String PROCESSING_QUEUE_KEY = "payments:processing-queue";
 	private static final Duration PROCESSORS_UNAVAILABLE_DELAY = Duration.ofMillis(100);
+	private static final Duration SATURATED_DELAY = Duration.ofMillis(10);
+	private static final Duration POLL_ERROR_DELAY = Duration.ofMillis(250);
 
-	private final ReactiveRedisTemplate<String, QueuedPayment> reactiveRedisTemplate;
+	private final PaymentQueue paymentQueue;
 	private final PaymentService paymentService;
-	private final ProcessorHealthMonitor processorHealthMonitor;
+	private final ProcessorRouter processorRouter;
+	private final PaymentMetrics metrics;
+	private final ProcessorConcurrencyLimits concurrencyLimits;
 
 	@Value("${retry.consumer.concurrency}")
 	private int concurrencyLevel;
+	@Value("${retry.consumer.pollers}")
+	private int pollers;
+	@Value("${retry.consumer.min-batch-size}")
+	private int minBatchSize;
+	@Value("${retry.consumer.max-batch-size}")
+	private int maxBatchSize;
 
 	public RetryQueueConsumer(
-			@Qualifier("reactiveQueuedRedisTemplate") ReactiveRedisTemplate<String, QueuedPayment> reactiveRedisTemplate,
+			PaymentQueue paymentQueue,
 			PaymentService paymentService,
-			ProcessorHealthMonitor processorHealthMonitor) {
-		this.reactiveRedisTemplate = reactiveRedisTemplate;
+			ProcessorRouter processorRouter,
+			PaymentMetrics metrics,
+			ProcessorConcurrencyLimits concurrencyLimits) {
+		this.paymentQueue = paymentQueue;
 		this.paymentService = paymentService;
-		this.processorHealthMonitor = processorHealthMonitor;
+		this.processorRouter = processorRouter;
+		this.metrics = metrics;
+		this.concurrencyLimits = concurrencyLimits;
 	}
 
 	@Override
 	public void onApplicationEvent(ApplicationReadyEvent event) {
-		this.consumeFromQueue()
-				.subscribeOn(Schedulers.parallel())
-				.subscribe();
+		for (int i = 0; i < pollers; i++) {
+			new Poller().run()
+					.subscribeOn(Schedulers.parallel())
+					.subscribe();
+		}
 	}
 
-	private Mono<Void> consumeFromQueue() {
-		return Flux.defer(() -> {
-					boolean canProcess = processorHealthMonitor.isDefaultProcessorAvailable() || processorHealthMonitor.isFallbackProcessorAvailable();
-
-					if (canProcess) {
-						return reactiveRedisTemplate.opsForList()
-								.rightPop(PROCESSING_QUEUE_KEY, Duration.ofSeconds(1));
-					} else {
-						return Flux.<QueuedPayment>empty().delaySubscription(PROCESSORS_UNAVAILABLE_DELAY);
-					}
-				})
-				.repeat()
-				.parallel(concurrencyLevel)
-				.runOn(Schedulers.parallel())
-				.flatMap(payment -> Mono.fromRunnable(() -> paymentService.processPayment(payment)))
-				.sequential()
-				.then();
+	private final class Poller {
+
+		private int batchSize = minBatchSize;
+
+		private Mono<Void> run() {
+			return Mono.defer(this::pollOnce)
+					.repeat()
+					.then();
+		}
+
+		private Mono<Void> pollOnce() {
+			if (!processorRouter.hasRoute()) {
+				batchSize = minBatchSize;
+				return Mono.delay(PROCESSORS_UNAVAILABLE_DELAY).then();
+			}
+			if (!concurrencyLimits.hasCapacity(processorRouter.route())) {
+				return Mono.delay(SATURATED_DELAY).then();
+			}
+
+			final int requested = batchSize;
+
+			return paymentQueue.poll(requested)
+					.collectList()
+					.flatMap(batch -> {
+						adapt(batch.size(), requested);
+						metrics.recordQueuePops(batch.size());
+						if (batch.isEmpty()) {
+							return Mono.empty();
+						}
+						return process(batch);
+					})
+					.onErrorResume(e -> Mono.delay(POLL_ERROR_DELAY).then());
+		}
+
+		private Mono<Void> process(List<QueueEntry> batch) {
+			return Flux.fromIterable(batch)
+					.flatMap(entry -> paymentService.dispatch(entry.payment()), concurrencyLevel)
+					.then(paymentQueue.acknowledge(batch));
+		}
+
+		private void adapt(int received, int requested) {
+			if (received >= requested) {
+				batchSize = Math.min(maxBatchSize, requested * 2);
+			} else {
+				batchSize = Math.max(minBatchSize, received);
+			}
+		}
 	}
 }
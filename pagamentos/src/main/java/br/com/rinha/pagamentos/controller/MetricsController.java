@@ -0,0 +1,162 @@
+package br.com.rinha.pagamentos.controller;
+
+import br.com.rinha.pagamentos.client.ProcessorClients;
+import br.com.rinha.pagamentos.dedup.PaymentDeduplicator;
+import br.com.rinha.pagamentos.metrics.PaymentMetrics;
+import br.com.rinha.pagamentos.metrics.PrometheusTextWriter;
+import br.com.rinha.pagamentos.persistence.PaymentWriteBehindBuffer;
+import br.com.rinha.pagamentos.queue.PaymentQueue;
+import br.com.rinha.pagamentos.queue.QueuePartitions;
+import br.com.rinha.pagamentos.retry.RetryScheduler;
+import br.com.rinha.pagamentos.routing.Processor;
+import br.com.rinha.pagamentos.routing.ProcessorConcurrencyLimits;
+import br.com.rinha.pagamentos.summary.InFlightTracker;
+import br.com.rinha.pagamentos.summary.SummaryResponseCache;
+import br.com.rinha.pagamentos.summary.SummaryService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/metrics")
+public class MetricsController {
+
+	private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+	private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+	private final PaymentMetrics metrics;
+	private final PaymentQueue paymentQueue;
+	private final QueuePartitions queuePartitions;
+	private final InFlightTracker inFlightTracker;
+	private final PaymentWriteBehindBuffer writeBehindBuffer;
+	private final PaymentDeduplicator deduplicator;
+	private final ProcessorConcurrencyLimits concurrencyLimits;
+	private final RetryScheduler retryScheduler;
+	private final ProcessorClients processorClients;
+	private final SummaryResponseCache summaryCache;
+	private final SummaryService summaryService;
+
+	public MetricsController(
+			PaymentMetrics metrics,
+			PaymentQueue paymentQueue,
+			QueuePartitions queuePartitions,
+			InFlightTracker inFlightTracker,
+			PaymentWriteBehindBuffer writeBehindBuffer,
+			PaymentDeduplicator deduplicator,
+			ProcessorConcurrencyLimits concurrencyLimits,
+			RetryScheduler retryScheduler,
+			ProcessorClients processorClients,
+			SummaryResponseCache summaryCache,
+			SummaryService summaryService) {
+		this.metrics = metrics;
+		this.paymentQueue = paymentQueue;
+		this.queuePartitions = queuePartitions;
+		this.inFlightTracker = inFlightTracker;
+		this.writeBehindBuffer = writeBehindBuffer;
+		this.deduplicator = deduplicator;
+		this.concurrencyLimits = concurrencyLimits;
+		this.retryScheduler = retryScheduler;
+		this.processorClients = processorClients;
+		this.summaryCache = summaryCache;
+		this.summaryService = summaryService;
+	}
+
+	@GetMapping
+	public Mono<ResponseEntity<String>> scrape() {
+		return paymentQueue.size()
+				.defaultIfEmpty(0L)
+				.onErrorReturn(-1L)
+				.map(queueDepth -> ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(render(queueDepth)));
+	}
+
+	private String render(long queueDepth) {
+		PrometheusTextWriter writer = new PrometheusTextWriter(4096);
+
+		for (Processor processor : Processor.values()) {
+			writer.summary("payments_processor_latency_seconds", "Payment processor call latency.",
+					"processor", processor.key(), metrics.processorLatency(processor));
+		}
+		for (Processor processor : Processor.values()) {
+			writer.counter("payments_processor_success_total", "Payments accepted by the processor.",
+					"processor", processor.key(), metrics.processorSuccesses(processor));
+		}
+		for (Processor processor : Processor.values()) {
+			writer.counter("payments_processor_failure_total", "Payment processor calls that failed without timing out.",
+					"processor", processor.key(), metrics.processorFailures(processor));
+		}
+		for (Processor processor : Processor.values()) {
+			writer.counter("payments_processor_timeout_total", "Payment processor calls that timed out.",
+					"processor", processor.key(), metrics.processorTimeouts(processor));
+		}
+		for (Processor processor : Processor.values()) {
+			writer.gauge("payments_processor_response_timeout_seconds", "Current response deadline for the processor.",
+					"processor", processor.key(), processorClients.get(processor).getResponseTimeout().toMillis() / 1_000.0);
+		}
+		for (Processor processor : Processor.values()) {
+			writer.gauge("payments_concurrency_limit", "Current adaptive concurrency limit.",
+					"processor", processor.key(), concurrencyLimits.get(processor).getLimit());
+		}
+		for (Processor processor : Processor.values()) {
+			writer.gauge("payments_concurrency_in_flight", "Requests in flight against the processor.",
+					"processor", processor.key(), concurrencyLimits.get(processor).getInFlight());
+		}
+		for (Processor processor : Processor.values()) {
+			writer.counter("payments_concurrency_rejected_total", "Dispatches rejected by the concurrency limit.",
+					"processor", processor.key(), concurrencyLimits.get(processor).getRejections());
+		}
+		writer.summary("payments_persist_latency_seconds", "Time until a processed payment is written to Redis.",
+				null, null, metrics.persistLatency());
+
+		writer.gauge("payments_queue_depth", "Entries waiting in the processing queue, -1 if unknown.", queueDepth)
+				.counter("payments_queue_pushed_total", "Payments pushed to the processing queue.", metrics.getQueuePushes())
+				.counter("payments_queue_popped_total", "Payments popped from the processing queue.", metrics.getQueuePops())
+				.counter("payments_requeued_total", "Payments scheduled for retry after every processor attempt failed.", metrics.getRequeues())
+				.counter("payments_fallback_total", "Payments retried on the secondary processor.", metrics.getFallbacks())
+				.counter("payments_rejected_total", "Payments dropped after a processor rejected them with a 4xx.", metrics.getRejections())
+				.counter("payments_persist_failures_total", "Processed payments whose write to Redis failed.", metrics.getPersistFailures())
+				.gauge("payments_in_flight", "Payments currently being sent to a processor.", inFlightTracker.getInFlight())
+				.gauge("payments_queue_partitions_owned", "Queue partitions this node consumes.", queuePartitions.assigned().length)
+				.gauge("payments_queue_nodes", "Live nodes in the queue registry.", queuePartitions.getMembers().size())
+				.counter("payments_queue_rebalances_total", "Partition reassignments after a node joined or left.", queuePartitions.getRebalances());
+
+		RetryScheduler.RetryStats retry = retryScheduler.getStats();
+		writer.counter("payments_retry_scheduled_total", "Retries scheduled with backoff.", "tier", "wheel", retry.wheelScheduled())
+				.counter("payments_retry_scheduled_total", "Retries scheduled with backoff.", "tier", "redis", retry.redisScheduled())
+				.counter("payments_retry_released_total", "Retries put back on the processing queue.", retry.released())
+				.counter("payments_retry_parked_total", "Retries past retry.max-attempts parked at the capped backoff delay.", retry.parked())
+				.gauge("payments_retry_wheel_pending", "Retries waiting in the in-process timer wheel.", retry.wheelPending());
+
+		PaymentWriteBehindBuffer.WriteBehindStats writeBehind = writeBehindBuffer.getStats();
+		writer.counter("payments_write_behind_flushes_total", "Write-behind batches flushed.", writeBehind.flushes())
+				.counter("payments_write_behind_failed_flushes_total", "Write-behind batches that failed after every retry.", writeBehind.failedFlushes())
+				.counter("payments_write_behind_abandoned_batches_total", "Write-behind batches still in flight when the shutdown flush timed out.", writeBehind.abandonedBatches())
+				.counter("payments_write_behind_flush_retries_total", "Write-behind batch writes retried after an error.", writeBehind.retries())
+				.counter("payments_write_behind_payments_total", "Payments written by the write-behind buffer.", writeBehind.payments())
+				.counter("payments_write_behind_samples_total", "Time series samples written by the write-behind buffer.", writeBehind.samples())
+				.counter("payments_write_behind_rejected_samples_total", "Time series samples rejected individually by TS.MADD.", writeBehind.rejectedSamples())
+				.gauge("payments_write_behind_flush_seconds_sum", "Total time spent flushing batches.", writeBehind.totalFlushNanos() / NANOS_PER_SECOND)
+				.gauge("payments_write_behind_flush_seconds_max", "Slowest batch flush.", writeBehind.maxFlushNanos() / NANOS_PER_SECOND);
+
+		PaymentDeduplicator.DedupStats dedup = deduplicator.getStats();
+		writer.counter("payments_dedup_checks_total", "Correlation ids checked for duplicates.", dedup.checks())
+				.counter("payments_dedup_local_hits_total", "Duplicates caught by the local set.", dedup.localHits())
+				.counter("payments_dedup_remote_hits_total", "Duplicates caught by Redis.", dedup.remoteHits())
+				.counter("payments_dedup_remote_errors_total", "Redis dedup checks that failed open.", dedup.remoteErrors())
+				.counter("payments_dedup_completed_hits_total", "Queued or reclaimed payments skipped because they had already completed.", dedup.completedHits())
+				.gauge("payments_dedup_local_entries", "Correlation ids held by the local set.", dedup.localEntries())
+				.gauge("payments_dedup_local_memory_bytes", "Memory held by the local correlation id set.", dedup.localMemoryBytes())
+				.gauge("payments_dedup_hit_ratio", "Share of checked correlation ids found to be duplicates.", dedup.hitRate());
+
+		SummaryResponseCache.CacheStats cache = summaryCache.getStats();
+		writer.counter("payments_summary_cache_hits_total", "Summary requests served from the closed-window cache.", cache.hits())
+				.counter("payments_summary_cache_misses_total", "Closed-window summary requests that had to be queried.", cache.misses())
+				.counter("payments_summary_cache_invalidations_total", "Cached windows dropped by a late persist.", cache.invalidations())
+				.gauge("payments_summary_cache_entries", "Closed windows held by the summary cache.", cache.entries())
+				.counter("payments_summary_coalesced_total", "Summary requests that joined an identical query in flight.", summaryService.getCoalesced());
+
+		return writer.toString();
+	}
+}
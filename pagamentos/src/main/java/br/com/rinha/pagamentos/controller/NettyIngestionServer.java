@@ -0,0 +1,112 @@
+package br.com.rinha.pagamentos.controller;
+
+import br.com.rinha.pagamentos.codec.PaymentJson;
+import br.com.rinha.pagamentos.model.QueuedPayment;
+import br.com.rinha.pagamentos.service.PaymentService;
+import br.com.rinha.pagamentos.summary.SummaryService;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "ingestion.mode", havingValue = "netty")
+public class NettyIngestionServer implements SmartLifecycle {
+
+	private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(2);
+
+	private final PaymentService paymentService;
+	private final SummaryService summaryService;
+	private final int port;
+
+	private volatile DisposableServer server;
+
+	public NettyIngestionServer(
+			PaymentService paymentService,
+			SummaryService summaryService,
+			@Value("${ingestion.netty.port}") int port) {
+		this.paymentService = paymentService;
+		this.summaryService = summaryService;
+		this.port = port;
+	}
+
+	@Override
+	public void start() {
+		server = HttpServer.create()
+				.port(port)
+				.childOption(ChannelOption.TCP_NODELAY, true)
+				.route(routes -> routes
+						.post("/payments", this::createPayment)
+						.get("/payments-summary", this::getSummary))
+				.bindNow();
+	}
+
+	private Publisher<Void> createPayment(HttpServerRequest request, HttpServerResponse response) {
+		return request.receive().aggregate().flatMap(body -> {
+			QueuedPayment payment;
+			try {
+				payment = PaymentJson.readQueuedPayment(wrap(body));
+			} catch (RuntimeException e) {
+				return response.status(HttpResponseStatus.BAD_REQUEST).send();
+			}
+			paymentService.handlePayment(payment);
+			return response.status(HttpResponseStatus.NO_CONTENT).send();
+		}).switchIfEmpty(Mono.defer(() -> response.status(HttpResponseStatus.BAD_REQUEST).send()));
+	}
+
+	private Publisher<Void> getSummary(HttpServerRequest request, HttpServerResponse response) {
+		Map<String, List<String>> parameters = new QueryStringDecoder(request.uri()).parameters();
+		Mono<byte[]> summary;
+		try {
+			summary = summaryService.getSummaryJson(first(parameters.get("from")), first(parameters.get("to")));
+		} catch (DateTimeParseException e) {
+			return response.status(HttpResponseStatus.BAD_REQUEST).send();
+		}
+
+		return summary.flatMap(body -> response
+				.header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+				.sendByteArray(Mono.just(body))
+				.then());
+	}
+
+	private static NettyDataBuffer wrap(ByteBuf body) {
+		return new NettyDataBufferFactory(body.alloc()).wrap(body);
+	}
+
+	private static String first(List<String> values) {
+		return values == null || values.isEmpty() ? null : values.get(0);
+	}
+
+	@Override
+	public void stop() {
+		DisposableServer current = server;
+		server = null;
+		if (current != null) {
+			current.disposeNow(SHUTDOWN_TIMEOUT);
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return server != null;
+	}
+}
@@ -0,0 +1,65 @@
+package br.com.rinha.pagamentos.dedup;
+
+public class CorrelationIdSet {
+
+	private static final int MAX_PROBES = 32;
+
+	private final long[] mostSignificant;
+	private final long[] leastSignificant;
+	private final long[] expiresAt;
+	private final int mask;
+	private final long ttlMillis;
+	private int occupied;
+
+	public CorrelationIdSet(int capacityBits, long ttlMillis) {
+		int capacity = 1 << capacityBits;
+		this.mostSignificant = new long[capacity];
+		this.leastSignificant = new long[capacity];
+		this.expiresAt = new long[capacity];
+		this.mask = capacity - 1;
+		this.ttlMillis = ttlMillis;
+	}
+
+	public synchronized boolean addIfAbsent(long msb, long lsb, long now) {
+		int index = index(msb, lsb);
+		int victim = index;
+
+		for (int probe = 0; probe < MAX_PROBES; probe++) {
+			int slot = (index + probe) & mask;
+			long expiry = expiresAt[slot];
+			if (expiry > now && mostSignificant[slot] == msb && leastSignificant[slot] == lsb) {
+				return false;
+			}
+			if (expiry < expiresAt[victim]) {
+				victim = slot;
+			}
+			if (expiry == 0) {
+				break;
+			}
+		}
+
+		if (expiresAt[victim] == 0) {
+			occupied++;
+		}
+		mostSignificant[victim] = msb;
+		leastSignificant[victim] = lsb;
+		expiresAt[victim] = now + ttlMillis;
+		return true;
+	}
+
+	public synchronized int getOccupied() {
+		return occupied;
+	}
+
+	public long getMemoryBytes() {
+		return 3L * mostSignificant.length * Long.BYTES;
+	}
+
+	private int index(long msb, long lsb) {
+		long hash = msb ^ lsb;
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		return (int) hash & mask;
+	}
+}
@@ -0,0 +1,173 @@
+package br.com.rinha.pagamentos.dedup;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class PaymentDeduplicator {
+
+	private static final String DEDUP_KEY_PREFIX = "payments:dedup:";
+	private static final String CLAIMED = "1";
+	private static final String COMPLETED = "2";
+
+	private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+	private final RedisTemplate<String, String> redisTemplate;
+	private final CorrelationIdSet localIds;
+	private final boolean enabled;
+	private final Duration ttl;
+
+	private final LongAdder checks = new LongAdder();
+	private final LongAdder localHits = new LongAdder();
+	private final LongAdder remoteHits = new LongAdder();
+	private final LongAdder remoteErrors = new LongAdder();
+	private final LongAdder completedHits = new LongAdder();
+
+	public PaymentDeduplicator(
+			@Qualifier("reactivePersistedRedisTemplate") ReactiveStringRedisTemplate reactiveRedisTemplate,
+			@Qualifier("persistedRedisTemplate") RedisTemplate<String, String> redisTemplate,
+			@Value("${dedup.enabled}") boolean enabled,
+			@Value("${dedup.ttl-ms}") long ttlMs,
+			@Value("${dedup.local-capacity-bits}") int localCapacityBits) {
+		this.reactiveRedisTemplate = reactiveRedisTemplate;
+		this.redisTemplate = redisTemplate;
+		this.enabled = enabled;
+		this.ttl = Duration.ofMillis(ttlMs);
+		this.localIds = new CorrelationIdSet(localCapacityBits, ttlMs);
+	}
+
+	public Mono<Boolean> isFirstSeen(UUID correlationId) {
+		if (!enabled || correlationId == null) {
+			return Mono.just(true);
+		}
+
+		if (!claimLocally(correlationId)) {
+			return Mono.just(false);
+		}
+
+		return reactiveRedisTemplate.opsForValue()
+				.setIfAbsent(DEDUP_KEY_PREFIX + correlationId, CLAIMED, ttl)
+				.map(claimed -> {
+					if (!claimed) {
+						remoteHits.increment();
+					}
+					return claimed;
+				})
+				.defaultIfEmpty(true)
+				.onErrorResume(e -> {
+					remoteErrors.increment();
+					return Mono.just(true);
+				});
+	}
+
+	public boolean isFirstSeenBlocking(UUID correlationId) {
+		if (!enabled || correlationId == null) {
+			return true;
+		}
+		if (!claimLocally(correlationId)) {
+			return false;
+		}
+
+		try {
+			Boolean claimed = redisTemplate.opsForValue().setIfAbsent(DEDUP_KEY_PREFIX + correlationId, CLAIMED, ttl);
+			if (Boolean.FALSE.equals(claimed)) {
+				remoteHits.increment();
+				return false;
+			}
+			return true;
+		} catch (RuntimeException e) {
+			remoteErrors.increment();
+			return true;
+		}
+	}
+
+	public void markCompleted(UUID correlationId) {
+		if (!enabled || correlationId == null) {
+			return;
+		}
+		reactiveRedisTemplate.opsForValue()
+				.set(DEDUP_KEY_PREFIX + correlationId, COMPLETED, ttl)
+				.onErrorResume(e -> {
+					remoteErrors.increment();
+					return Mono.empty();
+				})
+				.subscribe();
+	}
+
+	public Mono<Boolean> isCompleted(UUID correlationId) {
+		if (!enabled || correlationId == null) {
+			return Mono.just(false);
+		}
+		return reactiveRedisTemplate.opsForValue()
+				.get(DEDUP_KEY_PREFIX + correlationId)
+				.map(this::isCompletedValue)
+				.defaultIfEmpty(false)
+				.onErrorResume(e -> {
+					remoteErrors.increment();
+					return Mono.just(false);
+				});
+	}
+
+	public boolean isCompletedBlocking(UUID correlationId) {
+		if (!enabled || correlationId == null) {
+			return false;
+		}
+		try {
+			String value = redisTemplate.opsForValue().get(DEDUP_KEY_PREFIX + correlationId);
+			return value != null && isCompletedValue(value);
+		} catch (RuntimeException e) {
+			remoteErrors.increment();
+			return false;
+		}
+	}
+
+	private boolean isCompletedValue(String value) {
+		if (!COMPLETED.equals(value)) {
+			return false;
+		}
+		completedHits.increment();
+		return true;
+	}
+
+	private boolean claimLocally(UUID correlationId) {
+		checks.increment();
+		if (!localIds.addIfAbsent(correlationId.getMostSignificantBits(), correlationId.getLeastSignificantBits(), System.currentTimeMillis())) {
+			localHits.increment();
+			return false;
+		}
+		return true;
+	}
+
+	public DedupStats getStats() {
+		return new DedupStats(
+				checks.sum(),
+				localHits.sum(),
+				remoteHits.sum(),
+				remoteErrors.sum(),
+				completedHits.sum(),
+				localIds.getOccupied(),
+				localIds.getMemoryBytes()
+		);
+	}
+
+	public record DedupStats(
+			long checks,
+			long localHits,
+			long remoteHits,
+			long remoteErrors,
+			long completedHits,
+			int localEntries,
+			long localMemoryBytes) {
+
+		public double hitRate() {
+			return checks == 0 ? 0 : (double) (localHits + remoteHits) / checks;
+		}
+	}
+}
@@ -0,0 +1,11 @@
+package br.com.rinha.pagamentos.dispatch;
+
+import br.com.rinha.pagamentos.model.QueuedPayment;
+import reactor.core.publisher.Mono;
+
+public interface PaymentDispatcher {
+
+	void submit(QueuedPayment payment);
+
+	Mono<Void> dispatch(QueuedPayment payment);
+}
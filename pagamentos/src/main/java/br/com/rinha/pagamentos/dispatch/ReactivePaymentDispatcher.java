@@ -0,0 +1,190 @@
+package br.com.rinha.pagamentos.dispatch;
+
+import br.com.rinha.pagamentos.client.DispatchOutcome;
+import br.com.rinha.pagamentos.client.ProcessorClients;
+import br.com.rinha.pagamentos.dedup.PaymentDeduplicator;
+import br.com.rinha.pagamentos.metrics.PaymentMetrics;
+import br.com.rinha.pagamentos.model.PaymentSent;
+import br.com.rinha.pagamentos.model.QueuedPayment;
+import br.com.rinha.pagamentos.persistence.PaymentWriteBehindBuffer;
+import br.com.rinha.pagamentos.queue.PaymentQueue;
+import br.com.rinha.pagamentos.retry.RetryScheduler;
+import br.com.rinha.pagamentos.routing.ConcurrencyLimiter;
+import br.com.rinha.pagamentos.routing.Processor;
+import br.com.rinha.pagamentos.routing.ProcessorConcurrencyLimits;
+import br.com.rinha.pagamentos.routing.ProcessorRouter;
+import br.com.rinha.pagamentos.routing.RoutingDecision;
+import br.com.rinha.pagamentos.summary.InFlightTracker;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+@ConditionalOnProperty(name = "dispatch.engine", havingValue = "reactive", matchIfMissing = true)
+public class ReactivePaymentDispatcher implements PaymentDispatcher {
+
+	private final PaymentQueue paymentQueue;
+	private final ProcessorClients processorClients;
+	private final ProcessorRouter processorRouter;
+	private final PaymentWriteBehindBuffer writeBehindBuffer;
+	private final InFlightTracker inFlightTracker;
+	private final PaymentDeduplicator deduplicator;
+	private final PaymentMetrics metrics;
+	private final ProcessorConcurrencyLimits concurrencyLimits;
+	private final RetryScheduler retryScheduler;
+
+	public ReactivePaymentDispatcher(
+			PaymentQueue paymentQueue,
+			ProcessorClients processorClients,
+			ProcessorRouter processorRouter,
+			PaymentWriteBehindBuffer writeBehindBuffer,
+			InFlightTracker inFlightTracker,
+			PaymentDeduplicator deduplicator,
+			PaymentMetrics metrics,
+			ProcessorConcurrencyLimits concurrencyLimits,
+			RetryScheduler retryScheduler) {
+		this.paymentQueue = paymentQueue;
+		this.processorClients = processorClients;
+		this.processorRouter = processorRouter;
+		this.writeBehindBuffer = writeBehindBuffer;
+		this.inFlightTracker = inFlightTracker;
+		this.deduplicator = deduplicator;
+		this.metrics = metrics;
+		this.concurrencyLimits = concurrencyLimits;
+		this.retryScheduler = retryScheduler;
+	}
+
+	@Override
+	public void submit(QueuedPayment payment) {
+		deduplicator.isFirstSeen(payment.getCorrelationId())
+				.filter(Boolean::booleanValue)
+				.flatMap(firstSeen -> send(payment))
+				.subscribe();
+	}
+
+	@Override
+	public Mono<Void> dispatch(QueuedPayment payment) {
+		return deduplicator.isCompleted(payment.getCorrelationId())
+				.flatMap(completed -> completed ? Mono.<Void>empty() : send(payment));
+	}
+
+	private Mono<Void> send(QueuedPayment payment) {
+		final RoutingDecision decision = processorRouter.route();
+
+		if (decision.isQueued()) {
+			return queuePayment(payment);
+		}
+
+		return Mono.defer(() -> {
+			if (!tryAcquire(decision.primary())) {
+				return queuePayment(payment);
+			}
+
+			final int inFlightSlot = inFlightTracker.begin();
+			final PaymentSent paymentSent = new PaymentSent(payment, Instant.ofEpochMilli(inFlightTracker.requestedAt(inFlightSlot)));
+			final int attempts = payment.getAttempts();
+			Mono<DispatchOutcome> attempt = trySendAndPersist(decision.primary(), paymentSent, attempts);
+
+			if (decision.secondary() != null) {
+				attempt = attempt.flatMap(outcome -> {
+					if (!outcome.canFallBack()) {
+						return Mono.just(outcome);
+					}
+					if (!tryAcquire(decision.secondary())) {
+						return Mono.just(outcome);
+					}
+					metrics.recordFallback();
+					return trySendAndPersist(decision.secondary(), paymentSent, attempts);
+				});
+			}
+
+			return attempt
+					.flatMap(outcome -> settle(payment, outcome))
+					.doFinally(signal -> inFlightTracker.end(inFlightSlot));
+		});
+	}
+
+	private boolean tryAcquire(Processor processor) {
+		if (!processorRouter.tryAcquire(processor)) {
+			return false;
+		}
+		if (concurrencyLimits.get(processor).tryAcquire()) {
+			return true;
+		}
+		processorRouter.release(processor);
+		return false;
+	}
+
+	private Mono<Void> queuePayment(QueuedPayment payment) {
+		return paymentQueue.enqueue(payment).doOnSuccess(ignored -> metrics.recordQueuePush());
+	}
+
+	private Mono<Void> settle(QueuedPayment payment, DispatchOutcome outcome) {
+		if (outcome.isRetryable()) {
+			return requeue(payment);
+		}
+		if (!outcome.isSuccess()) {
+			metrics.recordRejection();
+		}
+		return Mono.empty();
+	}
+
+	private Mono<Void> requeue(QueuedPayment payment) {
+		metrics.recordRequeue();
+		payment.setAttempts(payment.getAttempts() + 1);
+		return retryScheduler.schedule(payment);
+	}
+
+	private Mono<DispatchOutcome> trySendAndPersist(Processor processor, PaymentSent paymentSent, int attempts) {
+		return Mono.defer(() -> {
+			final ConcurrencyLimiter limiter = concurrencyLimits.get(processor);
+			final AtomicBoolean answered = new AtomicBoolean(false);
+			final long start = System.nanoTime();
+
+			return processorClients.get(processor).sendPayment(paymentSent)
+					.flatMap(response -> {
+						if (!answered.compareAndSet(false, true)) {
+							return Mono.<DispatchOutcome>empty();
+						}
+						final long elapsed = System.nanoTime() - start;
+						metrics.recordProcessorCall(processor, elapsed, response);
+						limiter.release(elapsed, response.isOverload());
+						if (response.isOverload()) {
+							processorRouter.recordFailure(processor, elapsed);
+							return Mono.just(response);
+						}
+						processorRouter.recordSuccess(processor, elapsed);
+						final DispatchOutcome outcome = response.forAttempt(attempts);
+						if (!outcome.isSuccess()) {
+							return Mono.just(outcome);
+						}
+						deduplicator.markCompleted(paymentSent.getCorrelationId());
+						return persistSuccessfulPaymentReactive(paymentSent, processor.key())
+								.thenReturn(outcome);
+					})
+					.onErrorResume(e -> Mono.just(DispatchOutcome.of(e)))
+					.doFinally(signal -> {
+						if (answered.compareAndSet(false, true)) {
+							limiter.cancel();
+							processorRouter.release(processor);
+						}
+					});
+		});
+	}
+
+	private Mono<Void> persistSuccessfulPaymentReactive(PaymentSent paymentSent, String processorKey) {
+		final long start = System.nanoTime();
+		return writeBehindBuffer.persist(
+				processorKey,
+				paymentSent.getRequestedAt().toEpochMilli(),
+				paymentSent.getAmountCents()
+		).doOnSuccess(ignored -> metrics.recordPersist(System.nanoTime() - start))
+				.onErrorResume(e -> {
+					metrics.recordPersistFailure();
+					return Mono.empty();
+				});
+	}
+}
@@ -0,0 +1,166 @@
+package br.com.rinha.pagamentos.dispatch;
+
+import br.com.rinha.pagamentos.client.BlockingProcessorClients;
+import br.com.rinha.pagamentos.client.DispatchOutcome;
+import br.com.rinha.pagamentos.client.ProcessorClients;
+import br.com.rinha.pagamentos.dedup.PaymentDeduplicator;
+import br.com.rinha.pagamentos.metrics.PaymentMetrics;
+import br.com.rinha.pagamentos.model.PaymentSent;
+import br.com.rinha.pagamentos.model.QueuedPayment;
+import br.com.rinha.pagamentos.persistence.PaymentWriteBehindBuffer;
+import br.com.rinha.pagamentos.queue.PaymentQueue;
+import br.com.rinha.pagamentos.retry.RetryScheduler;
+import br.com.rinha.pagamentos.routing.ConcurrencyLimiter;
+import br.com.rinha.pagamentos.routing.Processor;
+import br.com.rinha.pagamentos.routing.ProcessorConcurrencyLimits;
+import br.com.rinha.pagamentos.routing.ProcessorRouter;
+import br.com.rinha.pagamentos.routing.RoutingDecision;
+import br.com.rinha.pagamentos.summary.InFlightTracker;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+@Component
+@ConditionalOnProperty(name = "dispatch.engine", havingValue = "virtual-threads")
+public class VirtualThreadPaymentDispatcher implements PaymentDispatcher {
+
+	private final Executor executor;
+	private final PaymentQueue paymentQueue;
+	private final BlockingProcessorClients blockingClients;
+	private final ProcessorClients processorClients;
+	private final ProcessorRouter processorRouter;
+	private final PaymentWriteBehindBuffer writeBehindBuffer;
+	private final InFlightTracker inFlightTracker;
+	private final PaymentDeduplicator deduplicator;
+	private final PaymentMetrics metrics;
+	private final ProcessorConcurrencyLimits concurrencyLimits;
+	private final RetryScheduler retryScheduler;
+
+	public VirtualThreadPaymentDispatcher(
+			@Qualifier("virtualThreadExecutor") Executor executor,
+			PaymentQueue paymentQueue,
+			BlockingProcessorClients blockingClients,
+			ProcessorClients processorClients,
+			ProcessorRouter processorRouter,
+			PaymentWriteBehindBuffer writeBehindBuffer,
+			InFlightTracker inFlightTracker,
+			PaymentDeduplicator deduplicator,
+			PaymentMetrics metrics,
+			ProcessorConcurrencyLimits concurrencyLimits,
+			RetryScheduler retryScheduler) {
+		this.executor = executor;
+		this.paymentQueue = paymentQueue;
+		this.blockingClients = blockingClients;
+		this.processorClients = processorClients;
+		this.processorRouter = processorRouter;
+		this.writeBehindBuffer = writeBehindBuffer;
+		this.inFlightTracker = inFlightTracker;
+		this.deduplicator = deduplicator;
+		this.metrics = metrics;
+		this.concurrencyLimits = concurrencyLimits;
+		this.retryScheduler = retryScheduler;
+	}
+
+	@Override
+	public void submit(QueuedPayment payment) {
+		executor.execute(() -> {
+			if (deduplicator.isFirstSeenBlocking(payment.getCorrelationId())) {
+				dispatchBlocking(payment);
+			}
+		});
+	}
+
+	@Override
+	public Mono<Void> dispatch(QueuedPayment payment) {
+		return Mono.fromFuture(() -> CompletableFuture.runAsync(() -> {
+			if (!deduplicator.isCompletedBlocking(payment.getCorrelationId())) {
+				dispatchBlocking(payment);
+			}
+		}, executor));
+	}
+
+	private void dispatchBlocking(QueuedPayment payment) {
+		RoutingDecision decision = processorRouter.route();
+		if (decision.isQueued() || !tryAcquire(decision.primary())) {
+			paymentQueue.enqueueBlocking(payment);
+			metrics.recordQueuePush();
+			return;
+		}
+
+		int inFlightSlot = inFlightTracker.begin();
+		try {
+			PaymentSent paymentSent = new PaymentSent(payment, Instant.ofEpochMilli(inFlightTracker.requestedAt(inFlightSlot)));
+			DispatchOutcome outcome = sendAndPersist(decision.primary(), paymentSent, payment.getAttempts());
+
+			if (decision.secondary() != null && outcome.canFallBack()) {
+				if (tryAcquire(decision.secondary())) {
+					metrics.recordFallback();
+					outcome = sendAndPersist(decision.secondary(), paymentSent, payment.getAttempts());
+				}
+			}
+
+			if (outcome.isRetryable()) {
+				metrics.recordRequeue();
+				payment.setAttempts(payment.getAttempts() + 1);
+				retryScheduler.scheduleBlocking(payment);
+			} else if (!outcome.isSuccess()) {
+				metrics.recordRejection();
+			}
+		} finally {
+			inFlightTracker.end(inFlightSlot);
+		}
+	}
+
+	private boolean tryAcquire(Processor processor) {
+		if (!processorRouter.tryAcquire(processor)) {
+			return false;
+		}
+		if (concurrencyLimits.get(processor).tryAcquire()) {
+			return true;
+		}
+		processorRouter.release(processor);
+		return false;
+	}
+
+	private DispatchOutcome sendAndPersist(Processor processor, PaymentSent paymentSent, int attempts) {
+		ConcurrencyLimiter limiter = concurrencyLimits.get(processor);
+		long start = System.nanoTime();
+
+		DispatchOutcome response = null;
+		try {
+			response = blockingClients.send(processor, paymentSent, processorClients.get(processor).getResponseTimeout());
+		} finally {
+			if (response == null) {
+				limiter.cancel();
+				processorRouter.release(processor);
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		metrics.recordProcessorCall(processor, elapsed, response);
+		limiter.release(elapsed, response.isOverload());
+		if (response.isOverload()) {
+			processorRouter.recordFailure(processor, elapsed);
+			return response;
+		}
+		processorRouter.recordSuccess(processor, elapsed);
+		DispatchOutcome outcome = response.forAttempt(attempts);
+		if (!outcome.isSuccess()) {
+			return outcome;
+		}
+		deduplicator.markCompleted(paymentSent.getCorrelationId());
+
+		long persistStart = System.nanoTime();
+		try {
+			writeBehindBuffer.persist(processor.key(), paymentSent.getRequestedAt().toEpochMilli(), paymentSent.getAmountCents()).block();
+			metrics.recordPersist(System.nanoTime() - persistStart);
+		} catch (RuntimeException e) {
+			metrics.recordPersistFailure();
+		}
+		return outcome;
+	}
+}
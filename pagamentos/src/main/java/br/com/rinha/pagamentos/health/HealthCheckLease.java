@@ -0,0 +1,76 @@
+package br.com.rinha.pagamentos.health;
+
+import br.com.rinha.pagamentos.config.NodeIdentity;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+public class HealthCheckLease {
+
+	private static final String LEASE_KEY = "health:leader";
+
+	private static final RedisScript<Long> RENEW_SCRIPT =
+			new DefaultRedisScript<>(
+					"if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+							"  return redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+							"end " +
+							"return 0",
+					Long.class
+			);
+
+	private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+	private final String nodeId;
+	private final long leaseMs;
+	private final long renewBeforeMs;
+
+	private volatile long heldUntil = 0;
+
+	public HealthCheckLease(
+			@Qualifier("reactivePersistedRedisTemplate") ReactiveStringRedisTemplate reactiveRedisTemplate,
+			NodeIdentity nodeIdentity,
+			@Value("${health.lease-ms}") long leaseMs,
+			@Value("${health.lease-renew-before-ms}") long renewBeforeMs) {
+		this.reactiveRedisTemplate = reactiveRedisTemplate;
+		this.nodeId = nodeIdentity.getId();
+		this.leaseMs = leaseMs;
+		this.renewBeforeMs = renewBeforeMs;
+	}
+
+	public Mono<Boolean> acquire(long lastUpdateMillis) {
+		long now = System.currentTimeMillis();
+		if (now < heldUntil - renewBeforeMs) {
+			return Mono.just(true);
+		}
+		if (now < heldUntil) {
+			return renew(now);
+		}
+		if (now - lastUpdateMillis < leaseMs) {
+			return Mono.just(false);
+		}
+		return reactiveRedisTemplate.opsForValue()
+				.setIfAbsent(LEASE_KEY, nodeId, Duration.ofMillis(leaseMs))
+				.flatMap(acquired -> acquired ? Mono.just(true) : renew(now))
+				.doOnNext(held -> heldUntil = held ? now + leaseMs : 0)
+				.onErrorReturn(false);
+	}
+
+	public boolean isHeld() {
+		return System.currentTimeMillis() < heldUntil;
+	}
+
+	private Mono<Boolean> renew(long now) {
+		return reactiveRedisTemplate.execute(RENEW_SCRIPT, List.of(LEASE_KEY), List.of(nodeId, String.valueOf(leaseMs)))
+				.next()
+				.map(renewed -> renewed == 1L)
+				.doOnNext(held -> heldUntil = held ? now + leaseMs : 0)
+				.onErrorReturn(false);
+	}
+}
@@ -0,0 +1,82 @@
+package br.com.rinha.pagamentos.health;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.support.caching.CacheAccessor;
+import io.lettuce.core.support.caching.CacheFrontend;
+import io.lettuce.core.support.caching.ClientSideCaching;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class HealthStatusCache implements SmartLifecycle {
+
+	private final LettuceConnectionFactory connectionFactory;
+	private final Map<String, String> entries = new ConcurrentHashMap<>();
+
+	private volatile StatefulRedisConnection<String, String> connection;
+	private volatile CacheFrontend<String, String> frontend;
+	private volatile boolean running;
+
+	public HealthStatusCache(LettuceConnectionFactory connectionFactory) {
+		this.connectionFactory = connectionFactory;
+	}
+
+	public String get(String key) {
+		CacheFrontend<String, String> current = frontend;
+		if (current == null) {
+			current = connect();
+		}
+		try {
+			return current.get(key);
+		} catch (RuntimeException e) {
+			reset();
+			throw e;
+		}
+	}
+
+	private synchronized CacheFrontend<String, String> connect() {
+		if (frontend == null) {
+			RedisClient client = (RedisClient) connectionFactory.getNativeClient();
+			connection = client.connect();
+			frontend = ClientSideCaching.enable(CacheAccessor.forMap(entries), connection, TrackingArgs.Builder.enabled());
+		}
+		return frontend;
+	}
+
+	private synchronized void reset() {
+		entries.clear();
+		if (connection != null) {
+			connection.closeAsync();
+		}
+		connection = null;
+		frontend = null;
+	}
+
+	@Override
+	public void start() {
+		running = true;
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		reset();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	@PreDestroy
+	public void close() {
+		reset();
+	}
+}
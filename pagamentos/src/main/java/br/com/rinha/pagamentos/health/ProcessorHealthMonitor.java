@@ -1,114 +1,191 @@
 package br.com.rinha.pagamentos.health;
 
+import br.com.rinha.pagamentos.client.ProcessorClients;
 import br.com.rinha.pagamentos.model.HealthCheckResponse;
-import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import br.com.rinha.pagamentos.routing.Processor;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 public class ProcessorHealthMonitor implements MessageListener {
 
-	private static final String HEALTH_STATUS_DEFAULT_KEY = "health:status:default";
-	private static final String HEALTH_STATUS_FALLBACK_KEY = "health:status:fallback";
+	private static final String HEALTH_STATUS_KEY = "health:status";
+	private static final String HEALTH_SEQUENCE_KEY = "health:sequence";
 	private static final String HEALTH_NOTIFICATION_CHANNEL = "health:notifications";
+	private static final String HEALTH_MESSAGE_PREFIX = "health:";
 	private static final ChannelTopic NOTIFICATION_TOPIC = new ChannelTopic(HEALTH_NOTIFICATION_CHANNEL);
 
-	private final WebClient webClient;
+	private static final RedisScript<Long> PUBLISH_STATUS_SCRIPT =
+			new DefaultRedisScript<>(
+					"local sequence = redis.call('INCR', KEYS[2]) " +
+							"local payload = sequence .. ';' .. ARGV[1] " +
+							"redis.call('SET', KEYS[1], payload) " +
+							"redis.call('PUBLISH', ARGV[2], ARGV[3] .. payload) " +
+							"return sequence",
+					Long.class
+			);
+
+	private final ProcessorClients processorClients;
 	private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+	private final HealthCheckLease lease;
+	private final HealthStatusCache statusCache;
 	private final String defaultHealthUrl;
 	private final String fallbackHealthUrl;
+	private final long leaseMs;
+
+	private static final String UNAVAILABLE = "0";
+	private static final HealthCheckResponse FAILING = new HealthCheckResponse(true, 0);
+	private static final Duration HEALTH_CHECK_TIMEOUT = Duration.ofSeconds(2);
 
 	private volatile boolean isDefaultAvailable = false;
 	private volatile boolean isFallbackAvailable = false;
+	private volatile long defaultMinResponseTime = 0;
+	private volatile long fallbackMinResponseTime = 0;
+	private volatile long sequence = 0;
+	private volatile long lastUpdateMillis = 0;
 
 	public ProcessorHealthMonitor(
-			WebClient.Builder webClientBuilder,
+			ProcessorClients processorClients,
 			@Qualifier("reactivePersistedRedisTemplate") ReactiveStringRedisTemplate reactiveRedisTemplate,
+			HealthCheckLease lease,
+			HealthStatusCache statusCache,
 			@Value("${processor.default.health.url}") String defaultHealthUrl,
-			@Value("${processor.fallback.health.url}") String fallbackHealthUrl) {
+			@Value("${processor.fallback.health.url}") String fallbackHealthUrl,
+			@Value("${health.lease-ms}") long leaseMs) {
 
-		this.webClient = webClientBuilder.build();
+		this.processorClients = processorClients;
 		this.reactiveRedisTemplate = reactiveRedisTemplate;
+		this.lease = lease;
+		this.statusCache = statusCache;
 		this.defaultHealthUrl = defaultHealthUrl;
 		this.fallbackHealthUrl = fallbackHealthUrl;
+		this.leaseMs = leaseMs;
+	}
 
-		syncStateFromRedis().subscribe();
+	@PostConstruct
+	public void loadStatus() {
+		reactiveRedisTemplate.opsForValue().get(HEALTH_STATUS_KEY)
+				.doOnNext(this::apply)
+				.onErrorResume(e -> Mono.empty())
+				.subscribe();
 	}
 
 	@Async("virtualThreadExecutor")
 	@Scheduled(fixedRate = 5150)
-	@SchedulerLock(name = "processorHealthCheckLock", lockAtMostFor = "4s", lockAtLeastFor = "4s")
 	public void scheduleHealthCheck() {
-		performHealthCheckAndNotify().subscribe();
+		lease.acquire(lastUpdateMillis)
+				.filter(Boolean::booleanValue)
+				.flatMap(leader -> performHealthCheckAndNotify())
+				.subscribe();
+	}
+
+	@Async("virtualThreadExecutor")
+	@Scheduled(fixedDelayString = "${health.cache-check-ms}")
+	public void checkCachedStatus() {
+		if (lease.isHeld()) {
+			return;
+		}
+		try {
+			String payload = statusCache.get(HEALTH_STATUS_KEY);
+			if (payload != null) {
+				apply(payload);
+			}
+		} catch (RuntimeException ignored) {
+		}
 	}
 
 	public Mono<Void> performHealthCheckAndNotify() {
-		Mono<Boolean> defaultCheck = checkHealthAsync(defaultHealthUrl);
-		Mono<Boolean> fallbackCheck = checkHealthAsync(fallbackHealthUrl);
+		Mono<HealthCheckResponse> defaultCheck = checkHealthAsync(Processor.DEFAULT, defaultHealthUrl);
+		Mono<HealthCheckResponse> fallbackCheck = checkHealthAsync(Processor.FALLBACK, fallbackHealthUrl);
 
 		return Mono.zip(defaultCheck, fallbackCheck)
-				.flatMap(results -> {
-					boolean isDefaultOk = results.getT1();
-					boolean isFallbackOk = results.getT2();
-
-					Mono<Boolean> setDefault = reactiveRedisTemplate.opsForValue().set(HEALTH_STATUS_DEFAULT_KEY, isDefaultOk ? "1" : "0");
-					Mono<Boolean> setFallback = reactiveRedisTemplate.opsForValue().set(HEALTH_STATUS_FALLBACK_KEY, isFallbackOk ? "1" : "0");
-
-					return Mono.when(setDefault, setFallback)
-							.then(reactiveRedisTemplate.convertAndSend(HEALTH_NOTIFICATION_CHANNEL, "updated"));
-				})
-				.onErrorResume(e -> {
-					Mono<Boolean> setDefault = reactiveRedisTemplate.opsForValue().set(HEALTH_STATUS_DEFAULT_KEY, "0");
-					Mono<Boolean> setFallback = reactiveRedisTemplate.opsForValue().set(HEALTH_STATUS_FALLBACK_KEY, "0");
-					return Mono.when(setDefault, setFallback)
-							.then(reactiveRedisTemplate.convertAndSend(HEALTH_NOTIFICATION_CHANNEL, "updated"));
-				})
+				.map(results -> encodeStatus(results.getT1()) + ";" + encodeStatus(results.getT2()))
+				.onErrorReturn(UNAVAILABLE + ";" + UNAVAILABLE)
+				.flatMap(statuses -> reactiveRedisTemplate.execute(
+								PUBLISH_STATUS_SCRIPT,
+								List.of(HEALTH_STATUS_KEY, HEALTH_SEQUENCE_KEY),
+								List.of(statuses, HEALTH_NOTIFICATION_CHANNEL, HEALTH_MESSAGE_PREFIX))
+						.next()
+						.doOnNext(published -> apply(published + ";" + statuses)))
 				.then();
 	}
 
 	@Override
 	public void onMessage(Message message, byte[] pattern) {
-		syncStateFromRedis().subscribe();
-	}
-
-	private Mono<Void> syncStateFromRedis() {
-		return reactiveRedisTemplate.opsForValue().multiGet(List.of(HEALTH_STATUS_DEFAULT_KEY, HEALTH_STATUS_FALLBACK_KEY))
-				.doOnSuccess(statuses -> {
-					if (statuses != null && statuses.size() == 2) {
-						this.isDefaultAvailable = Objects.equals(statuses.get(0), "1");
-						this.isFallbackAvailable = Objects.equals(statuses.get(1), "1");
-					} else {
-						this.isDefaultAvailable = false;
-						this.isFallbackAvailable = false;
-					}
-				})
-				.doOnError(e -> {
-					this.isDefaultAvailable = false;
-					this.isFallbackAvailable = false;
-				})
-				.then();
+		String body = new String(message.getBody(), StandardCharsets.UTF_8);
+		if (body.startsWith(HEALTH_MESSAGE_PREFIX)) {
+			apply(body.substring(HEALTH_MESSAGE_PREFIX.length()));
+		}
+	}
+
+	void apply(String payload) {
+		String[] parts = payload.split(";", 3);
+		if (parts.length != 3) {
+			return;
+		}
+		long received;
+		try {
+			received = Long.parseLong(parts[0]);
+		} catch (NumberFormatException e) {
+			return;
+		}
+
+		synchronized (this) {
+			long now = System.currentTimeMillis();
+			if (received <= sequence && now - lastUpdateMillis < leaseMs) {
+				return;
+			}
+			this.isDefaultAvailable = isAvailable(parts[1]);
+			this.isFallbackAvailable = isAvailable(parts[2]);
+			this.defaultMinResponseTime = parseMinResponseTime(parts[1]);
+			this.fallbackMinResponseTime = parseMinResponseTime(parts[2]);
+			this.lastUpdateMillis = now;
+			this.sequence = received;
+		}
+	}
+
+	private Mono<HealthCheckResponse> checkHealthAsync(Processor processor, String url) {
+		return processorClients.get(processor)
+				.get(url, HealthCheckResponse.class, HEALTH_CHECK_TIMEOUT)
+				.onErrorReturn(FAILING);
+	}
+
+	private static String encodeStatus(HealthCheckResponse response) {
+		return response.isFailing() ? UNAVAILABLE : "1:" + response.getMinResponseTime();
+	}
+
+	private static boolean isAvailable(String status) {
+		return status != null && status.startsWith("1");
 	}
 
-	private Mono<Boolean> checkHealthAsync(String url) {
-		return webClient.get()
-				.uri(url)
-				.retrieve()
-				.bodyToMono(HealthCheckResponse.class)
-				.map(response -> !response.isFailing())
-				.onErrorReturn(false);
+	private static long parseMinResponseTime(String status) {
+		if (status == null) {
+			return 0;
+		}
+		int separator = status.indexOf(':');
+		if (separator < 0) {
+			return 0;
+		}
+		try {
+			return Long.parseLong(status, separator + 1, status.length(), 10);
+		} catch (NumberFormatException e) {
+			return 0;
+		}
 	}
 
 	public ChannelTopic getTopic() {
@@ -122,4 +199,12 @@ public class ProcessorHealthMonitor implements MessageListener {
 	public boolean isFallbackProcessorAvailable() {
 		return isFallbackAvailable;
 	}
+
+	public long getDefaultMinResponseTime() {
+		return defaultMinResponseTime;
+	}
+
+	public long getFallbackMinResponseTime() {
+		return fallbackMinResponseTime;
+	}
 }
@@ -0,0 +1,138 @@
+package br.com.rinha.pagamentos.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_EXPONENT = 31;
+	private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+	private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+	private static final int MAX_STRIPES = 16;
+	private static final int SUM = BUCKETS;
+	private static final int PADDING = 16;
+	private static final int STRIDE = BUCKETS + PADDING;
+	private static final long PROBE_MIX = 0x9E3779B97F4A7C15L;
+	private static final AtomicInteger NEXT_PROBE = new AtomicInteger();
+	private static final ThreadLocal<Integer> PROBE = ThreadLocal.withInitial(NEXT_PROBE::getAndIncrement);
+
+	private final int stripeMask;
+	private final AtomicLongArray cells;
+
+	public LatencyHistogram() {
+		this(Runtime.getRuntime().availableProcessors() * 2);
+	}
+
+	public LatencyHistogram(int stripes) {
+		int size = Integer.highestOneBit(Math.max(1, Math.min(MAX_STRIPES, stripes)));
+		this.stripeMask = size - 1;
+		this.cells = new AtomicLongArray(PADDING + size * STRIDE);
+	}
+
+	public void recordNanos(long nanos) {
+		record(nanos / 1_000);
+	}
+
+	public void record(long micros) {
+		long value = Math.max(0, Math.min(MAX_VALUE, micros));
+		int base = PADDING + (probe() & stripeMask) * STRIDE;
+		cells.incrementAndGet(base + indexOf(value));
+		cells.addAndGet(base + SUM, value);
+	}
+
+	private static int probe() {
+		Thread thread = Thread.currentThread();
+		if (thread.isVirtual()) {
+			return (int) ((thread.threadId() * PROBE_MIX) >>> 32);
+		}
+		return PROBE.get();
+	}
+
+	public Snapshot snapshot() {
+		long[] merged = new long[BUCKETS];
+		long count = 0;
+		long sum = 0;
+		for (int stripe = 0; stripe <= stripeMask; stripe++) {
+			int base = PADDING + stripe * STRIDE;
+			for (int i = 0; i < BUCKETS; i++) {
+				long c = cells.get(base + i);
+				merged[i] += c;
+				count += c;
+			}
+			sum += cells.get(base + SUM);
+		}
+		return new Snapshot(merged, count, sum);
+	}
+
+	static int indexOf(long value) {
+		if (value < 2 * SUB_BUCKETS) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+	}
+
+	static long highestValueAt(int index) {
+		if (index < 2 * SUB_BUCKETS) {
+			return index;
+		}
+		int shift = index / SUB_BUCKETS - 1;
+		long subBucket = SUB_BUCKETS + index % SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+	public static final class Snapshot {
+
+		private final long[] counts;
+		private final long count;
+		private final long sum;
+
+		private Snapshot(long[] counts, long count, long sum) {
+			this.counts = counts;
+			this.count = count;
+			this.sum = sum;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getSumMicros() {
+			return sum;
+		}
+
+		public long percentileMicros(double quantile) {
+			if (count == 0) {
+				return 0;
+			}
+			long rank = Math.max(1, (long) Math.ceil(quantile * count));
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank) {
+					return highestValueAt(i);
+				}
+			}
+			return highestValueAt(counts.length - 1);
+		}
+
+		public Snapshot since(Snapshot earlier) {
+			long[] delta = new long[counts.length];
+			for (int i = 0; i < counts.length; i++) {
+				delta[i] = counts[i] - earlier.counts[i];
+			}
+			return new Snapshot(delta, count - earlier.count, sum - earlier.sum);
+		}
+
+		public long maxMicros() {
+			for (int i = counts.length - 1; i >= 0; i--) {
+				if (counts[i] > 0) {
+					return highestValueAt(i);
+				}
+			}
+			return 0;
+		}
+	}
+}
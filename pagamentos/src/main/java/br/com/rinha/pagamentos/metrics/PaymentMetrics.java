@@ -0,0 +1,116 @@
+package br.com.rinha.pagamentos.metrics;
+
+import br.com.rinha.pagamentos.client.DispatchOutcome;
+import br.com.rinha.pagamentos.routing.Processor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class PaymentMetrics {
+
+	private final Map<Processor, LatencyHistogram> processorLatency = new EnumMap<>(Processor.class);
+	private final Map<Processor, LongAdder> processorSuccesses = new EnumMap<>(Processor.class);
+	private final Map<Processor, LongAdder> processorFailures = new EnumMap<>(Processor.class);
+	private final Map<Processor, LongAdder> processorTimeouts = new EnumMap<>(Processor.class);
+	private final LatencyHistogram persistLatency = new LatencyHistogram();
+
+	private final LongAdder queuePushes = new LongAdder();
+	private final LongAdder queuePops = new LongAdder();
+	private final LongAdder requeues = new LongAdder();
+	private final LongAdder fallbacks = new LongAdder();
+	private final LongAdder rejections = new LongAdder();
+	private final LongAdder persistFailures = new LongAdder();
+
+	public PaymentMetrics() {
+		for (Processor processor : Processor.values()) {
+			processorLatency.put(processor, new LatencyHistogram());
+			processorSuccesses.put(processor, new LongAdder());
+			processorFailures.put(processor, new LongAdder());
+			processorTimeouts.put(processor, new LongAdder());
+		}
+	}
+
+	public void recordProcessorCall(Processor processor, long elapsedNanos, DispatchOutcome outcome) {
+		if (outcome.isTimeout()) {
+			processorTimeouts.get(processor).increment();
+			return;
+		}
+		processorLatency.get(processor).recordNanos(elapsedNanos);
+		(outcome.isSuccess() ? processorSuccesses : processorFailures).get(processor).increment();
+	}
+
+	public void recordPersist(long elapsedNanos) {
+		persistLatency.recordNanos(elapsedNanos);
+	}
+
+	public void recordPersistFailure() {
+		persistFailures.increment();
+	}
+
+	public void recordQueuePush() {
+		queuePushes.increment();
+	}
+
+	public void recordQueuePops(int entries) {
+		queuePops.add(entries);
+	}
+
+	public void recordRequeue() {
+		requeues.increment();
+	}
+
+	public void recordFallback() {
+		fallbacks.increment();
+	}
+
+	public void recordRejection() {
+		rejections.increment();
+	}
+
+	public LatencyHistogram.Snapshot processorLatency(Processor processor) {
+		return processorLatency.get(processor).snapshot();
+	}
+
+	public long processorSuccesses(Processor processor) {
+		return processorSuccesses.get(processor).sum();
+	}
+
+	public long processorFailures(Processor processor) {
+		return processorFailures.get(processor).sum();
+	}
+
+	public long processorTimeouts(Processor processor) {
+		return processorTimeouts.get(processor).sum();
+	}
+
+	public LatencyHistogram.Snapshot persistLatency() {
+		return persistLatency.snapshot();
+	}
+
+	public long getQueuePushes() {
+		return queuePushes.sum();
+	}
+
+	public long getQueuePops() {
+		return queuePops.sum();
+	}
+
+	public long getRequeues() {
+		return requeues.sum();
+	}
+
+	public long getFallbacks() {
+		return fallbacks.sum();
+	}
+
+	public long getRejections() {
+		return rejections.sum();
+	}
+
+	public long getPersistFailures() {
+		return persistFailures.sum();
+	}
+}
@@ -0,0 +1,83 @@
+package br.com.rinha.pagamentos.metrics;
+
+public final class PrometheusTextWriter {
+
+	private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+	private static final double MICROS_PER_SECOND = 1_000_000.0;
+
+	private final StringBuilder out;
+	private String lastFamily;
+
+	public PrometheusTextWriter(int capacity) {
+		this.out = new StringBuilder(capacity);
+	}
+
+	public PrometheusTextWriter counter(String name, String help, long value) {
+		return counter(name, help, null, null, value);
+	}
+
+	public PrometheusTextWriter counter(String name, String help, String label, String labelValue, long value) {
+		header(name, help, "counter");
+		sample(name, label, labelValue, null).append(value).append('\n');
+		return this;
+	}
+
+	public PrometheusTextWriter gauge(String name, String help, double value) {
+		return gauge(name, help, null, null, value);
+	}
+
+	public PrometheusTextWriter gauge(String name, String help, String label, String labelValue, double value) {
+		header(name, help, "gauge");
+		sample(name, label, labelValue, null).append(format(value)).append('\n');
+		return this;
+	}
+
+	public PrometheusTextWriter summary(String name, String help, String label, String labelValue, LatencyHistogram.Snapshot snapshot) {
+		header(name, help, "summary");
+		for (double quantile : QUANTILES) {
+			sample(name, label, labelValue, quantile).append(format(snapshot.percentileMicros(quantile) / MICROS_PER_SECOND)).append('\n');
+		}
+		sample(name + "_sum", label, labelValue, null).append(format(snapshot.getSumMicros() / MICROS_PER_SECOND)).append('\n');
+		sample(name + "_count", label, labelValue, null).append(snapshot.getCount()).append('\n');
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return out.toString();
+	}
+
+	private void header(String name, String help, String type) {
+		if (name.equals(lastFamily)) {
+			return;
+		}
+		lastFamily = name;
+		out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private StringBuilder sample(String name, String label, String labelValue, Double quantile) {
+		out.append(name);
+		if (label != null || quantile != null) {
+			out.append('{');
+			if (label != null) {
+				out.append(label).append("=\"").append(labelValue).append('"');
+			}
+			if (quantile != null) {
+				if (label != null) {
+					out.append(',');
+				}
+				out.append("quantile=\"").append(quantile).append('"');
+			}
+			out.append('}');
+		}
+		return out.append(' ');
+	}
+
+	private static String format(double value) {
+		if (Double.isNaN(value)) {
+			return "NaN";
+		}
+		return Double.toString(value);
+	}
+}
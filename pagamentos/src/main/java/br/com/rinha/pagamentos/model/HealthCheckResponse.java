@@ -3,12 +3,14 @@ package br.com.rinha.pagamentos.model;
 public class HealthCheckResponse {
 
 	private boolean failing;
+	private long minResponseTime;
 
 	public HealthCheckResponse() {
 	}
 
-	public HealthCheckResponse(boolean failing) {
+	public HealthCheckResponse(boolean failing, long minResponseTime) {
 		this.failing = failing;
+		this.minResponseTime = minResponseTime;
 	}
 
 	public boolean isFailing() {
@@ -19,4 +21,12 @@ public class HealthCheckResponse {
 		this.failing = failing;
 	}
 
+	public long getMinResponseTime() {
+		return minResponseTime;
+	}
+
+	public void setMinResponseTime(long minResponseTime) {
+		this.minResponseTime = minResponseTime;
+	}
+
 }
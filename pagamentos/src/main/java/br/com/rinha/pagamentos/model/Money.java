@@ -0,0 +1,23 @@
+package br.com.rinha.pagamentos.model;
+
+import java.math.BigDecimal;
+
+public final class Money {
+
+	public static final int SCALE = 2;
+
+	private Money() {
+	}
+
+	public static long toCents(BigDecimal amount) {
+		BigDecimal cents = amount.movePointRight(SCALE);
+		if (cents.signum() != 0 && cents.stripTrailingZeros().scale() > 0) {
+			throw new ArithmeticException("Amount has more than " + SCALE + " decimal places: " + amount);
+		}
+		return cents.longValueExact();
+	}
+
+	public static BigDecimal toDecimal(long cents) {
+		return BigDecimal.valueOf(cents, SCALE);
+	}
+}
@@ -1,5 +1,8 @@
 package br.com.rinha.pagamentos.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
@@ -7,15 +10,21 @@ import java.util.UUID;
 public class PaymentSent {
 
 	private UUID correlationId;
-	private BigDecimal amount;
+	private long amountCents;
 	private Instant requestedAt;
 
 	public PaymentSent(QueuedPayment payment) {
-		this.amount = payment.getAmount();
+		this.amountCents = payment.getAmountCents();
 		this.correlationId = payment.getCorrelationId();
 		this.requestedAt = Instant.now();
 	}
 
+	public PaymentSent(QueuedPayment payment, Instant requestedAt) {
+		this.amountCents = payment.getAmountCents();
+		this.correlationId = payment.getCorrelationId();
+		this.requestedAt = requestedAt;
+	}
+
 	public UUID getCorrelationId() {
 		return correlationId;
 	}
@@ -24,12 +33,18 @@ public class PaymentSent {
 		this.correlationId = correlationId;
 	}
 
-	public BigDecimal getAmount() {
-		return amount;
+	@JsonIgnore
+	public long getAmountCents() {
+		return amountCents;
+	}
+
+	public void setAmountCents(long amountCents) {
+		this.amountCents = amountCents;
 	}
 
-	public void setAmount(BigDecimal amount) {
-		this.amount = amount;
+	@JsonProperty("amount")
+	public BigDecimal getAmount() {
+		return Money.toDecimal(amountCents);
 	}
 
 	public Instant getRequestedAt() {
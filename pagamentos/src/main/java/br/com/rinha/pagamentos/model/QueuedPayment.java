@@ -1,18 +1,22 @@
 package br.com.rinha.pagamentos.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.math.BigDecimal;
 import java.util.UUID;
 
 public class QueuedPayment {
 
 	private UUID correlationId;
-	private BigDecimal amount;
+	private long amountCents;
+	private int attempts;
 
 	public QueuedPayment() {
 	}
 
-	public QueuedPayment(BigDecimal amount, UUID correlationId) {
-		this.amount = amount;
+	public QueuedPayment(long amountCents, UUID correlationId) {
+		this.amountCents = amountCents;
 		this.correlationId = correlationId;
 	}
 
@@ -24,11 +28,28 @@ public class QueuedPayment {
 		this.correlationId = correlationId;
 	}
 
-	public BigDecimal getAmount() {
-		return amount;
+	@JsonIgnore
+	public long getAmountCents() {
+		return amountCents;
+	}
+
+	@JsonIgnore
+	public void setAmountCents(long amountCents) {
+		this.amountCents = amountCents;
 	}
 
+	@JsonProperty("amount")
 	public void setAmount(BigDecimal amount) {
-		this.amount = amount;
+		this.amountCents = Money.toCents(amount);
+	}
+
+	@JsonIgnore
+	public int getAttempts() {
+		return attempts;
+	}
+
+	@JsonIgnore
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
 	}
 }
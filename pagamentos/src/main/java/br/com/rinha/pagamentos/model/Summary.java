@@ -1,26 +1,35 @@
 package br.com.rinha.pagamentos.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.math.BigDecimal;
 
 public class Summary {
 
 	private long totalRequests;
-	private BigDecimal totalAmount;
+	private long totalAmountCents;
 
 	public Summary() {
 	}
 
-	public Summary(long totalRequests, BigDecimal totalAmount) {
-		this.totalAmount = totalAmount;
+	public Summary(long totalRequests, long totalAmountCents) {
+		this.totalAmountCents = totalAmountCents;
 		this.totalRequests = totalRequests;
 	}
 
+	@JsonProperty("totalAmount")
 	public BigDecimal getTotalAmount() {
-		return totalAmount;
+		return Money.toDecimal(totalAmountCents);
+	}
+
+	@JsonIgnore
+	public long getTotalAmountCents() {
+		return totalAmountCents;
 	}
 
-	public void setTotalAmount(BigDecimal totalAmount) {
-		this.totalAmount = totalAmount;
+	public void setTotalAmountCents(long totalAmountCents) {
+		this.totalAmountCents = totalAmountCents;
 	}
 
 	public long getTotalRequests() {
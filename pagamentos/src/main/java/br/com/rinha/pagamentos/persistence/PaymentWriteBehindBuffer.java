@@ -0,0 +1,279 @@
+package br.com.rinha.pagamentos.persistence;
+
+import br.com.rinha.pagamentos.timeseries.TimeSeriesCommands;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class PaymentWriteBehindBuffer {
+
+	private static final String PAYMENTS_AMOUNT_TS_KEY = "payments:amount:ts";
+	private static final String PAYMENTS_COUNT_TS_KEY = "payments:count:ts";
+	private static final String BATCH_MARKER_PREFIX = "payments:ts:batch:";
+	private static final Duration SHUTDOWN_FLUSH_TIMEOUT = Duration.ofSeconds(5);
+	private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(1);
+
+	private final TimeSeriesCommands timeSeriesCommands;
+	private final List<PersistedBatchListener> listeners;
+	private final Scheduler scheduler = Schedulers.parallel();
+	private final Map<String, Lane> lanes;
+	private final Set<Batch> inFlight = ConcurrentHashMap.newKeySet();
+	private final int maxBatchSize;
+	private final Duration flushInterval;
+	private final Retry flushRetry;
+	private final String batchMarkerPrefix =
+			BATCH_MARKER_PREFIX + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ":";
+	private final AtomicLong batchSequence = new AtomicLong();
+
+	private final LongAdder flushes = new LongAdder();
+	private final LongAdder flushedPayments = new LongAdder();
+	private final LongAdder flushedSamples = new LongAdder();
+	private final LongAdder flushNanos = new LongAdder();
+	private final LongAdder failedFlushes = new LongAdder();
+	private final LongAdder abandonedBatches = new LongAdder();
+	private final LongAdder flushRetries = new LongAdder();
+	private final LongAdder rejectedSamples = new LongAdder();
+	private final AtomicLong maxFlushNanos = new AtomicLong();
+	private final AtomicLong maxBatchPayments = new AtomicLong();
+
+	private volatile boolean closed = false;
+
+	public PaymentWriteBehindBuffer(
+			TimeSeriesCommands timeSeriesCommands,
+			List<PersistedBatchListener> listeners,
+			@Value("${persistence.write-behind.max-batch-size}") int maxBatchSize,
+			@Value("${persistence.write-behind.flush-interval-ms}") long flushIntervalMs,
+			@Value("${persistence.write-behind.max-retries}") int maxRetries,
+			@Value("${persistence.write-behind.retry-backoff-ms}") long retryBackoffMs) {
+		this.timeSeriesCommands = timeSeriesCommands;
+		this.listeners = listeners;
+		this.maxBatchSize = maxBatchSize;
+		this.flushInterval = Duration.ofMillis(flushIntervalMs);
+		this.flushRetry = Retry.backoff(maxRetries, Duration.ofMillis(retryBackoffMs))
+				.maxBackoff(MAX_RETRY_BACKOFF)
+				.doBeforeRetry(signal -> flushRetries.increment());
+		this.lanes = Map.of(
+				"default", new Lane("default"),
+				"fallback", new Lane("fallback")
+		);
+	}
+
+	public Mono<Void> persist(String processorKey, long requestedAtMillis, long amountCents) {
+		Lane lane = lanes.get(processorKey);
+		if (lane == null) {
+			return Mono.error(new IllegalArgumentException("Unknown processor: " + processorKey));
+		}
+		return lane.append(requestedAtMillis, amountCents);
+	}
+
+	@PreDestroy
+	public void flushOnShutdown() {
+		closed = true;
+		lanes.values().forEach(Lane::flushCurrent);
+
+		long deadline = System.nanoTime() + SHUTDOWN_FLUSH_TIMEOUT.toNanos();
+		long remaining;
+		while (!inFlight.isEmpty() && (remaining = deadline - System.nanoTime()) > 0) {
+			List<Mono<Void>> pending = new ArrayList<>();
+			for (Batch batch : inFlight) {
+				pending.add(batch.flushed.asMono().onErrorResume(e -> Mono.empty()));
+			}
+			try {
+				Mono.when(pending).block(Duration.ofNanos(remaining));
+			} catch (IllegalStateException timedOut) {
+				break;
+			}
+		}
+		abandonedBatches.add(inFlight.size());
+	}
+
+	public WriteBehindStats getStats() {
+		return new WriteBehindStats(
+				flushes.sum(),
+				failedFlushes.sum(),
+				abandonedBatches.sum(),
+				flushRetries.sum(),
+				flushedPayments.sum(),
+				flushedSamples.sum(),
+				rejectedSamples.sum(),
+				flushNanos.sum(),
+				maxFlushNanos.get(),
+				maxBatchPayments.get()
+		);
+	}
+
+	private void flush(Lane lane, Batch batch) {
+		long start = System.nanoTime();
+
+		timeSeriesCommands.madd(batch.marker, lane.amountKey, lane.countKey,
+						batch.timestamps, batch.amounts, batch.counts, batch.size)
+				.retryWhen(flushRetry)
+				.subscribe(
+						written -> rejectedSamples.add(Math.max(0, 2L * batch.size - written)),
+						error -> {
+							failedFlushes.increment();
+							inFlight.remove(batch);
+							batch.flushed.tryEmitError(error);
+						},
+						() -> {
+							recordFlush(batch, System.nanoTime() - start);
+							notifyListeners(lane, batch);
+							inFlight.remove(batch);
+							batch.flushed.tryEmitEmpty();
+						}
+				);
+	}
+
+	private Batch newBatch() {
+		String marker = batchMarkerPrefix + batchSequence.incrementAndGet();
+		return new Batch(marker.getBytes(StandardCharsets.UTF_8), maxBatchSize);
+	}
+
+	private void notifyListeners(Lane lane, Batch batch) {
+		for (PersistedBatchListener listener : listeners) {
+			listener.onPersisted(lane.processorKey, batch.timestamps, batch.amounts, batch.counts, batch.size);
+		}
+	}
+
+	private void recordFlush(Batch batch, long elapsedNanos) {
+		flushes.increment();
+		flushedPayments.add(batch.payments);
+		flushedSamples.add(batch.size);
+		flushNanos.add(elapsedNanos);
+		maxFlushNanos.accumulateAndGet(elapsedNanos, Math::max);
+		maxBatchPayments.accumulateAndGet(batch.payments, Math::max);
+	}
+
+	public record WriteBehindStats(
+			long flushes,
+			long failedFlushes,
+			long abandonedBatches,
+			long retries,
+			long payments,
+			long samples,
+			long rejectedSamples,
+			long totalFlushNanos,
+			long maxFlushNanos,
+			long maxBatchPayments) {
+	}
+
+	private final class Lane {
+
+		private final String processorKey;
+		private final byte[] amountKey;
+		private final byte[] countKey;
+		private Batch current;
+
+		private Lane(String processorKey) {
+			this.processorKey = processorKey;
+			this.amountKey = (PAYMENTS_AMOUNT_TS_KEY + ":" + processorKey).getBytes(StandardCharsets.UTF_8);
+			this.countKey = (PAYMENTS_COUNT_TS_KEY + ":" + processorKey).getBytes(StandardCharsets.UTF_8);
+			this.current = newBatch();
+		}
+
+		private Mono<Void> append(long timestamp, long amountCents) {
+			Batch toFlush = null;
+			Batch batch;
+			boolean first;
+
+			synchronized (this) {
+				batch = current;
+				first = batch.isEmpty();
+				batch.add(timestamp, amountCents);
+				if (closed || batch.isFull()) {
+					current = newBatch();
+					inFlight.add(batch);
+					toFlush = batch;
+				}
+			}
+
+			if (toFlush != null) {
+				flush(this, toFlush);
+			} else if (first) {
+				scheduler.schedule(() -> flushIfCurrent(batch), flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+			}
+			return batch.flushed.asMono();
+		}
+
+		private void flushIfCurrent(Batch batch) {
+			synchronized (this) {
+				if (current != batch) {
+					return;
+				}
+				current = newBatch();
+				inFlight.add(batch);
+			}
+			flush(this, batch);
+		}
+
+		private void flushCurrent() {
+			Batch batch;
+			synchronized (this) {
+				if (current.isEmpty()) {
+					return;
+				}
+				batch = current;
+				current = newBatch();
+				inFlight.add(batch);
+			}
+			flush(this, batch);
+		}
+	}
+
+	private static final class Batch {
+
+		private final byte[] marker;
+		private final long[] timestamps;
+		private final long[] amounts;
+		private final long[] counts;
+		private final Sinks.Empty<Void> flushed = Sinks.empty();
+		private int size;
+		private int payments;
+
+		private Batch(byte[] marker, int capacity) {
+			this.marker = marker;
+			this.timestamps = new long[capacity];
+			this.amounts = new long[capacity];
+			this.counts = new long[capacity];
+		}
+
+		private void add(long timestamp, long amountCents) {
+			payments++;
+			if (size > 0 && timestamps[size - 1] == timestamp) {
+				amounts[size - 1] += amountCents;
+				counts[size - 1]++;
+				return;
+			}
+			timestamps[size] = timestamp;
+			amounts[size] = amountCents;
+			counts[size] = 1;
+			size++;
+		}
+
+		private boolean isEmpty() {
+			return size == 0;
+		}
+
+		private boolean isFull() {
+			return size == timestamps.length;
+		}
+	}
+}
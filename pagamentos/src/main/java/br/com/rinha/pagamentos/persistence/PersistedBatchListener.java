@@ -0,0 +1,6 @@
+package br.com.rinha.pagamentos.persistence;
+
+public interface PersistedBatchListener {
+
+	void onPersisted(String processorKey, long[] timestamps, long[] amounts, long[] counts, int size);
+}
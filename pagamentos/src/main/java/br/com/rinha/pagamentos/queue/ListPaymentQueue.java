@@ -0,0 +1,134 @@
+package br.com.rinha.pagamentos.queue;
+
+import br.com.rinha.pagamentos.model.QueuedPayment;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@ConditionalOnProperty(name = "queue.backend", havingValue = "list", matchIfMissing = true)
+public class ListPaymentQueue implements PaymentQueue, ApplicationListener<ApplicationReadyEvent> {
+
+	private static final String PROCESSING_QUEUE_KEY = "payments:processing-queue";
+	private static final Duration POP_TIMEOUT = Duration.ofSeconds(1);
+
+	private final ReactiveRedisTemplate<String, QueuedPayment> reactiveRedisTemplate;
+	private final RedisTemplate<String, QueuedPayment> redisTemplate;
+	private final QueuePartitions partitions;
+	private final List<String> partitionKeys;
+	private final boolean partitioned;
+
+	public ListPaymentQueue(
+			@Qualifier("reactiveQueuedRedisTemplate") ReactiveRedisTemplate<String, QueuedPayment> reactiveRedisTemplate,
+			@Qualifier("queuedRedisTemplate") RedisTemplate<String, QueuedPayment> redisTemplate,
+			QueuePartitions partitions) {
+		this.reactiveRedisTemplate = reactiveRedisTemplate;
+		this.redisTemplate = redisTemplate;
+		this.partitions = partitions;
+		this.partitionKeys = partitions.keys(PROCESSING_QUEUE_KEY);
+		this.partitioned = partitions.count() > 1;
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		if (!partitioned) {
+			return;
+		}
+		AtomicInteger next = new AtomicInteger();
+		migrateLegacy(next)
+				.expand(moved -> migrateLegacy(next))
+				.then()
+				.onErrorResume(e -> Mono.empty())
+				.subscribe();
+	}
+
+	@Override
+	public Mono<Void> enqueue(QueuedPayment payment) {
+		String key = partitionKeys.get(partitions.partitionOf(payment.getCorrelationId()));
+		return reactiveRedisTemplate.opsForList().leftPush(key, payment).then();
+	}
+
+	@Override
+	public void enqueueBlocking(QueuedPayment payment) {
+		String key = partitionKeys.get(partitions.partitionOf(payment.getCorrelationId()));
+		redisTemplate.opsForList().leftPush(key, payment);
+	}
+
+	@Override
+	public Flux<QueueEntry> poll(int maxEntries) {
+		List<String> keys = partitions.assignedKeys(PROCESSING_QUEUE_KEY);
+		if (keys.isEmpty()) {
+			return Mono.delay(POP_TIMEOUT).thenMany(Flux.empty());
+		}
+		if (maxEntries <= 1) {
+			return blockingPop(keys);
+		}
+		AtomicInteger remaining = new AtomicInteger(maxEntries);
+		return Flux.fromIterable(keys)
+				.concatMap(key -> popBatch(key, remaining))
+				.map(QueueEntry::of)
+				.switchIfEmpty(Flux.defer(() -> blockingPop(keys)));
+	}
+
+	private Flux<QueuedPayment> popBatch(String key, AtomicInteger remaining) {
+		int count = remaining.get();
+		if (count == 0) {
+			return Flux.empty();
+		}
+		return reactiveRedisTemplate.opsForList()
+				.rightPop(key, count)
+				.doOnNext(payment -> remaining.decrementAndGet());
+	}
+
+	private Mono<QueuedPayment> migrateLegacy(AtomicInteger next) {
+		String target = partitionKeys.get(Math.floorMod(next.getAndIncrement(), partitionKeys.size()));
+		return reactiveRedisTemplate.opsForList().rightPopAndLeftPush(PROCESSING_QUEUE_KEY, target);
+	}
+
+	private Flux<QueueEntry> blockingPop(List<String> keys) {
+		if (!partitioned) {
+			return reactiveRedisTemplate.opsForList()
+					.rightPop(keys.get(0), POP_TIMEOUT)
+					.map(QueueEntry::of)
+					.flux();
+		}
+
+		RedisSerializationContext<String, QueuedPayment> context = reactiveRedisTemplate.getSerializationContext();
+		List<ByteBuffer> rawKeys = new ArrayList<>(keys.size() + 1);
+		for (String key : keys) {
+			rawKeys.add(context.getKeySerializationPair().write(key));
+		}
+		rawKeys.add(context.getKeySerializationPair().write(PROCESSING_QUEUE_KEY));
+		return reactiveRedisTemplate.execute(connection -> connection.listCommands().brPop(rawKeys, POP_TIMEOUT))
+				.map(result -> QueueEntry.of(context.getValueSerializationPair().read(result.getValue())));
+	}
+
+	@Override
+	public Mono<Void> acknowledge(List<QueueEntry> entries) {
+		return Mono.empty();
+	}
+
+	@Override
+	public Mono<Long> size() {
+		List<String> keys = new ArrayList<>(partitionKeys);
+		if (partitioned) {
+			keys.add(PROCESSING_QUEUE_KEY);
+		}
+		return Flux.fromIterable(keys)
+				.flatMap(key -> reactiveRedisTemplate.opsForList().size(key))
+				.reduce(0L, Long::sum);
+	}
+}
@@ -0,0 +1,20 @@
+package br.com.rinha.pagamentos.queue;
+
+import br.com.rinha.pagamentos.model.QueuedPayment;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface PaymentQueue {
+
+	Mono<Void> enqueue(QueuedPayment payment);
+
+	void enqueueBlocking(QueuedPayment payment);
+
+	Flux<QueueEntry> poll(int maxEntries);
+
+	Mono<Void> acknowledge(List<QueueEntry> entries);
+
+	Mono<Long> size();
+}
@@ -0,0 +1,10 @@
+package br.com.rinha.pagamentos.queue;
+
+import br.com.rinha.pagamentos.model.QueuedPayment;
+
+public record QueueEntry(String key, String id, QueuedPayment payment) {
+
+	public static QueueEntry of(QueuedPayment payment) {
+		return new QueueEntry(null, null, payment);
+	}
+}
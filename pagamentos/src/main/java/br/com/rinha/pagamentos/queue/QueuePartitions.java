@@ -0,0 +1,170 @@
+package br.com.rinha.pagamentos.queue;
+
+import br.com.rinha.pagamentos.config.NodeIdentity;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class QueuePartitions {
+
+	private static final String NODES_KEY = "payments:queue-nodes";
+	private static final Duration LEAVE_TIMEOUT = Duration.ofSeconds(1);
+
+	@SuppressWarnings("unchecked")
+	private static final RedisScript<List<String>> HEARTBEAT_SCRIPT =
+			new DefaultRedisScript<>(
+					"local time = redis.call('TIME') " +
+							"local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) " +
+							"redis.call('ZADD', KEYS[1], now, ARGV[1]) " +
+							"redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - tonumber(ARGV[2])) " +
+							"return redis.call('ZRANGE', KEYS[1], 0, -1)",
+					(Class<List<String>>) (Class<?>) List.class
+			);
+
+	private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+	private final String nodeId;
+	private final int partitions;
+	private final long nodeTtlMs;
+	private final AtomicInteger cursor = new AtomicInteger();
+	private final LongAdder rebalances = new LongAdder();
+
+	private volatile List<String> members = List.of();
+	private volatile int[] assigned;
+
+	public QueuePartitions(
+			@Qualifier("reactivePersistedRedisTemplate") ReactiveStringRedisTemplate reactiveRedisTemplate,
+			NodeIdentity nodeIdentity,
+			@Value("${queue.partitions}") int partitions,
+			@Value("${queue.registry.node-ttl-ms}") long nodeTtlMs) {
+		if (partitions < 1) {
+			throw new IllegalArgumentException("queue.partitions must be positive");
+		}
+		this.reactiveRedisTemplate = reactiveRedisTemplate;
+		this.nodeId = nodeIdentity.getId();
+		this.partitions = partitions;
+		this.nodeTtlMs = nodeTtlMs;
+		this.assigned = all(partitions);
+	}
+
+	public int count() {
+		return partitions;
+	}
+
+	public int partitionOf(UUID correlationId) {
+		return partitionOf(correlationId, partitions);
+	}
+
+	public String key(String baseKey, int partition) {
+		return partitions == 1 ? baseKey : baseKey + ":" + partition;
+	}
+
+	public List<String> keys(String baseKey) {
+		List<String> keys = new ArrayList<>(partitions);
+		for (int partition = 0; partition < partitions; partition++) {
+			keys.add(key(baseKey, partition));
+		}
+		return keys;
+	}
+
+	public List<String> assignedKeys(String baseKey) {
+		int[] owned = assigned;
+		if (owned.length == 0) {
+			return List.of();
+		}
+		int offset = Math.floorMod(cursor.getAndIncrement(), owned.length);
+		List<String> keys = new ArrayList<>(owned.length);
+		for (int i = 0; i < owned.length; i++) {
+			keys.add(key(baseKey, owned[(offset + i) % owned.length]));
+		}
+		return keys;
+	}
+
+	public int[] assigned() {
+		return assigned.clone();
+	}
+
+	public List<String> getMembers() {
+		return members;
+	}
+
+	public long getRebalances() {
+		return rebalances.sum();
+	}
+
+	@Scheduled(fixedDelayString = "${queue.registry.heartbeat-ms}")
+	public void heartbeat() {
+		if (partitions == 1) {
+			return;
+		}
+		reactiveRedisTemplate.execute(HEARTBEAT_SCRIPT, List.of(NODES_KEY), List.of(nodeId, String.valueOf(nodeTtlMs)))
+				.next()
+				.subscribe(this::update, error -> {});
+	}
+
+	private void update(List<String> live) {
+		List<String> current = List.copyOf(live);
+		if (current.equals(members)) {
+			return;
+		}
+		int[] owned = assign(current, nodeId, partitions);
+		if (owned == null) {
+			return;
+		}
+		members = current;
+		assigned = owned;
+		rebalances.increment();
+	}
+
+	@PreDestroy
+	public void leave() {
+		if (partitions == 1) {
+			return;
+		}
+		reactiveRedisTemplate.opsForZSet().remove(NODES_KEY, nodeId)
+				.onErrorResume(e -> Mono.empty())
+				.block(LEAVE_TIMEOUT);
+	}
+
+	static int partitionOf(UUID correlationId, int partitions) {
+		long bits = correlationId.getMostSignificantBits() ^ correlationId.getLeastSignificantBits();
+		int hash = (int) (bits ^ (bits >>> 32));
+		return Math.floorMod(hash ^ (hash >>> 16), partitions);
+	}
+
+	static int[] assign(List<String> members, String nodeId, int partitions) {
+		List<String> sorted = new ArrayList<>(members);
+		sorted.sort(null);
+		int index = sorted.indexOf(nodeId);
+		if (index < 0) {
+			return null;
+		}
+		int nodes = sorted.size();
+		int[] owned = new int[Math.max(0, (partitions - index + nodes - 1) / nodes)];
+		for (int i = 0; i < owned.length; i++) {
+			owned[i] = index + i * nodes;
+		}
+		return owned;
+	}
+
+	private static int[] all(int partitions) {
+		int[] owned = new int[partitions];
+		for (int partition = 0; partition < partitions; partition++) {
+			owned[partition] = partition;
+		}
+		return owned;
+	}
+}
@@ -0,0 +1,212 @@
+package br.com.rinha.pagamentos.queue;
+
+import br.com.rinha.pagamentos.config.NodeIdentity;
+import br.com.rinha.pagamentos.model.QueuedPayment;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisElementReader;
+import org.springframework.data.redis.serializer.RedisElementWriter;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@ConditionalOnProperty(name = "queue.backend", havingValue = "stream")
+public class StreamPaymentQueue implements PaymentQueue {
+
+	private static final String PROCESSING_STREAM_KEY = "payments:processing-stream";
+	private static final String CONSUMER_GROUP = "payments-consumers";
+	private static final String PAYMENT_FIELD = "p";
+	private static final Duration READ_BLOCK_TIMEOUT = Duration.ofSeconds(1);
+
+	private static final RedisScript<String> CREATE_GROUP_SCRIPT =
+			new DefaultRedisScript<>(
+					"local ok, err = pcall(redis.call, 'XGROUP', 'CREATE', KEYS[1], ARGV[1], '0', 'MKSTREAM') " +
+							"if ok or string.find(tostring(err), 'BUSYGROUP') then return 'OK' end " +
+							"return redis.error_reply(tostring(err))",
+					String.class
+			);
+
+	private static final RedisScript<Long> ACK_AND_DELETE_SCRIPT =
+			new DefaultRedisScript<>(
+					"redis.call('XACK', KEYS[1], ARGV[1], unpack(ARGV, 2)); " +
+							"return redis.call('XDEL', KEYS[1], unpack(ARGV, 2))",
+					Long.class
+			);
+
+	@SuppressWarnings("unchecked")
+	private static final RedisScript<List<Object>> AUTOCLAIM_SCRIPT =
+			new DefaultRedisScript<>(
+					"local claimed = redis.call('XAUTOCLAIM', KEYS[1], ARGV[1], ARGV[2], ARGV[3], '0-0', 'COUNT', ARGV[4]) " +
+							"local out = {} " +
+							"for _, entry in ipairs(claimed[2]) do " +
+							"  if entry[2] then " +
+							"    out[#out + 1] = entry[1] " +
+							"    out[#out + 1] = entry[2][2] " +
+							"  end " +
+							"end " +
+							"return out",
+					(Class<List<Object>>) (Class<?>) List.class
+			);
+
+	private final ReactiveRedisTemplate<String, QueuedPayment> reactiveQueuedRedisTemplate;
+	private final ReactiveStringRedisTemplate reactivePersistedRedisTemplate;
+	private final RedisTemplate<String, QueuedPayment> queuedRedisTemplate;
+	private final QueuePartitions partitions;
+	private final List<String> partitionKeys;
+	private final String consumerName;
+	private final long claimMinIdleMs;
+	private final long claimIntervalMs;
+	private final Mono<String> groupReady;
+	private final AtomicLong nextClaimAt = new AtomicLong();
+
+	public StreamPaymentQueue(
+			@Qualifier("reactiveQueuedRedisTemplate") ReactiveRedisTemplate<String, QueuedPayment> reactiveQueuedRedisTemplate,
+			@Qualifier("reactivePersistedRedisTemplate") ReactiveStringRedisTemplate reactivePersistedRedisTemplate,
+			@Qualifier("queuedRedisTemplate") RedisTemplate<String, QueuedPayment> queuedRedisTemplate,
+			NodeIdentity nodeIdentity,
+			QueuePartitions partitions,
+			@Value("${queue.stream.claim-min-idle-ms}") long claimMinIdleMs,
+			@Value("${queue.stream.claim-interval-ms}") long claimIntervalMs) {
+		this.reactiveQueuedRedisTemplate = reactiveQueuedRedisTemplate;
+		this.reactivePersistedRedisTemplate = reactivePersistedRedisTemplate;
+		this.queuedRedisTemplate = queuedRedisTemplate;
+		this.partitions = partitions;
+		this.partitionKeys = partitions.keys(PROCESSING_STREAM_KEY);
+		this.consumerName = nodeIdentity.getId();
+		this.claimMinIdleMs = claimMinIdleMs;
+		this.claimIntervalMs = claimIntervalMs;
+		this.groupReady = Flux.fromIterable(partitionKeys)
+				.concatMap(key -> reactivePersistedRedisTemplate.execute(CREATE_GROUP_SCRIPT, List.of(key), List.of(CONSUMER_GROUP)))
+				.last()
+				.retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(100)).maxBackoff(Duration.ofSeconds(1)))
+				.cache();
+	}
+
+	@Override
+	public Mono<Void> enqueue(QueuedPayment payment) {
+		String key = partitionKeys.get(partitions.partitionOf(payment.getCorrelationId()));
+		return reactiveQueuedRedisTemplate.opsForStream()
+				.add(key, Map.of(PAYMENT_FIELD, payment))
+				.then();
+	}
+
+	@Override
+	public void enqueueBlocking(QueuedPayment payment) {
+		String key = partitionKeys.get(partitions.partitionOf(payment.getCorrelationId()));
+		queuedRedisTemplate.opsForStream().add(key, Map.of(PAYMENT_FIELD, payment));
+	}
+
+	@Override
+	public Flux<QueueEntry> poll(int maxEntries) {
+		return groupReady.thenMany(Flux.defer(() -> {
+			List<String> keys = partitions.assignedKeys(PROCESSING_STREAM_KEY);
+			if (keys.isEmpty()) {
+				return Mono.delay(READ_BLOCK_TIMEOUT).thenMany(Flux.empty());
+			}
+			long now = System.currentTimeMillis();
+			long claimAt = nextClaimAt.get();
+			if (now >= claimAt && nextClaimAt.compareAndSet(claimAt, now + claimIntervalMs)) {
+				return claimAbandoned(keys, maxEntries).switchIfEmpty(read(keys, maxEntries));
+			}
+			return read(keys, maxEntries);
+		}));
+	}
+
+	@Override
+	public Mono<Void> acknowledge(List<QueueEntry> entries) {
+		if (entries.isEmpty()) {
+			return Mono.empty();
+		}
+		Map<String, List<String>> argsByKey = new HashMap<>();
+		for (QueueEntry entry : entries) {
+			argsByKey.computeIfAbsent(entry.key(), key -> {
+				List<String> args = new ArrayList<>(entries.size() + 1);
+				args.add(CONSUMER_GROUP);
+				return args;
+			}).add(entry.id());
+		}
+		return Flux.fromIterable(argsByKey.entrySet())
+				.flatMap(keyAndArgs -> reactivePersistedRedisTemplate.execute(
+						ACK_AND_DELETE_SCRIPT, List.of(keyAndArgs.getKey()), keyAndArgs.getValue()))
+				.then();
+	}
+
+	@Override
+	public Mono<Long> size() {
+		return Flux.fromIterable(partitionKeys)
+				.flatMap(key -> reactiveQueuedRedisTemplate.opsForStream().size(key))
+				.reduce(0L, Long::sum);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Flux<QueueEntry> read(List<String> keys, int maxEntries) {
+		StreamOffset<String>[] offsets = (StreamOffset<String>[]) Array.newInstance(StreamOffset.class, keys.size());
+		for (int i = 0; i < offsets.length; i++) {
+			offsets[i] = StreamOffset.create(keys.get(i), ReadOffset.lastConsumed());
+		}
+		return reactiveQueuedRedisTemplate.<String, QueuedPayment>opsForStream()
+				.read(
+						Consumer.from(CONSUMER_GROUP, consumerName),
+						StreamReadOptions.empty().count(maxEntries).block(READ_BLOCK_TIMEOUT),
+						offsets
+				)
+				.map(StreamPaymentQueue::toEntry);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Flux<QueueEntry> claimAbandoned(List<String> keys, int maxEntries) {
+		return Flux.fromIterable(keys).concatMap(key -> claimAbandoned(key, maxEntries));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Flux<QueueEntry> claimAbandoned(String key, int maxEntries) {
+		RedisElementReader<List<Object>> reader = (RedisElementReader<List<Object>>) (RedisElementReader<?>) RedisElementReader.from(RedisSerializer.byteArray());
+
+		return reactivePersistedRedisTemplate.execute(
+						AUTOCLAIM_SCRIPT,
+						List.of(key),
+						List.of(CONSUMER_GROUP, consumerName, String.valueOf(claimMinIdleMs), String.valueOf(maxEntries)),
+						RedisElementWriter.from(RedisSerializer.string()),
+						reader
+				)
+				.flatMapIterable(claimed -> {
+					List<QueueEntry> entries = new ArrayList<>(claimed.size() / 2);
+					for (int i = 0; i + 1 < claimed.size(); i += 2) {
+						String id = new String((byte[]) claimed.get(i), StandardCharsets.UTF_8);
+						QueuedPayment payment = reactiveQueuedRedisTemplate.getSerializationContext()
+								.getValueSerializationPair()
+								.read(ByteBuffer.wrap((byte[]) claimed.get(i + 1)));
+						entries.add(new QueueEntry(key, id, payment));
+					}
+					return entries;
+				});
+	}
+
+	private static QueueEntry toEntry(MapRecord<String, String, QueuedPayment> record) {
+		return new QueueEntry(record.getStream(), record.getId().getValue(), record.getValue().get(PAYMENT_FIELD));
+	}
+}
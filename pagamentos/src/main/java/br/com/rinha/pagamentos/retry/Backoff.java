@@ -0,0 +1,21 @@
+package br.com.rinha.pagamentos.retry;
+
+public class Backoff {
+
+	private static final int MAX_EXPONENT = 30;
+
+	private final long baseMillis;
+	private final long maxMillis;
+
+	public Backoff(long baseMillis, long maxMillis) {
+		this.baseMillis = baseMillis;
+		this.maxMillis = maxMillis;
+	}
+
+	public long delayMillis(int attempts, double random) {
+		int exponent = Math.max(0, Math.min(MAX_EXPONENT, attempts - 1));
+		long cap = Math.min(maxMillis, baseMillis << exponent);
+		long half = cap / 2;
+		return half + (long) (random * (cap - half));
+	}
+}
@@ -0,0 +1,186 @@
+package br.com.rinha.pagamentos.retry;
+
+import br.com.rinha.pagamentos.metrics.PaymentMetrics;
+import br.com.rinha.pagamentos.model.QueuedPayment;
+import br.com.rinha.pagamentos.queue.PaymentQueue;
+import br.com.rinha.pagamentos.routing.ProcessorRouter;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class RetryScheduler {
+
+	private static final String RETRY_SET_KEY = "payments:retry-set";
+	private static final int PROMOTE_CONCURRENCY = 16;
+
+	private final PaymentQueue paymentQueue;
+	private final ReactiveZSetOperations<String, QueuedPayment> retrySet;
+	private final ZSetOperations<String, QueuedPayment> blockingRetrySet;
+	private final ProcessorRouter processorRouter;
+	private final PaymentMetrics metrics;
+	private final Backoff backoff;
+	private final long wheelMaxDelayMs;
+	private final long maxDelayMs;
+	private final int maxAttempts;
+	private final int promoteBatchSize;
+	private final HashedWheelTimer timer;
+	private final AtomicBoolean promoting = new AtomicBoolean(false);
+
+	private final LongAdder wheelScheduled = new LongAdder();
+	private final LongAdder redisScheduled = new LongAdder();
+	private final LongAdder released = new LongAdder();
+	private final LongAdder parked = new LongAdder();
+
+	private volatile boolean stopped = false;
+	private volatile boolean routeAvailable = true;
+	private volatile long drainUntil = 0;
+
+	public RetryScheduler(
+			PaymentQueue paymentQueue,
+			@Qualifier("reactiveQueuedRedisTemplate") ReactiveRedisTemplate<String, QueuedPayment> reactiveQueuedRedisTemplate,
+			@Qualifier("queuedRedisTemplate") RedisTemplate<String, QueuedPayment> queuedRedisTemplate,
+			ProcessorRouter processorRouter,
+			PaymentMetrics metrics,
+			@Value("${retry.backoff.base-ms}") long baseDelayMs,
+			@Value("${retry.backoff.max-ms}") long maxDelayMs,
+			@Value("${retry.wheel.tick-ms}") long wheelTickMs,
+			@Value("${retry.wheel.max-delay-ms}") long wheelMaxDelayMs,
+			@Value("${retry.max-attempts}") int maxAttempts,
+			@Value("${retry.promote.batch-size}") int promoteBatchSize) {
+		this.paymentQueue = paymentQueue;
+		this.retrySet = reactiveQueuedRedisTemplate.opsForZSet();
+		this.blockingRetrySet = queuedRedisTemplate.opsForZSet();
+		this.processorRouter = processorRouter;
+		this.metrics = metrics;
+		this.backoff = new Backoff(baseDelayMs, maxDelayMs);
+		this.maxDelayMs = maxDelayMs;
+		this.wheelMaxDelayMs = wheelMaxDelayMs;
+		this.maxAttempts = maxAttempts;
+		this.promoteBatchSize = promoteBatchSize;
+		int ticksPerWheel = (int) Math.max(64, Math.min(4096, wheelMaxDelayMs / wheelTickMs + 1));
+		this.timer = new HashedWheelTimer(new DefaultThreadFactory("retry-wheel", true), wheelTickMs, TimeUnit.MILLISECONDS, ticksPerWheel);
+	}
+
+	public Mono<Void> schedule(QueuedPayment payment) {
+		long delay = delayMillis(payment);
+		return retrySet.add(RETRY_SET_KEY, payment, System.currentTimeMillis() + delay)
+				.doOnSuccess(ignored -> arm(payment, delay))
+				.then();
+	}
+
+	public void scheduleBlocking(QueuedPayment payment) {
+		long delay = delayMillis(payment);
+		blockingRetrySet.add(RETRY_SET_KEY, payment, System.currentTimeMillis() + delay);
+		arm(payment, delay);
+	}
+
+	@Scheduled(fixedDelayString = "${retry.promote.interval-ms}")
+	public void schedulePromote() {
+		long now = System.currentTimeMillis();
+		boolean hasRoute = processorRouter.hasRoute();
+		if (hasRoute && !routeAvailable) {
+			drainUntil = now + maxDelayMs;
+		}
+		routeAvailable = hasRoute;
+		if (!hasRoute || !promoting.compareAndSet(false, true)) {
+			return;
+		}
+		promote(now < drainUntil ? Long.MAX_VALUE : now)
+				.doFinally(signal -> promoting.set(false))
+				.subscribe();
+	}
+
+	public Mono<Void> promote(long dueBefore) {
+		Range<Double> due = dueBefore == Long.MAX_VALUE
+				? Range.rightUnbounded(Range.Bound.inclusive(0d))
+				: Range.closed(0d, (double) dueBefore);
+
+		return retrySet.rangeByScore(RETRY_SET_KEY, due, Limit.limit().count(promoteBatchSize))
+				.flatMap(this::release, PROMOTE_CONCURRENCY)
+				.then()
+				.onErrorResume(e -> Mono.empty());
+	}
+
+	@PreDestroy
+	public void stopTimer() {
+		stopped = true;
+		timer.stop();
+	}
+
+	public RetryStats getStats() {
+		return new RetryStats(wheelScheduled.sum(), redisScheduled.sum(), released.sum(), parked.sum(), timer.pendingTimeouts());
+	}
+
+	private long delayMillis(QueuedPayment payment) {
+		if (payment.getAttempts() > maxAttempts) {
+			parked.increment();
+			return maxDelayMs;
+		}
+		return backoff.delayMillis(payment.getAttempts(), ThreadLocalRandom.current().nextDouble());
+	}
+
+	private void arm(QueuedPayment payment, long delay) {
+		if (delay <= wheelMaxDelayMs && !stopped) {
+			try {
+				timer.newTimeout(new RetryTask(payment), delay, TimeUnit.MILLISECONDS);
+				wheelScheduled.increment();
+				return;
+			} catch (IllegalStateException ignored) {
+			}
+		}
+		redisScheduled.increment();
+	}
+
+	private Mono<Void> release(QueuedPayment payment) {
+		return retrySet.remove(RETRY_SET_KEY, payment)
+				.filter(removed -> removed > 0)
+				.flatMap(removed -> enqueue(payment));
+	}
+
+	private Mono<Void> enqueue(QueuedPayment payment) {
+		return paymentQueue.enqueue(payment)
+				.doOnSuccess(ignored -> {
+					released.increment();
+					metrics.recordQueuePush();
+				})
+				.onErrorResume(e -> retrySet.add(RETRY_SET_KEY, payment, System.currentTimeMillis()).then());
+	}
+
+	public record RetryStats(long wheelScheduled, long redisScheduled, long released, long parked, long wheelPending) {
+	}
+
+	private final class RetryTask implements TimerTask {
+
+		private final QueuedPayment payment;
+
+		private RetryTask(QueuedPayment payment) {
+			this.payment = payment;
+		}
+
+		@Override
+		public void run(Timeout timeout) {
+			release(payment)
+					.onErrorResume(e -> Mono.empty())
+					.subscribe();
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package br.com.rinha.pagamentos.routing;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AdaptiveRoutingPolicy implements RoutingPolicy {
+
+	private static final int PROBE_INTERVAL = 20;
+
+	private final double minSuccessRate;
+	private final long maxDefaultWaitMillis;
+	private final AtomicLong unhealthyDecisions = new AtomicLong();
+
+	public AdaptiveRoutingPolicy(double minSuccessRate, long maxDefaultWaitMillis) {
+		this.minSuccessRate = minSuccessRate;
+		this.maxDefaultWaitMillis = maxDefaultWaitMillis;
+	}
+
+	@Override
+	public RoutingDecision route(ProcessorStats defaultStats, ProcessorStats fallbackStats, long nowMillis) {
+		boolean isDefaultUp = defaultStats.isAvailable();
+		boolean isFallbackUp = fallbackStats.isAvailable();
+
+		if (!isDefaultUp && !isFallbackUp) {
+			return RoutingDecision.QUEUE;
+		}
+		if (!isFallbackUp) {
+			return RoutingDecision.DEFAULT_ONLY;
+		}
+		if (!isDefaultUp) {
+			return defaultStats.unavailableForMillis(nowMillis) < maxDefaultWaitMillis
+					? RoutingDecision.QUEUE
+					: RoutingDecision.FALLBACK_ONLY;
+		}
+
+		boolean isDefaultHealthy = defaultStats.getSuccessRate() >= minSuccessRate;
+		boolean isFallbackHealthy = fallbackStats.getSuccessRate() >= minSuccessRate;
+
+		if (!isDefaultHealthy) {
+			if (!isFallbackHealthy || unhealthyDecisions.incrementAndGet() % PROBE_INTERVAL == 0) {
+				return RoutingDecision.DEFAULT_THEN_FALLBACK;
+			}
+			return RoutingDecision.FALLBACK_ONLY;
+		}
+		return RoutingDecision.DEFAULT_ONLY;
+	}
+}
@@ -0,0 +1,195 @@
+package br.com.rinha.pagamentos.routing;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class CircuitBreaker {
+
+	public enum State {
+		CLOSED,
+		OPEN,
+		HALF_OPEN
+	}
+
+	public interface StateListener {
+		void onStateChange(State state);
+	}
+
+	private final long bucketMillis;
+	private final int buckets;
+	private final double failureRateThreshold;
+	private final int minimumCalls;
+	private final long openMillis;
+	private final int halfOpenProbes;
+	private final long halfOpenTimeoutMillis;
+	private final StateListener listener;
+
+	private final AtomicLongArray epochs;
+	private final AtomicLongArray successes;
+	private final AtomicLongArray failures;
+	private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+	private final AtomicInteger probePermits = new AtomicInteger();
+	private final AtomicInteger probeSuccesses = new AtomicInteger();
+
+	private volatile long openedAtMillis;
+	private volatile long halfOpenedAtMillis;
+
+	public CircuitBreaker(
+			long windowMillis,
+			int buckets,
+			double failureRateThreshold,
+			int minimumCalls,
+			long openMillis,
+			int halfOpenProbes,
+			long halfOpenTimeoutMillis,
+			StateListener listener) {
+		this.bucketMillis = Math.max(1, windowMillis / buckets);
+		this.buckets = buckets;
+		this.failureRateThreshold = failureRateThreshold;
+		this.minimumCalls = minimumCalls;
+		this.openMillis = openMillis;
+		this.halfOpenProbes = halfOpenProbes;
+		this.halfOpenTimeoutMillis = halfOpenTimeoutMillis;
+		this.listener = listener;
+		this.epochs = new AtomicLongArray(buckets);
+		this.successes = new AtomicLongArray(buckets);
+		this.failures = new AtomicLongArray(buckets);
+		resetWindow();
+	}
+
+	public State getState() {
+		return state.get();
+	}
+
+	public boolean isAvailable(long nowMillis) {
+		expireHalfOpen(nowMillis);
+		return switch (state.get()) {
+			case CLOSED -> true;
+			case OPEN -> nowMillis - openedAtMillis >= openMillis;
+			case HALF_OPEN -> probePermits.get() > 0;
+		};
+	}
+
+	public boolean tryAcquirePermission(long nowMillis) {
+		expireHalfOpen(nowMillis);
+		State current = state.get();
+		if (current == State.CLOSED) {
+			return true;
+		}
+		if (current == State.OPEN) {
+			if (nowMillis - openedAtMillis < openMillis) {
+				return false;
+			}
+			transition(State.OPEN, State.HALF_OPEN, nowMillis, true);
+		}
+		return state.get() == State.HALF_OPEN && acquireProbe();
+	}
+
+	public void releasePermission() {
+		if (state.get() == State.HALF_OPEN) {
+			probePermits.getAndUpdate(permits -> Math.min(halfOpenProbes, permits + 1));
+		}
+	}
+
+	public void recordSuccess(long nowMillis) {
+		if (state.get() == State.HALF_OPEN) {
+			if (probeSuccesses.incrementAndGet() >= halfOpenProbes) {
+				transition(State.HALF_OPEN, State.CLOSED, nowMillis, true);
+			}
+			return;
+		}
+		record(nowMillis, successes);
+	}
+
+	public void recordFailure(long nowMillis) {
+		State current = state.get();
+		if (current == State.HALF_OPEN) {
+			transition(State.HALF_OPEN, State.OPEN, nowMillis, true);
+			return;
+		}
+		if (current == State.OPEN) {
+			return;
+		}
+		record(nowMillis, failures);
+		if (shouldOpen(nowMillis)) {
+			transition(State.CLOSED, State.OPEN, nowMillis, true);
+		}
+	}
+
+	public void forceState(State target, long nowMillis) {
+		State current = state.get();
+		if (current != target) {
+			transition(current, target, nowMillis, false);
+		}
+	}
+
+	private void expireHalfOpen(long nowMillis) {
+		if (state.get() == State.HALF_OPEN && nowMillis - halfOpenedAtMillis >= halfOpenTimeoutMillis) {
+			transition(State.HALF_OPEN, State.OPEN, nowMillis, false);
+		}
+	}
+
+	private boolean acquireProbe() {
+		return probePermits.getAndUpdate(permits -> permits > 0 ? permits - 1 : 0) > 0;
+	}
+
+	private boolean transition(State from, State to, long nowMillis, boolean notify) {
+		if (to == State.HALF_OPEN) {
+			halfOpenedAtMillis = nowMillis;
+		}
+		if (!state.compareAndSet(from, to)) {
+			return false;
+		}
+		switch (to) {
+		case OPEN:
+			openedAtMillis = nowMillis;
+			break;
+		case HALF_OPEN:
+			probeSuccesses.set(0);
+			probePermits.set(halfOpenProbes);
+			break;
+		case CLOSED:
+			resetWindow();
+			break;
+		}
+		if (notify) {
+			listener.onStateChange(to);
+		}
+		return true;
+	}
+
+	private void record(long nowMillis, AtomicLongArray counters) {
+		long epoch = nowMillis / bucketMillis;
+		int index = (int) (epoch % buckets);
+		long seen = epochs.get(index);
+		if (seen != epoch && epochs.compareAndSet(index, seen, epoch)) {
+			successes.set(index, 0);
+			failures.set(index, 0);
+		}
+		counters.incrementAndGet(index);
+	}
+
+	private boolean shouldOpen(long nowMillis) {
+		long epoch = nowMillis / bucketMillis;
+		long totalSuccesses = 0;
+		long totalFailures = 0;
+		for (int i = 0; i < buckets; i++) {
+			long bucketEpoch = epochs.get(i);
+			if (bucketEpoch > epoch - buckets && bucketEpoch <= epoch) {
+				totalSuccesses += successes.get(i);
+				totalFailures += failures.get(i);
+			}
+		}
+		long total = totalSuccesses + totalFailures;
+		return total >= minimumCalls && totalFailures >= failureRateThreshold * total;
+	}
+
+	private void resetWindow() {
+		for (int i = 0; i < buckets; i++) {
+			epochs.set(i, -1);
+			successes.set(i, 0);
+			failures.set(i, 0);
+		}
+	}
+}
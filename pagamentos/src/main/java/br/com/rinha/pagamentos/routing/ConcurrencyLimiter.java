@@ -0,0 +1,116 @@
+package br.com.rinha.pagamentos.routing;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConcurrencyLimiter {
+
+	private static final double NO_LOAD_RTT_DRIFT = 0.001;
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double backoffRatio;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicLong limitBits;
+	private final AtomicLong noLoadRttBits = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
+	private final LongAdder rejections = new LongAdder();
+
+	public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.backoffRatio = backoffRatio;
+		this.limitBits = new AtomicLong(Double.doubleToRawLongBits(clamp(initialLimit)));
+	}
+
+	public boolean tryAcquire() {
+		int limit = getLimit();
+		int current;
+		do {
+			current = inFlight.get();
+			if (current >= limit) {
+				rejections.increment();
+				return false;
+			}
+		} while (!inFlight.compareAndSet(current, current + 1));
+		return true;
+	}
+
+	public boolean hasCapacity() {
+		return inFlight.get() < getLimit();
+	}
+
+	public void release(long rttNanos, boolean dropped) {
+		int inFlightAtRelease = inFlight.getAndDecrement();
+		if (dropped) {
+			backoff();
+		} else {
+			onSample(rttNanos, inFlightAtRelease);
+		}
+	}
+
+	public void cancel() {
+		inFlight.decrementAndGet();
+	}
+
+	public int getLimit() {
+		return (int) Double.longBitsToDouble(limitBits.get());
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	public long getRejections() {
+		return rejections.sum();
+	}
+
+	private void onSample(long rttNanos, int inFlightAtRelease) {
+		double sample = Math.max(1, rttNanos);
+		double noLoadRtt = updateNoLoadRtt(sample);
+
+		long currentBits;
+		double next;
+		do {
+			currentBits = limitBits.get();
+			double limit = Double.longBitsToDouble(currentBits);
+			double queued = limit * (1 - noLoadRtt / sample);
+			double step = Math.log10(limit) + 1;
+			if (queued < 3 * step) {
+				if (inFlightAtRelease < limit / 2) {
+					return;
+				}
+				next = clamp(limit + step);
+			} else if (queued > 6 * step) {
+				next = clamp(limit - step);
+			} else {
+				return;
+			}
+		} while (!limitBits.compareAndSet(currentBits, Double.doubleToRawLongBits(next)));
+	}
+
+	private void backoff() {
+		long currentBits;
+		double next;
+		do {
+			currentBits = limitBits.get();
+			next = clamp(Double.longBitsToDouble(currentBits) * backoffRatio);
+		} while (!limitBits.compareAndSet(currentBits, Double.doubleToRawLongBits(next)));
+	}
+
+	private double updateNoLoadRtt(double sample) {
+		long currentBits;
+		double next;
+		do {
+			currentBits = noLoadRttBits.get();
+			double current = Double.longBitsToDouble(currentBits);
+			next = Double.isNaN(current) || sample < current ? sample : current + NO_LOAD_RTT_DRIFT * (sample - current);
+		} while (!noLoadRttBits.compareAndSet(currentBits, Double.doubleToRawLongBits(next)));
+		return next;
+	}
+
+	private double clamp(double limit) {
+		return Math.max(minLimit, Math.min(maxLimit, limit));
+	}
+}
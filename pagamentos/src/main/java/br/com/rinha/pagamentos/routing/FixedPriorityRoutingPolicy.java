@@ -0,0 +1,19 @@
+package br.com.rinha.pagamentos.routing;
+
+public class FixedPriorityRoutingPolicy implements RoutingPolicy {
+
+	@Override
+	public RoutingDecision route(ProcessorStats defaultStats, ProcessorStats fallbackStats, long nowMillis) {
+		boolean isDefaultUp = defaultStats.isAvailable();
+		boolean isFallbackUp = fallbackStats.isAvailable();
+
+		if (isDefaultUp && isFallbackUp) {
+			return RoutingDecision.DEFAULT_THEN_FALLBACK;
+		} else if (isDefaultUp) {
+			return RoutingDecision.DEFAULT_ONLY;
+		} else if (isFallbackUp) {
+			return RoutingDecision.FALLBACK_ONLY;
+		}
+		return RoutingDecision.QUEUE;
+	}
+}
@@ -0,0 +1,17 @@
+package br.com.rinha.pagamentos.routing;
+
+public enum Processor {
+
+	DEFAULT("default"),
+	FALLBACK("fallback");
+
+	private final String key;
+
+	Processor(String key) {
+		this.key = key;
+	}
+
+	public String key() {
+		return key;
+	}
+}
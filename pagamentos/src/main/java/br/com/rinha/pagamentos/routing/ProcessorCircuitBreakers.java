@@ -0,0 +1,82 @@
+package br.com.rinha.pagamentos.routing;
+
+import br.com.rinha.pagamentos.config.NodeIdentity;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+@Component
+public class ProcessorCircuitBreakers implements MessageListener {
+
+	private static final String HEALTH_NOTIFICATION_CHANNEL = "health:notifications";
+	private static final String BREAKER_MESSAGE_PREFIX = "breaker:";
+
+	private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+	private final String nodeId;
+	private final CircuitBreaker defaultBreaker;
+	private final CircuitBreaker fallbackBreaker;
+
+	public ProcessorCircuitBreakers(
+			@Qualifier("reactivePersistedRedisTemplate") ReactiveStringRedisTemplate reactiveRedisTemplate,
+			NodeIdentity nodeIdentity,
+			@Value("${circuit-breaker.window-ms}") long windowMillis,
+			@Value("${circuit-breaker.buckets}") int buckets,
+			@Value("${circuit-breaker.failure-rate-threshold}") double failureRateThreshold,
+			@Value("${circuit-breaker.minimum-calls}") int minimumCalls,
+			@Value("${circuit-breaker.open-ms}") long openMillis,
+			@Value("${circuit-breaker.half-open-probes}") int halfOpenProbes,
+			@Value("${circuit-breaker.half-open-timeout-ms}") long halfOpenTimeoutMillis) {
+		this.reactiveRedisTemplate = reactiveRedisTemplate;
+		this.nodeId = nodeIdentity.getId();
+		this.defaultBreaker = new CircuitBreaker(windowMillis, buckets, failureRateThreshold, minimumCalls, openMillis, halfOpenProbes, halfOpenTimeoutMillis,
+				state -> publish(Processor.DEFAULT, state));
+		this.fallbackBreaker = new CircuitBreaker(windowMillis, buckets, failureRateThreshold, minimumCalls, openMillis, halfOpenProbes, halfOpenTimeoutMillis,
+				state -> publish(Processor.FALLBACK, state));
+	}
+
+	public CircuitBreaker get(Processor processor) {
+		return processor == Processor.DEFAULT ? defaultBreaker : fallbackBreaker;
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String body = new String(message.getBody(), StandardCharsets.UTF_8);
+		if (!body.startsWith(BREAKER_MESSAGE_PREFIX)) {
+			return;
+		}
+
+		String[] parts = body.split(":", 4);
+		if (parts.length != 4 || parts[3].equals(nodeId)) {
+			return;
+		}
+
+		CircuitBreaker breaker = switch (parts[1]) {
+			case "default" -> defaultBreaker;
+			case "fallback" -> fallbackBreaker;
+			default -> null;
+		};
+		if (breaker == null) {
+			return;
+		}
+
+		try {
+			breaker.forceState(CircuitBreaker.State.valueOf(parts[2]), System.currentTimeMillis());
+		} catch (IllegalArgumentException ignored) {
+		}
+	}
+
+	private void publish(Processor processor, CircuitBreaker.State state) {
+		if (state == CircuitBreaker.State.HALF_OPEN) {
+			return;
+		}
+		reactiveRedisTemplate.convertAndSend(
+				HEALTH_NOTIFICATION_CHANNEL,
+				BREAKER_MESSAGE_PREFIX + processor.key() + ":" + state.name() + ":" + nodeId
+		).subscribe();
+	}
+}
@@ -0,0 +1,28 @@
+package br.com.rinha.pagamentos.routing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProcessorConcurrencyLimits {
+
+	private final ConcurrencyLimiter defaultLimiter;
+	private final ConcurrencyLimiter fallbackLimiter;
+
+	public ProcessorConcurrencyLimits(
+			@Value("${concurrency-limit.initial}") int initialLimit,
+			@Value("${concurrency-limit.min}") int minLimit,
+			@Value("${concurrency-limit.max}") int maxLimit,
+			@Value("${concurrency-limit.backoff-ratio}") double backoffRatio) {
+		this.defaultLimiter = new ConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoffRatio);
+		this.fallbackLimiter = new ConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoffRatio);
+	}
+
+	public ConcurrencyLimiter get(Processor processor) {
+		return processor == Processor.DEFAULT ? defaultLimiter : fallbackLimiter;
+	}
+
+	public boolean hasCapacity(RoutingDecision decision) {
+		return !decision.isQueued() && get(decision.primary()).hasCapacity();
+	}
+}
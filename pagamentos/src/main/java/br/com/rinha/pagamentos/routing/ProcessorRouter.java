@@ -0,0 +1,74 @@
+package br.com.rinha.pagamentos.routing;
+
+import br.com.rinha.pagamentos.health.ProcessorHealthMonitor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProcessorRouter {
+
+	private final ProcessorHealthMonitor healthMonitor;
+	private final ProcessorCircuitBreakers circuitBreakers;
+	private final RoutingPolicy policy;
+	private final ProcessorStats defaultStats;
+	private final ProcessorStats fallbackStats;
+
+	public ProcessorRouter(
+			ProcessorHealthMonitor healthMonitor,
+			ProcessorCircuitBreakers circuitBreakers,
+			@Value("${routing.policy}") String policyName,
+			@Value("${processor.default.fee}") double defaultFee,
+			@Value("${processor.fallback.fee}") double fallbackFee,
+			@Value("${routing.adaptive.min-success-rate}") double minSuccessRate,
+			@Value("${routing.adaptive.max-default-wait-ms}") long maxDefaultWaitMillis) {
+		this.healthMonitor = healthMonitor;
+		this.circuitBreakers = circuitBreakers;
+		this.defaultStats = new ProcessorStats(Processor.DEFAULT, defaultFee);
+		this.fallbackStats = new ProcessorStats(Processor.FALLBACK, fallbackFee);
+		this.policy = switch (policyName) {
+			case "fixed" -> new FixedPriorityRoutingPolicy();
+			case "adaptive" -> new AdaptiveRoutingPolicy(minSuccessRate, maxDefaultWaitMillis);
+			default -> throw new IllegalArgumentException("Unknown routing policy: " + policyName);
+		};
+	}
+
+	public RoutingDecision route() {
+		long now = System.currentTimeMillis();
+		boolean isDefaultUp = healthMonitor.isDefaultProcessorAvailable()
+				&& circuitBreakers.get(Processor.DEFAULT).isAvailable(now);
+		boolean isFallbackUp = healthMonitor.isFallbackProcessorAvailable()
+				&& circuitBreakers.get(Processor.FALLBACK).isAvailable(now);
+
+		defaultStats.updateHealth(isDefaultUp, healthMonitor.getDefaultMinResponseTime(), now);
+		fallbackStats.updateHealth(isFallbackUp, healthMonitor.getFallbackMinResponseTime(), now);
+		return policy.route(defaultStats, fallbackStats, now);
+	}
+
+	public boolean hasRoute() {
+		long now = System.currentTimeMillis();
+		return (healthMonitor.isDefaultProcessorAvailable() && circuitBreakers.get(Processor.DEFAULT).isAvailable(now))
+				|| (healthMonitor.isFallbackProcessorAvailable() && circuitBreakers.get(Processor.FALLBACK).isAvailable(now));
+	}
+
+	public boolean tryAcquire(Processor processor) {
+		return circuitBreakers.get(processor).tryAcquirePermission(System.currentTimeMillis());
+	}
+
+	public void release(Processor processor) {
+		circuitBreakers.get(processor).releasePermission();
+	}
+
+	public void recordSuccess(Processor processor, long latencyNanos) {
+		stats(processor).recordSuccess(latencyNanos);
+		circuitBreakers.get(processor).recordSuccess(System.currentTimeMillis());
+	}
+
+	public void recordFailure(Processor processor, long latencyNanos) {
+		stats(processor).recordFailure(latencyNanos);
+		circuitBreakers.get(processor).recordFailure(System.currentTimeMillis());
+	}
+
+	public ProcessorStats stats(Processor processor) {
+		return processor == Processor.DEFAULT ? defaultStats : fallbackStats;
+	}
+}
@@ -0,0 +1,88 @@
+package br.com.rinha.pagamentos.routing;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ProcessorStats {
+
+	private static final double LATENCY_ALPHA = 0.2;
+	private static final double SUCCESS_ALPHA = 0.05;
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+	private final Processor processor;
+	private final double fee;
+	private final AtomicLong latencyEwmaBits = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
+	private final AtomicLong successEwmaBits = new AtomicLong(Double.doubleToRawLongBits(1.0));
+
+	private volatile boolean available = false;
+	private volatile long unavailableSinceMillis = 0;
+	private volatile long minResponseTimeMillis = 0;
+
+	public ProcessorStats(Processor processor, double fee) {
+		this.processor = processor;
+		this.fee = fee;
+	}
+
+	public void recordSuccess(long latencyNanos) {
+		update(latencyEwmaBits, LATENCY_ALPHA, latencyNanos / NANOS_PER_MILLI);
+		update(successEwmaBits, SUCCESS_ALPHA, 1.0);
+	}
+
+	public void recordFailure(long latencyNanos) {
+		update(latencyEwmaBits, LATENCY_ALPHA, latencyNanos / NANOS_PER_MILLI);
+		update(successEwmaBits, SUCCESS_ALPHA, 0.0);
+	}
+
+	public void updateHealth(boolean available, long minResponseTimeMillis, long nowMillis) {
+		if (available) {
+			this.unavailableSinceMillis = 0;
+		} else if (this.available || this.unavailableSinceMillis == 0) {
+			this.unavailableSinceMillis = nowMillis;
+		}
+		this.available = available;
+		this.minResponseTimeMillis = minResponseTimeMillis;
+	}
+
+	public Processor getProcessor() {
+		return processor;
+	}
+
+	public double getFee() {
+		return fee;
+	}
+
+	public boolean isAvailable() {
+		return available;
+	}
+
+	public long unavailableForMillis(long nowMillis) {
+		long since = unavailableSinceMillis;
+		return since == 0 ? 0 : nowMillis - since;
+	}
+
+	public long getMinResponseTimeMillis() {
+		return minResponseTimeMillis;
+	}
+
+	public double getLatencyEwmaMillis() {
+		return Double.longBitsToDouble(latencyEwmaBits.get());
+	}
+
+	public double getExpectedLatencyMillis() {
+		double ewma = getLatencyEwmaMillis();
+		return Double.isNaN(ewma) ? minResponseTimeMillis : Math.max(ewma, minResponseTimeMillis);
+	}
+
+	public double getSuccessRate() {
+		return Double.longBitsToDouble(successEwmaBits.get());
+	}
+
+	private static void update(AtomicLong ewmaBits, double alpha, double sample) {
+		long currentBits;
+		double next;
+		do {
+			currentBits = ewmaBits.get();
+			double current = Double.longBitsToDouble(currentBits);
+			next = Double.isNaN(current) ? sample : current + alpha * (sample - current);
+		} while (!ewmaBits.compareAndSet(currentBits, Double.doubleToRawLongBits(next)));
+	}
+}
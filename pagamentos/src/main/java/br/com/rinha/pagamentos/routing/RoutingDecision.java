@@ -0,0 +1,13 @@
+package br.com.rinha.pagamentos.routing;
+
+public record RoutingDecision(Processor primary, Processor secondary) {
+
+	public static final RoutingDecision DEFAULT_THEN_FALLBACK = new RoutingDecision(Processor.DEFAULT, Processor.FALLBACK);
+	public static final RoutingDecision DEFAULT_ONLY = new RoutingDecision(Processor.DEFAULT, null);
+	public static final RoutingDecision FALLBACK_ONLY = new RoutingDecision(Processor.FALLBACK, null);
+	public static final RoutingDecision QUEUE = new RoutingDecision(null, null);
+
+	public boolean isQueued() {
+		return primary == null;
+	}
+}
@@ -0,0 +1,6 @@
+package br.com.rinha.pagamentos.routing;
+
+public interface RoutingPolicy {
+
+	RoutingDecision route(ProcessorStats defaultStats, ProcessorStats fallbackStats, long nowMillis);
+}
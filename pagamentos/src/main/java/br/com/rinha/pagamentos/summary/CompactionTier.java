@@ -0,0 +1,33 @@
+package br.com.rinha.pagamentos.summary;
+
+public enum CompactionTier {
+
+	RAW("raw", 1),
+	SECOND("1s", 1_000),
+	MINUTE("1m", 60_000),
+	HOUR("1h", 3_600_000);
+
+	private final String label;
+	private final long bucketMillis;
+
+	CompactionTier(String label, long bucketMillis) {
+		this.label = label;
+		this.bucketMillis = bucketMillis;
+	}
+
+	public String label() {
+		return label;
+	}
+
+	public long bucketMillis() {
+		return bucketMillis;
+	}
+
+	public boolean isRaw() {
+		return this == RAW;
+	}
+
+	public String keyOf(String rawKey) {
+		return isRaw() ? rawKey : rawKey + ":" + label;
+	}
+}
@@ -0,0 +1,75 @@
+package br.com.rinha.pagamentos.summary;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Component
+public class InFlightTracker {
+
+	public static final int UNTRACKED = -1;
+
+	private static final long FREE = Long.MAX_VALUE;
+	private static final long RESERVED = Long.MIN_VALUE;
+
+	private final AtomicLongArray slots;
+	private final AtomicInteger untracked = new AtomicInteger();
+
+	public InFlightTracker(@Value("${summary.barrier.in-flight-slots}") int capacity) {
+		this.slots = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++) {
+			slots.set(i, FREE);
+		}
+	}
+
+	public int begin() {
+		int capacity = slots.length();
+		int start = ThreadLocalRandom.current().nextInt(capacity);
+		for (int i = 0; i < capacity; i++) {
+			int slot = (start + i) % capacity;
+			if (slots.get(slot) == FREE && slots.compareAndSet(slot, FREE, RESERVED)) {
+				slots.set(slot, System.currentTimeMillis());
+				return slot;
+			}
+		}
+		untracked.incrementAndGet();
+		return UNTRACKED;
+	}
+
+	public long requestedAt(int slot) {
+		return slot == UNTRACKED ? System.currentTimeMillis() : slots.get(slot);
+	}
+
+	public void end(int slot) {
+		if (slot == UNTRACKED) {
+			untracked.decrementAndGet();
+		} else {
+			slots.set(slot, FREE);
+		}
+	}
+
+	public long getWatermark() {
+		long now = System.currentTimeMillis();
+		if (untracked.get() > 0) {
+			return Long.MIN_VALUE;
+		}
+		long oldest = now;
+		for (int i = 0; i < slots.length(); i++) {
+			oldest = Math.min(oldest, slots.get(i));
+		}
+		return oldest == RESERVED ? Long.MIN_VALUE : oldest - 1;
+	}
+
+	public int getInFlight() {
+		int inFlight = untracked.get();
+		for (int i = 0; i < slots.length(); i++) {
+			if (slots.get(i) != FREE) {
+				inFlight++;
+			}
+		}
+		return inFlight;
+	}
+}
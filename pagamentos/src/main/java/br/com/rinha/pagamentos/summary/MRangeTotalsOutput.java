@@ -0,0 +1,117 @@
+package br.com.rinha.pagamentos.summary;
+
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.output.CommandOutput;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class MRangeTotalsOutput extends CommandOutput<byte[], byte[], long[]> {
+
+	private static final byte[] TYPE_LABEL = bytes("type");
+	private static final byte[] PROCESSOR_LABEL = bytes("processor");
+	private static final byte[] COUNT_TYPE = bytes("count");
+	private static final byte[] DEFAULT_PROCESSOR = bytes("default");
+	private static final byte[] FALLBACK_PROCESSOR = bytes("fallback");
+
+	private static final int NO_LABEL = 0;
+	private static final int EXPECTING_TYPE = 1;
+	private static final int EXPECTING_PROCESSOR = 2;
+
+	private final TimeSeriesSamples samples;
+
+	private int pendingLabel = NO_LABEL;
+	private int processor = -1;
+	private boolean isCount;
+	private boolean expectingValue;
+	private long timestamp;
+
+	public MRangeTotalsOutput(long[] totals, TimeSeriesSamples samples) {
+		super(ByteArrayCodec.INSTANCE, totals);
+		this.samples = samples;
+	}
+
+	@Override
+	public void set(ByteBuffer bytes) {
+		if (bytes == null) {
+			return;
+		}
+		if (expectingValue) {
+			addSample(parseValue(bytes));
+			return;
+		}
+		switch (pendingLabel) {
+		case EXPECTING_TYPE:
+			isCount = matches(bytes, COUNT_TYPE);
+			pendingLabel = NO_LABEL;
+			return;
+		case EXPECTING_PROCESSOR:
+			processor = matches(bytes, DEFAULT_PROCESSOR) ? SummaryIndex.DEFAULT
+					: matches(bytes, FALLBACK_PROCESSOR) ? SummaryIndex.FALLBACK : -1;
+			pendingLabel = NO_LABEL;
+			return;
+		default:
+			if (matches(bytes, TYPE_LABEL)) {
+				pendingLabel = EXPECTING_TYPE;
+			} else if (matches(bytes, PROCESSOR_LABEL)) {
+				pendingLabel = EXPECTING_PROCESSOR;
+			}
+		}
+	}
+
+	@Override
+	public void set(long value) {
+		timestamp = value;
+		expectingValue = true;
+	}
+
+	@Override
+	public void set(double value) {
+		if (expectingValue) {
+			addSample(Math.round(value));
+		}
+	}
+
+	private void addSample(long value) {
+		expectingValue = false;
+		if (processor < 0) {
+			return;
+		}
+		output[processor * 2 + (isCount ? 0 : 1)] += value;
+		if (samples != null) {
+			samples.add(processor, timestamp, isCount ? 0 : value, isCount ? value : 0);
+		}
+	}
+
+	static long parseValue(ByteBuffer bytes) {
+		int position = bytes.position();
+		int limit = bytes.limit();
+		boolean negative = position < limit && bytes.get(position) == '-';
+		long value = 0;
+		for (int i = negative ? position + 1 : position; i < limit; i++) {
+			int digit = bytes.get(i) - '0';
+			if (digit < 0 || digit > 9) {
+				return Math.round(Double.parseDouble(StandardCharsets.US_ASCII.decode(bytes.duplicate()).toString()));
+			}
+			value = value * 10 + digit;
+		}
+		return negative ? -value : value;
+	}
+
+	private static boolean matches(ByteBuffer bytes, byte[] expected) {
+		if (bytes.remaining() != expected.length) {
+			return false;
+		}
+		int position = bytes.position();
+		for (int i = 0; i < expected.length; i++) {
+			if (bytes.get(position + i) != expected[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.US_ASCII);
+	}
+}
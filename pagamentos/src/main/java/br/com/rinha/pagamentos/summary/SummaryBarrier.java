@@ -0,0 +1,159 @@
+package br.com.rinha.pagamentos.summary;
+
+import br.com.rinha.pagamentos.config.NodeIdentity;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+@Component
+public class SummaryBarrier implements MessageListener {
+
+	private static final String BARRIER_CHANNEL = "summary:barrier";
+	private static final ChannelTopic BARRIER_TOPIC = new ChannelTopic(BARRIER_CHANNEL);
+	private static final String REQUEST_PREFIX = "req:";
+	private static final String ACK_PREFIX = "ack:";
+	private static final Duration POLL_INTERVAL = Duration.ofMillis(1);
+
+	private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+	private final InFlightTracker inFlightTracker;
+	private final SummaryIndexService indexService;
+	private final String nodeId;
+	private final Duration timeout;
+	private final AtomicLong sequence = new AtomicLong();
+	private final Map<String, PendingBarrier> pending = new ConcurrentHashMap<>();
+
+	public SummaryBarrier(
+			@Qualifier("reactivePersistedRedisTemplate") ReactiveStringRedisTemplate reactiveRedisTemplate,
+			InFlightTracker inFlightTracker,
+			SummaryIndexService indexService,
+			NodeIdentity nodeIdentity,
+			@Value("${summary.barrier.timeout-ms}") long timeoutMs) {
+		this.reactiveRedisTemplate = reactiveRedisTemplate;
+		this.inFlightTracker = inFlightTracker;
+		this.indexService = indexService;
+		this.nodeId = nodeIdentity.getId();
+		this.timeout = Duration.ofMillis(timeoutMs);
+	}
+
+	public Mono<Void> await(Long to) {
+		return Mono.defer(() -> {
+			long target = to == null ? System.currentTimeMillis() : Math.min(to, System.currentTimeMillis());
+			String barrierId = nodeId + "-" + sequence.incrementAndGet();
+			PendingBarrier barrier = new PendingBarrier();
+			pending.put(barrierId, barrier);
+
+			return reactiveRedisTemplate.convertAndSend(BARRIER_CHANNEL, REQUEST_PREFIX + barrierId + ":" + target)
+					.flatMap(receivers -> {
+						barrier.expect(receivers.intValue());
+						return barrier.done.asMono();
+					})
+					.timeout(timeout, Mono.empty())
+					.onErrorResume(e -> Mono.delay(timeout).then())
+					.doFinally(signal -> pending.remove(barrierId));
+		});
+	}
+
+	public ChannelTopic getTopic() {
+		return BARRIER_TOPIC;
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String body = new String(message.getBody(), StandardCharsets.UTF_8);
+
+		if (body.startsWith(ACK_PREFIX)) {
+			acknowledge(body.substring(ACK_PREFIX.length()));
+			return;
+		}
+
+		if (!body.startsWith(REQUEST_PREFIX)) {
+			return;
+		}
+		int separator = body.lastIndexOf(':');
+		String barrierId = body.substring(REQUEST_PREFIX.length(), separator);
+		long target;
+		try {
+			target = Long.parseLong(body.substring(separator + 1));
+		} catch (NumberFormatException e) {
+			return;
+		}
+
+		awaitUntil(() -> inFlightTracker.getWatermark() >= target)
+				.then(Mono.defer(() -> reactiveRedisTemplate.convertAndSend(BARRIER_CHANNEL, ACK_PREFIX + barrierId
+						+ ":" + indexService.getInstanceId() + ":" + indexService.getPublishedSequence())))
+				.subscribe();
+	}
+
+	private void acknowledge(String ack) {
+		int sequenceSeparator = ack.lastIndexOf(':');
+		int publisherSeparator = ack.lastIndexOf(':', sequenceSeparator - 1);
+		if (publisherSeparator < 0) {
+			return;
+		}
+		PendingBarrier barrier = pending.get(ack.substring(0, publisherSeparator));
+		if (barrier == null) {
+			return;
+		}
+		long publisher;
+		long sequence;
+		try {
+			publisher = Long.parseLong(ack.substring(publisherSeparator + 1, sequenceSeparator));
+			sequence = Long.parseLong(ack.substring(sequenceSeparator + 1));
+		} catch (NumberFormatException e) {
+			return;
+		}
+
+		awaitUntil(() -> indexService.hasApplied(publisher, sequence))
+				.then(Mono.fromRunnable(barrier::acknowledge))
+				.subscribe();
+	}
+
+	private Mono<Void> awaitUntil(BooleanSupplier condition) {
+		if (condition.getAsBoolean()) {
+			return Mono.empty();
+		}
+		return Flux.interval(POLL_INTERVAL)
+				.filter(tick -> condition.getAsBoolean())
+				.next()
+				.timeout(timeout, Mono.empty())
+				.then();
+	}
+
+	private static final class PendingBarrier {
+
+		private final Sinks.Empty<Void> done = Sinks.empty();
+		private final AtomicInteger acks = new AtomicInteger();
+		private volatile int expected = Integer.MAX_VALUE;
+
+		private void expect(int receivers) {
+			expected = receivers;
+			completeIfReady();
+		}
+
+		private void acknowledge() {
+			acks.incrementAndGet();
+			completeIfReady();
+		}
+
+		private void completeIfReady() {
+			if (acks.get() >= expected) {
+				done.tryEmitEmpty();
+			}
+		}
+	}
+}
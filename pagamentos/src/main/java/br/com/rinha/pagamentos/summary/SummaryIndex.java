@@ -0,0 +1,195 @@
+package br.com.rinha.pagamentos.summary;
+
+import java.util.Arrays;
+
+public class SummaryIndex {
+
+	public static final int DEFAULT = 0;
+	public static final int FALLBACK = 1;
+	public static final int DEFAULT_COUNT = 0;
+	public static final int DEFAULT_AMOUNT = 1;
+	public static final int FALLBACK_COUNT = 2;
+	public static final int FALLBACK_AMOUNT = 3;
+
+	private final int size;
+	private final int mask;
+	private final long[][] counts;
+	private final long[][] amounts;
+
+	private long head;
+	private long coveredFrom;
+	private long sealedUntil = Long.MIN_VALUE;
+	private long dirtyFrom = Long.MAX_VALUE;
+	private long dirtyMarks;
+
+	public SummaryIndex(int windowBits, long coveredFrom) {
+		this.size = 1 << windowBits;
+		this.mask = size - 1;
+		this.counts = new long[2][size + 1];
+		this.amounts = new long[2][size + 1];
+		this.coveredFrom = coveredFrom;
+		this.head = coveredFrom - 1;
+	}
+
+	public synchronized void add(int processor, long timestamp, long amountCents, long count) {
+		if (timestamp <= sealedUntil) {
+			markDirty(timestamp);
+			return;
+		}
+		apply(processor, timestamp, amountCents, count);
+	}
+
+	public synchronized long seal(long until) {
+		sealedUntil = Math.max(sealedUntil, until);
+		return dirtyFrom;
+	}
+
+	public synchronized void markDirty(long timestamp) {
+		dirtyFrom = Math.min(dirtyFrom, timestamp);
+		dirtyMarks++;
+	}
+
+	public synchronized long getDirtyMarks() {
+		return dirtyMarks;
+	}
+
+	public synchronized void clean(long marks) {
+		if (marks == dirtyMarks) {
+			dirtyFrom = Long.MAX_VALUE;
+		}
+	}
+
+	private void apply(int processor, long timestamp, long amountCents, long count) {
+		if (timestamp > head) {
+			advanceTo(timestamp);
+		}
+		if (timestamp <= head - size) {
+			return;
+		}
+		int slot = slot(timestamp);
+		update(counts[processor], slot, count);
+		update(amounts[processor], slot, amountCents);
+	}
+
+	public synchronized boolean summarize(long from, long to, long[] out) {
+		if (from <= sealedUntil && to >= dirtyFrom) {
+			return false;
+		}
+		return totals(from, to, out);
+	}
+
+	public synchronized boolean totals(long from, long to, long[] out) {
+		if (from < coveredFrom || from <= head - size) {
+			return false;
+		}
+
+		long end = Math.min(to, head);
+		for (int processor = DEFAULT; processor <= FALLBACK; processor++) {
+			out[processor * 2] = end < from ? 0 : rangeSum(counts[processor], from, end);
+			out[processor * 2 + 1] = end < from ? 0 : rangeSum(amounts[processor], from, end);
+		}
+		return true;
+	}
+
+	public synchronized void clear(long from, long to) {
+		long start = Math.max(from, head - size + 1);
+		long end = Math.min(to, head);
+		for (long timestamp = start; timestamp <= end; timestamp++) {
+			clearSlot(slot(timestamp));
+		}
+	}
+
+	public synchronized void replace(long from, long to, TimeSeriesSamples samples) {
+		clear(from, to);
+		for (int i = 0; i < samples.size(); i++) {
+			long timestamp = samples.timestamp(i);
+			if (timestamp >= from && timestamp <= to) {
+				apply(samples.processor(i), timestamp, samples.amount(i), samples.count(i));
+			}
+		}
+	}
+
+	public synchronized void reset(long coveredFrom) {
+		for (int processor = DEFAULT; processor <= FALLBACK; processor++) {
+			Arrays.fill(counts[processor], 0);
+			Arrays.fill(amounts[processor], 0);
+		}
+		this.coveredFrom = coveredFrom;
+		this.head = coveredFrom - 1;
+		this.dirtyFrom = Long.MAX_VALUE;
+	}
+
+	public synchronized long getCoveredFrom() {
+		return coveredFrom;
+	}
+
+	public synchronized void setCoveredFrom(long coveredFrom) {
+		this.coveredFrom = coveredFrom;
+	}
+
+	public synchronized long getHead() {
+		return head;
+	}
+
+	public long getMemoryBytes() {
+		return 4L * (size + 1) * Long.BYTES;
+	}
+
+	private void advanceTo(long timestamp) {
+		if (timestamp - head >= size) {
+			for (int processor = DEFAULT; processor <= FALLBACK; processor++) {
+				Arrays.fill(counts[processor], 0);
+				Arrays.fill(amounts[processor], 0);
+			}
+		} else {
+			for (long expired = head + 1; expired <= timestamp; expired++) {
+				clearSlot(slot(expired));
+			}
+		}
+		head = timestamp;
+	}
+
+	private void clearSlot(int slot) {
+		for (int processor = DEFAULT; processor <= FALLBACK; processor++) {
+			long count = pointValue(counts[processor], slot);
+			if (count != 0) {
+				update(counts[processor], slot, -count);
+			}
+			long amount = pointValue(amounts[processor], slot);
+			if (amount != 0) {
+				update(amounts[processor], slot, -amount);
+			}
+		}
+	}
+
+	private long rangeSum(long[] tree, long from, long to) {
+		int fromSlot = slot(from);
+		int toSlot = slot(to);
+		if (fromSlot <= toSlot) {
+			return prefix(tree, toSlot) - prefix(tree, fromSlot - 1);
+		}
+		return prefix(tree, mask) - prefix(tree, fromSlot - 1) + prefix(tree, toSlot);
+	}
+
+	private int slot(long timestamp) {
+		return (int) (timestamp & mask);
+	}
+
+	private static long pointValue(long[] tree, int slot) {
+		return prefix(tree, slot) - prefix(tree, slot - 1);
+	}
+
+	private static void update(long[] tree, int slot, long delta) {
+		for (int i = slot + 1; i < tree.length; i += i & -i) {
+			tree[i] += delta;
+		}
+	}
+
+	private static long prefix(long[] tree, int slot) {
+		long sum = 0;
+		for (int i = slot + 1; i > 0; i -= i & -i) {
+			sum += tree[i];
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,192 @@
+package br.com.rinha.pagamentos.summary;
+
+import br.com.rinha.pagamentos.persistence.PersistedBatchListener;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class SummaryIndexService implements PersistedBatchListener, MessageListener, ApplicationListener<ApplicationReadyEvent>, SmartLifecycle {
+
+	private static final String SUMMARY_DELTAS_CHANNEL = "summary:deltas";
+	private static final ChannelTopic SUMMARY_DELTAS_TOPIC = new ChannelTopic(SUMMARY_DELTAS_CHANNEL);
+	private static final ByteBuffer SUMMARY_DELTAS_CHANNEL_BYTES = ByteBuffer.wrap(SUMMARY_DELTAS_CHANNEL.getBytes(StandardCharsets.UTF_8));
+	private static final byte DELTA_VERSION = 2;
+	private static final int DELTA_HEADER_BYTES = 1 + Long.BYTES + Long.BYTES + 1 + Integer.BYTES;
+	private static final int MAX_SEQUENCE_GAP = 1024;
+	private static final int DELTA_SAMPLE_BYTES = 3 * Long.BYTES;
+
+	private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+	private final SummaryIndex index;
+	private final SummaryResponseCache responseCache;
+	private final boolean enabled;
+	private final long instanceId = ThreadLocalRandom.current().nextLong();
+	private final AtomicLong publishedSequence = new AtomicLong();
+	private final Map<Long, AppliedSequence> appliedSequences = new ConcurrentHashMap<>();
+
+	private volatile boolean running;
+	private volatile boolean started;
+
+	public SummaryIndexService(
+			@Qualifier("reactivePersistedRedisTemplate") ReactiveStringRedisTemplate reactiveRedisTemplate,
+			SummaryResponseCache responseCache,
+			@Value("${summary.index.enabled}") boolean enabled,
+			@Value("${summary.index.window-bits}") int windowBits) {
+		this.reactiveRedisTemplate = reactiveRedisTemplate;
+		this.responseCache = responseCache;
+		this.enabled = enabled;
+		this.index = new SummaryIndex(windowBits, Long.MAX_VALUE);
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		index.setCoveredFrom(System.currentTimeMillis());
+	}
+
+	@Override
+	public void start() {
+		if (started) {
+			index.reset(System.currentTimeMillis());
+		}
+		started = true;
+		running = true;
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	public boolean summarize(long from, long to, long[] out) {
+		return enabled && index.summarize(from, to, out);
+	}
+
+	public SummaryIndex getIndex() {
+		return index;
+	}
+
+	public ChannelTopic getTopic() {
+		return SUMMARY_DELTAS_TOPIC;
+	}
+
+	public long getInstanceId() {
+		return instanceId;
+	}
+
+	public long getPublishedSequence() {
+		return publishedSequence.get();
+	}
+
+	public boolean hasApplied(long publisher, long sequence) {
+		if (publisher == instanceId || sequence <= 0) {
+			return true;
+		}
+		AppliedSequence applied = appliedSequences.get(publisher);
+		return applied != null && applied.covers(sequence);
+	}
+
+	@Override
+	public void onPersisted(String processorKey, long[] timestamps, long[] amounts, long[] counts, int size) {
+		int processor = processorIndex(processorKey);
+		for (int i = 0; i < size; i++) {
+			index.add(processor, timestamps[i], amounts[i], counts[i]);
+		}
+		publish(processor, timestamps, amounts, counts, size);
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		ByteBuffer buffer = ByteBuffer.wrap(message.getBody());
+		if (buffer.remaining() < DELTA_HEADER_BYTES || buffer.get() != DELTA_VERSION) {
+			return;
+		}
+		long publisher = buffer.getLong();
+		long sequence = buffer.getLong();
+		if (publisher == instanceId) {
+			return;
+		}
+
+		int processor = buffer.get();
+		int size = buffer.getInt();
+		if (processor < SummaryIndex.DEFAULT || processor > SummaryIndex.FALLBACK || buffer.remaining() < size * DELTA_SAMPLE_BYTES) {
+			return;
+		}
+
+		for (int i = 0; i < size; i++) {
+			long timestamp = buffer.getLong();
+			index.add(processor, timestamp, buffer.getLong(), buffer.getLong());
+			responseCache.invalidate(timestamp);
+		}
+		appliedSequences.computeIfAbsent(publisher, ignored -> new AppliedSequence()).apply(sequence);
+	}
+
+	private void publish(int processor, long[] timestamps, long[] amounts, long[] counts, int size) {
+		ByteBuffer buffer = ByteBuffer.allocate(DELTA_HEADER_BYTES + size * DELTA_SAMPLE_BYTES);
+		buffer.put(DELTA_VERSION);
+		buffer.putLong(instanceId);
+		buffer.putLong(publishedSequence.incrementAndGet());
+		buffer.put((byte) processor);
+		buffer.putInt(size);
+		for (int i = 0; i < size; i++) {
+			buffer.putLong(timestamps[i]);
+			buffer.putLong(amounts[i]);
+			buffer.putLong(counts[i]);
+		}
+		buffer.flip();
+
+		reactiveRedisTemplate.execute(connection -> connection.pubSubCommands()
+						.publish(SUMMARY_DELTAS_CHANNEL_BYTES.duplicate(), buffer))
+				.subscribe();
+	}
+
+	private static int processorIndex(String processorKey) {
+		return "fallback".equals(processorKey) ? SummaryIndex.FALLBACK : SummaryIndex.DEFAULT;
+	}
+
+	private static final class AppliedSequence {
+
+		private final TreeSet<Long> ahead = new TreeSet<>();
+		private long contiguous = -1;
+
+		private synchronized void apply(long sequence) {
+			if (contiguous < 0) {
+				contiguous = sequence;
+				return;
+			}
+			if (sequence <= contiguous) {
+				return;
+			}
+			ahead.add(sequence);
+			if (ahead.size() > MAX_SEQUENCE_GAP) {
+				contiguous = ahead.first() - 1;
+			}
+			while (!ahead.isEmpty() && ahead.first() == contiguous + 1) {
+				contiguous = ahead.pollFirst();
+			}
+		}
+
+		private synchronized boolean covers(long sequence) {
+			return contiguous >= sequence;
+		}
+	}
+}
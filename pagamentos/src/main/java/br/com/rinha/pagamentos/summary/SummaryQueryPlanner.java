@@ -0,0 +1,79 @@
+package br.com.rinha.pagamentos.summary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public final class SummaryQueryPlanner {
+
+	private static final CompactionTier[] COARSEST_FIRST = {
+			CompactionTier.HOUR, CompactionTier.MINUTE, CompactionTier.SECOND
+	};
+
+	public record Segment(CompactionTier tier, long from, long to) {
+	}
+
+	private SummaryQueryPlanner() {
+	}
+
+	public static List<Segment> plan(long from, long to, long now, Map<CompactionTier, Long> retentions) {
+		long widenedFrom = floorTo(from, finestRetained(from, now, retentions).bucketMillis());
+		if (to == Long.MAX_VALUE) {
+			return plan(widenedFrom, to);
+		}
+		long bucket = finestRetained(to, now, retentions).bucketMillis();
+		return plan(widenedFrom, Math.max(to, floorTo(to, bucket) + bucket - 1));
+	}
+
+	static CompactionTier finestRetained(long timestamp, long now, Map<CompactionTier, Long> retentions) {
+		for (CompactionTier tier : CompactionTier.values()) {
+			long retention = retentions.getOrDefault(tier, 0L);
+			if (retention == 0 || timestamp >= now - retention) {
+				return tier;
+			}
+		}
+		return CompactionTier.HOUR;
+	}
+
+	public static List<Segment> plan(long from, long to) {
+		List<Segment> segments = new ArrayList<>();
+		if (from <= to) {
+			plan(from, to, 0, segments);
+		}
+		return segments;
+	}
+
+	private static void plan(long from, long to, int tierIndex, List<Segment> segments) {
+		if (tierIndex == COARSEST_FIRST.length) {
+			segments.add(new Segment(CompactionTier.RAW, from, to));
+			return;
+		}
+
+		CompactionTier tier = COARSEST_FIRST[tierIndex];
+		long bucket = tier.bucketMillis();
+		long alignedFrom = ceilTo(from, bucket);
+		long alignedEnd = to == Long.MAX_VALUE ? floorTo(to, bucket) : floorTo(to + 1, bucket);
+
+		if (alignedFrom < 0 || alignedEnd - alignedFrom < bucket) {
+			plan(from, to, tierIndex + 1, segments);
+			return;
+		}
+
+		if (from < alignedFrom) {
+			plan(from, alignedFrom - 1, tierIndex + 1, segments);
+		}
+		segments.add(new Segment(tier, alignedFrom, alignedEnd - 1));
+		if (alignedEnd <= to) {
+			plan(alignedEnd, to, tierIndex + 1, segments);
+		}
+	}
+
+	private static long ceilTo(long value, long bucket) {
+		long remainder = Math.floorMod(value, bucket);
+		return remainder == 0 ? value : value + (bucket - remainder);
+	}
+
+	private static long floorTo(long value, long bucket) {
+		return value - Math.floorMod(value, bucket);
+	}
+}
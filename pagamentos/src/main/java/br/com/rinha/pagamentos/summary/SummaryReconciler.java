@@ -0,0 +1,78 @@
+package br.com.rinha.pagamentos.summary;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class SummaryReconciler {
+
+	private final SummaryIndexService summaryIndexService;
+	private final TimeSeriesSummaryRepository summaryRepository;
+	private final SummaryResponseCache responseCache;
+	private final long settleMs;
+	private final AtomicBoolean running = new AtomicBoolean(false);
+
+	private volatile long reconciledUntil = Long.MIN_VALUE;
+
+	public SummaryReconciler(
+			SummaryIndexService summaryIndexService,
+			TimeSeriesSummaryRepository summaryRepository,
+			SummaryResponseCache responseCache,
+			@Value("${summary.index.reconcile-settle-ms}") long settleMs,
+			@Value("${processor.client.response-timeout.max-ms}") long maxResponseTimeoutMs,
+			@Value("${persistence.write-behind.flush-interval-ms}") long flushIntervalMs) {
+		this.summaryIndexService = summaryIndexService;
+		this.summaryRepository = summaryRepository;
+		this.responseCache = responseCache;
+		this.settleMs = Math.max(settleMs, maxResponseTimeoutMs + flushIntervalMs + 1);
+	}
+
+	@Scheduled(fixedDelayString = "${summary.index.reconcile-interval-ms}")
+	public void scheduleReconcile() {
+		if (!running.compareAndSet(false, true)) {
+			return;
+		}
+		reconcile().doFinally(signal -> running.set(false)).subscribe();
+	}
+
+	public Mono<Void> reconcile() {
+		SummaryIndex index = summaryIndexService.getIndex();
+		long coveredFrom = index.getCoveredFrom();
+		long to = System.currentTimeMillis() - settleMs;
+		if (coveredFrom == Long.MAX_VALUE) {
+			return Mono.empty();
+		}
+		long marks = index.getDirtyMarks();
+		long from = Math.max(coveredFrom, Math.min(reconciledUntil + 1, index.seal(to)));
+		if (to < from) {
+			return Mono.empty();
+		}
+
+		return summaryRepository.getTotals(from, to)
+				.flatMap(remote -> {
+					long[] local = new long[4];
+					if (!index.totals(from, to, local) || Arrays.equals(local, remote)) {
+						return Mono.empty();
+					}
+					return summaryRepository.getSamples(from, to)
+							.doOnNext(samples -> {
+								index.replace(from, to, samples);
+								responseCache.invalidate(from, to);
+							})
+							.then();
+				})
+				.doOnSuccess(ignored -> {
+					reconciledUntil = Math.max(reconciledUntil, to);
+					index.clean(marks);
+				})
+				.onErrorResume(e -> {
+					index.markDirty(from);
+					return Mono.empty();
+				});
+	}
+}
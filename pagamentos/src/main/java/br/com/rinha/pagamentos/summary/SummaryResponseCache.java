@@ -0,0 +1,117 @@
+package br.com.rinha.pagamentos.summary;
+
+import br.com.rinha.pagamentos.persistence.PersistedBatchListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class SummaryResponseCache implements PersistedBatchListener, SmartLifecycle {
+
+	private final int capacity;
+	private final long minAgeMs;
+	private final LinkedHashMap<Window, byte[]> entries;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+
+	private long lateWrites = 0;
+	private volatile boolean running;
+
+	public SummaryResponseCache(
+			@Value("${summary.cache.capacity}") int capacity,
+			@Value("${summary.cache.min-age-ms}") long minAgeMs) {
+		this.capacity = capacity;
+		this.minAgeMs = minAgeMs;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Window, byte[]> eldest) {
+				return size() > SummaryResponseCache.this.capacity;
+			}
+		};
+	}
+
+	public boolean isCacheable(long to) {
+		return capacity > 0 && to < System.currentTimeMillis() - minAgeMs;
+	}
+
+	public synchronized byte[] get(long from, long to) {
+		byte[] body = entries.get(new Window(from, to));
+		(body != null ? hits : misses).increment();
+		return body;
+	}
+
+	public synchronized long epoch() {
+		return lateWrites;
+	}
+
+	public synchronized void put(long from, long to, byte[] body, long epoch) {
+		if (epoch == lateWrites) {
+			entries.put(new Window(from, to), body);
+		}
+	}
+
+	public void invalidate(long timestamp) {
+		invalidate(timestamp, timestamp);
+	}
+
+	public void invalidate(long from, long to) {
+		if (from >= System.currentTimeMillis() - minAgeMs) {
+			return;
+		}
+		synchronized (this) {
+			lateWrites++;
+			Iterator<Window> windows = entries.keySet().iterator();
+			while (windows.hasNext()) {
+				Window window = windows.next();
+				if (window.from() <= to && from <= window.to()) {
+					windows.remove();
+					invalidations.increment();
+				}
+			}
+		}
+	}
+
+	@Override
+	public void onPersisted(String processorKey, long[] timestamps, long[] amounts, long[] counts, int size) {
+		long threshold = System.currentTimeMillis() - minAgeMs;
+		for (int i = 0; i < size; i++) {
+			if (timestamps[i] < threshold) {
+				invalidate(timestamps[i]);
+			}
+		}
+	}
+
+	@Override
+	public synchronized void start() {
+		lateWrites++;
+		entries.clear();
+		running = true;
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	public synchronized CacheStats getStats() {
+		return new CacheStats(hits.sum(), misses.sum(), invalidations.sum(), entries.size());
+	}
+
+	private record Window(long from, long to) {
+	}
+
+	public record CacheStats(long hits, long misses, long invalidations, int entries) {
+	}
+}
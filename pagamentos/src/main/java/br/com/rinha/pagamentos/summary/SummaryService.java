@@ -0,0 +1,92 @@
+package br.com.rinha.pagamentos.summary;
+
+import br.com.rinha.pagamentos.codec.PaymentJson;
+import br.com.rinha.pagamentos.model.PaymentsSummaryResponse;
+import br.com.rinha.pagamentos.service.PaymentService;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class SummaryService {
+
+	private final PaymentService paymentService;
+	private final SummaryBarrier summaryBarrier;
+	private final SummaryResponseCache responseCache;
+	private final Map<Window, Flight> flights = new ConcurrentHashMap<>();
+
+	private final LongAdder coalesced = new LongAdder();
+
+	public SummaryService(PaymentService paymentService, SummaryBarrier summaryBarrier, SummaryResponseCache responseCache) {
+		this.paymentService = paymentService;
+		this.summaryBarrier = summaryBarrier;
+		this.responseCache = responseCache;
+	}
+
+	public Mono<byte[]> getSummaryJson(String from, String to) {
+		long fromMillis = from != null ? Instant.parse(from).toEpochMilli() : Long.MIN_VALUE;
+		Long toMillis = to != null ? Instant.parse(to).toEpochMilli() : null;
+
+		if (toMillis != null && responseCache.isCacheable(toMillis)) {
+			byte[] cached = responseCache.get(fromMillis, toMillis);
+			if (cached != null) {
+				return Mono.just(cached);
+			}
+		}
+
+		Window window = new Window(fromMillis, toMillis);
+		return Mono.defer(() -> {
+			Flight flight = flights.compute(window, (key, current) -> {
+				if (current != null && toMillis != null && toMillis <= current.startedAt) {
+					coalesced.increment();
+					return current;
+				}
+				return new Flight(key, from, to);
+			});
+			return flight.result;
+		});
+	}
+
+	public long getCoalesced() {
+		return coalesced.sum();
+	}
+
+	private static byte[] encode(PaymentsSummaryResponse response) {
+		DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.allocateBuffer(PaymentJson.SUMMARY_MAX_BYTES);
+		PaymentJson.writePaymentsSummary(response, buffer);
+		byte[] body = new byte[buffer.readableByteCount()];
+		buffer.read(body);
+		return body;
+	}
+
+	private record Window(long from, Long to) {
+	}
+
+	private final class Flight {
+
+		private final long startedAt = System.currentTimeMillis();
+		private final Mono<byte[]> result;
+
+		private Flight(Window window, String from, String to) {
+			boolean cacheable = window.to() != null && responseCache.isCacheable(window.to());
+			long epoch = responseCache.epoch();
+
+			this.result = summaryBarrier.await(window.to())
+					.then(Mono.defer(() -> paymentService.getPaymentsSummary(from, to)))
+					.map(SummaryService::encode)
+					.doOnNext(body -> {
+						if (cacheable) {
+							responseCache.put(window.from(), window.to(), body, epoch);
+						}
+					})
+					.doFinally(signal -> flights.remove(window, this))
+					.cache();
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package br.com.rinha.pagamentos.summary;
+
+import java.util.Arrays;
+
+public class TimeSeriesSamples {
+
+	private int size;
+	private int[] processors = new int[64];
+	private long[] timestamps = new long[64];
+	private long[] amounts = new long[64];
+	private long[] counts = new long[64];
+
+	public void add(int processor, long timestamp, long amountCents, long count) {
+		if (size == timestamps.length) {
+			int capacity = size * 2;
+			processors = Arrays.copyOf(processors, capacity);
+			timestamps = Arrays.copyOf(timestamps, capacity);
+			amounts = Arrays.copyOf(amounts, capacity);
+			counts = Arrays.copyOf(counts, capacity);
+		}
+		processors[size] = processor;
+		timestamps[size] = timestamp;
+		amounts[size] = amountCents;
+		counts[size] = count;
+		size++;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int processor(int i) {
+		return processors[i];
+	}
+
+	public long timestamp(int i) {
+		return timestamps[i];
+	}
+
+	public long amount(int i) {
+		return amounts[i];
+	}
+
+	public long count(int i) {
+		return counts[i];
+	}
+}
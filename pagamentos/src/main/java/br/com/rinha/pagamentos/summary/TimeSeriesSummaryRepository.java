@@ -0,0 +1,69 @@
+package br.com.rinha.pagamentos.summary;
+
+import br.com.rinha.pagamentos.model.PaymentsSummaryResponse;
+import br.com.rinha.pagamentos.model.Summary;
+import br.com.rinha.pagamentos.timeseries.TimeSeriesCommands;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class TimeSeriesSummaryRepository {
+
+	private static final long WHOLE_RANGE_BUCKET = 9_999_999_999_999L;
+	private static final long MILLISECOND_BUCKET = 1;
+	private static final String PROCESSOR_FILTER = "processor=(default,fallback)";
+
+	private final TimeSeriesCommands timeSeriesCommands;
+	private final Map<CompactionTier, Long> retentions = new EnumMap<>(CompactionTier.class);
+
+	public TimeSeriesSummaryRepository(
+			TimeSeriesCommands timeSeriesCommands,
+			@Value("${summary.timeseries.retention.raw-ms}") long rawRetentionMs,
+			@Value("${summary.timeseries.retention.second-ms}") long secondRetentionMs,
+			@Value("${summary.timeseries.retention.minute-ms}") long minuteRetentionMs,
+			@Value("${summary.timeseries.retention.hour-ms}") long hourRetentionMs) {
+		this.timeSeriesCommands = timeSeriesCommands;
+		this.retentions.put(CompactionTier.RAW, rawRetentionMs);
+		this.retentions.put(CompactionTier.SECOND, secondRetentionMs);
+		this.retentions.put(CompactionTier.MINUTE, minuteRetentionMs);
+		this.retentions.put(CompactionTier.HOUR, hourRetentionMs);
+	}
+
+	public Mono<PaymentsSummaryResponse> getPaymentsSummary(String from, String to) {
+		long fromMillis = (from != null) ? Instant.parse(from).toEpochMilli() : 0;
+		long toMillis = (to != null) ? Instant.parse(to).toEpochMilli() : Long.MAX_VALUE;
+		return getTotals(fromMillis, toMillis).map(TimeSeriesSummaryRepository::toResponse);
+	}
+
+	public Mono<long[]> getTotals(long from, long to) {
+		return Flux.fromIterable(SummaryQueryPlanner.plan(from, to, System.currentTimeMillis(), retentions))
+				.flatMap(segment -> timeSeriesCommands.mrange(segment.from(), segment.to(), !segment.tier().isRaw(),
+						WHOLE_RANGE_BUCKET, new MRangeTotalsOutput(new long[4], null),
+						PROCESSOR_FILTER, "tier=" + segment.tier().label()))
+				.reduce(new long[4], (totals, segmentTotals) -> {
+					for (int i = 0; i < totals.length; i++) {
+						totals[i] += segmentTotals[i];
+					}
+					return totals;
+				});
+	}
+
+	public Mono<TimeSeriesSamples> getSamples(long from, long to) {
+		TimeSeriesSamples samples = new TimeSeriesSamples();
+		return timeSeriesCommands.mrange(from, to, false, MILLISECOND_BUCKET, new MRangeTotalsOutput(new long[4], samples),
+						PROCESSOR_FILTER, "tier=" + CompactionTier.RAW.label())
+				.thenReturn(samples);
+	}
+
+	public static PaymentsSummaryResponse toResponse(long[] totals) {
+		Summary defaultSummary = new Summary(totals[SummaryIndex.DEFAULT_COUNT], totals[SummaryIndex.DEFAULT_AMOUNT]);
+		Summary fallbackSummary = new Summary(totals[SummaryIndex.FALLBACK_COUNT], totals[SummaryIndex.FALLBACK_AMOUNT]);
+		return new PaymentsSummaryResponse(defaultSummary, fallbackSummary);
+	}
+}
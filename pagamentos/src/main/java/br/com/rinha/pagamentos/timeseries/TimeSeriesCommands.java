@@ -0,0 +1,192 @@
+package br.com.rinha.pagamentos.timeseries;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.output.CommandOutput;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+import io.lettuce.core.protocol.ProtocolKeyword;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+public class TimeSeriesCommands implements SmartLifecycle {
+
+	private static final long BATCH_MARKER_TTL_MS = 60_000;
+
+	private static final byte[] MADD_ONCE_SCRIPT = (
+			"if not redis.call('SET', KEYS[1], '1', 'NX', 'PX', ARGV[1]) then return -1 end " +
+					"local args = {} " +
+					"for i = 2, #ARGV, 3 do " +
+					"  args[#args + 1] = KEYS[2]; args[#args + 1] = ARGV[i]; args[#args + 1] = ARGV[i + 1] " +
+					"  args[#args + 1] = KEYS[3]; args[#args + 1] = ARGV[i]; args[#args + 1] = ARGV[i + 2] " +
+					"end " +
+					"local replies = redis.pcall('TS.MADD', unpack(args)) " +
+					"if replies.err then redis.call('DEL', KEYS[1]); return replies end " +
+					"local written = 0 " +
+					"for _, reply in ipairs(replies) do " +
+					"  if type(reply) == 'number' then written = written + 1 end " +
+					"end " +
+					"return written"
+	).getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] MADD_ONCE_SHA = sha1(MADD_ONCE_SCRIPT);
+
+	private final LettuceConnectionFactory connectionFactory;
+
+	private volatile CompletableFuture<StatefulRedisConnection<byte[], byte[]>> connection;
+	private volatile boolean running;
+
+	public TimeSeriesCommands(LettuceConnectionFactory connectionFactory) {
+		this.connectionFactory = connectionFactory;
+	}
+
+	public Mono<Long> madd(byte[] batchKey, byte[] amountKey, byte[] countKey, long[] timestamps, long[] amounts, long[] counts,
+			int size) {
+		return connection()
+				.flatMap(current -> maddOnce(current, CommandType.EVALSHA, MADD_ONCE_SHA, batchKey, amountKey, countKey,
+						timestamps, amounts, counts, size)
+						.onErrorResume(RedisNoScriptException.class, e -> maddOnce(current, CommandType.EVAL, MADD_ONCE_SCRIPT,
+								batchKey, amountKey, countKey, timestamps, amounts, counts, size)))
+				.map(written -> written < 0 ? 2L * size : written);
+	}
+
+	private static Mono<Long> maddOnce(StatefulRedisConnection<byte[], byte[]> current, CommandType type, byte[] script,
+			byte[] batchKey, byte[] amountKey, byte[] countKey, long[] timestamps, long[] amounts, long[] counts, int size) {
+		CommandArgs<byte[], byte[]> args = new CommandArgs<>(ByteArrayCodec.INSTANCE)
+				.add(script).add(3)
+				.addKey(batchKey).addKey(amountKey).addKey(countKey)
+				.add(BATCH_MARKER_TTL_MS);
+		for (int i = 0; i < size; i++) {
+			args.add(timestamps[i]).add(amounts[i]).add(counts[i]);
+		}
+		return Mono.fromCompletionStage(current.async().dispatch(type, new IntegerOutput<>(ByteArrayCodec.INSTANCE), args));
+	}
+
+	public <T> Mono<T> mrange(long from, long to, boolean latest, long bucketMillis, CommandOutput<byte[], byte[], T> output,
+			String... filters) {
+		return Mono.defer(() -> {
+			CommandArgs<byte[], byte[]> args = new CommandArgs<>(ByteArrayCodec.INSTANCE).add(from).add(to);
+			if (latest) {
+				args.add("LATEST");
+			}
+			args.add("SELECTED_LABELS").add("type").add("processor")
+					.add("AGGREGATION").add("sum").add(bucketMillis)
+					.add("FILTER");
+			for (String filter : filters) {
+				args.add(filter);
+			}
+			return connection().flatMap(current -> Mono.fromCompletionStage(
+					current.async().dispatch(Command.MRANGE, output, args)));
+		});
+	}
+
+	private Mono<StatefulRedisConnection<byte[], byte[]>> connection() {
+		return Mono.fromFuture(() -> {
+			CompletableFuture<StatefulRedisConnection<byte[], byte[]>> current = connection;
+			return current != null ? current : connect();
+		}, true);
+	}
+
+	private synchronized CompletableFuture<StatefulRedisConnection<byte[], byte[]>> connect() {
+		if (connection == null) {
+			RedisClient client = (RedisClient) connectionFactory.getNativeClient();
+			CompletableFuture<StatefulRedisConnection<byte[], byte[]>> pending =
+					client.connectAsync(ByteArrayCodec.INSTANCE, redisUri()).toCompletableFuture();
+			connection = pending;
+			pending.whenComplete((connected, error) -> {
+				if (error != null) {
+					forget(pending);
+				}
+			});
+		}
+		return connection;
+	}
+
+	private synchronized void forget(CompletableFuture<StatefulRedisConnection<byte[], byte[]>> failed) {
+		if (connection == failed) {
+			connection = null;
+		}
+	}
+
+	private RedisURI redisUri() {
+		RedisURI.Builder builder = RedisURI.builder()
+				.withHost(connectionFactory.getHostName())
+				.withPort(connectionFactory.getPort())
+				.withDatabase(connectionFactory.getDatabase())
+				.withSsl(connectionFactory.getClientConfiguration().isUseSsl())
+				.withTimeout(Duration.ofMillis(connectionFactory.getTimeout()));
+		String username = connectionFactory.getStandaloneConfiguration().getUsername();
+		String password = connectionFactory.getPassword();
+		if (password != null) {
+			if (username != null) {
+				builder.withAuthentication(username, password);
+			} else {
+				builder.withPassword(password.toCharArray());
+			}
+		}
+		return builder.build();
+	}
+
+	@Override
+	public void start() {
+		running = true;
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		close();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	@PreDestroy
+	public synchronized void close() {
+		if (connection != null) {
+			connection.thenAccept(StatefulRedisConnection::closeAsync);
+			connection = null;
+		}
+	}
+
+	private enum Command implements ProtocolKeyword {
+
+		MRANGE("TS.MRANGE");
+
+		private final byte[] bytes;
+
+		Command(String name) {
+			this.bytes = name.getBytes(StandardCharsets.US_ASCII);
+		}
+
+		@Override
+		public byte[] getBytes() {
+			return bytes;
+		}
+	}
+
+	private static byte[] sha1(byte[] script) {
+		try {
+			String hex = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(script));
+			return hex.getBytes(StandardCharsets.US_ASCII);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
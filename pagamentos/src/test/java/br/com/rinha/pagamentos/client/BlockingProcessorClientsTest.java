@@ -0,0 +1,98 @@
+package br.com.rinha.pagamentos.client;
+
+import br.com.rinha.pagamentos.model.PaymentSent;
+import br.com.rinha.pagamentos.model.QueuedPayment;
+import br.com.rinha.pagamentos.routing.Processor;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockingProcessorClientsTest {
+
+	private HttpServer server;
+	private BlockingProcessorClients clients;
+	private final AtomicReference<String> lastBody = new AtomicReference<>();
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.createContext("/ok", exchange -> {
+			lastBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+			exchange.sendResponseHeaders(200, -1);
+			exchange.close();
+		});
+		server.createContext("/error", exchange -> {
+			exchange.sendResponseHeaders(500, -1);
+			exchange.close();
+		});
+		server.createContext("/slow", exchange -> {
+			try {
+				Thread.sleep(1_000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			exchange.sendResponseHeaders(200, -1);
+			exchange.close();
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() {
+		if (clients != null) {
+			clients.stop();
+		}
+		server.stop(0);
+	}
+
+	@Test
+	void postsThePaymentAndClassifiesTheStatus() {
+		clients = clients("/ok", "/error");
+		UUID correlationId = UUID.randomUUID();
+
+		assertEquals(DispatchOutcome.SUCCESS, clients.send(Processor.DEFAULT, payment(correlationId), Duration.ofSeconds(2)));
+		assertEquals(DispatchOutcome.SERVER_ERROR, clients.send(Processor.FALLBACK, payment(correlationId), Duration.ofSeconds(2)));
+		assertTrue(lastBody.get().startsWith("{\"correlationId\":\"" + correlationId + "\",\"amount\":19.90"));
+	}
+
+	@Test
+	void reportsAResponseTimeoutWhenTheProcessorIsSlow() {
+		clients = clients("/slow", "/ok");
+
+		assertEquals(DispatchOutcome.RESPONSE_TIMEOUT, clients.send(Processor.DEFAULT, payment(UUID.randomUUID()), Duration.ofMillis(100)));
+	}
+
+	@Test
+	void reportsAConnectionErrorOnceStopped() {
+		clients = clients("/ok", "/ok");
+		clients.stop();
+
+		assertEquals(DispatchOutcome.CONNECTION_ERROR, clients.send(Processor.DEFAULT, payment(UUID.randomUUID()), Duration.ofSeconds(2)));
+	}
+
+	private BlockingProcessorClients clients(String defaultPath, String fallbackPath) {
+		String base = "http://127.0.0.1:" + server.getAddress().getPort();
+		return new BlockingProcessorClients(Executors.newVirtualThreadPerTaskExecutor(), base + defaultPath, base + fallbackPath, 500);
+	}
+
+	private static PaymentSent payment(UUID correlationId) {
+		QueuedPayment payment = new QueuedPayment();
+		payment.setCorrelationId(correlationId);
+		payment.setAmountCents(1990);
+		return new PaymentSent(payment, Instant.parse("2025-07-15T12:00:00Z"));
+	}
+}
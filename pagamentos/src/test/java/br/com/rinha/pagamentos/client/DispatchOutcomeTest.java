@@ -0,0 +1,74 @@
+package br.com.rinha.pagamentos.client;
+
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatusCode;
+import reactor.netty.internal.shaded.reactor.pool.PoolAcquireTimeoutException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DispatchOutcomeTest {
+
+	@Test
+	void classifiesResponsesByStatus() {
+		assertEquals(DispatchOutcome.SUCCESS, DispatchOutcome.of(HttpStatusCode.valueOf(200)));
+		assertEquals(DispatchOutcome.DUPLICATE, DispatchOutcome.of(HttpStatusCode.valueOf(422)));
+		assertEquals(DispatchOutcome.CLIENT_ERROR, DispatchOutcome.of(HttpStatusCode.valueOf(400)));
+		assertEquals(DispatchOutcome.SERVER_ERROR, DispatchOutcome.of(HttpStatusCode.valueOf(500)));
+		assertFalse(DispatchOutcome.CLIENT_ERROR.isOverload());
+		assertTrue(DispatchOutcome.SERVER_ERROR.isOverload());
+	}
+
+	@Test
+	void separatesTimeoutsFromOtherErrors() {
+		DispatchOutcome response = DispatchOutcome.of(new RuntimeException(ReadTimeoutException.INSTANCE));
+		DispatchOutcome connect = DispatchOutcome.of(new IOException(new ConnectTimeoutException("connect")));
+
+		assertEquals(DispatchOutcome.RESPONSE_TIMEOUT, response);
+		assertEquals(DispatchOutcome.CONNECT_TIMEOUT, connect);
+		assertTrue(response.isTimeout() && response.mayHaveBeenProcessed());
+		assertTrue(connect.isTimeout() && !connect.mayHaveBeenProcessed());
+		assertEquals(DispatchOutcome.CONNECTION_ERROR, DispatchOutcome.of(new ConnectException("refused")));
+	}
+
+	@Test
+	void classifiesJdkHttpClientTimeouts() {
+		assertEquals(DispatchOutcome.RESPONSE_TIMEOUT, DispatchOutcome.of(new HttpTimeoutException("request timed out")));
+		assertEquals(DispatchOutcome.CONNECT_TIMEOUT, DispatchOutcome.of(new HttpConnectTimeoutException("connect timed out")));
+	}
+
+	@Test
+	void treatsAPoolAcquireTimeoutAsNeverSent() {
+		DispatchOutcome outcome = DispatchOutcome.of(new PoolAcquireTimeoutException(Duration.ofMillis(45)));
+
+		assertEquals(DispatchOutcome.CONNECTION_ERROR, outcome);
+		assertTrue(outcome.canFallBack());
+	}
+
+	@Test
+	void neverEscalatesOrRetriesClientErrors() {
+		for (DispatchOutcome outcome : new DispatchOutcome[]{DispatchOutcome.CLIENT_ERROR, DispatchOutcome.DUPLICATE}) {
+			assertFalse(outcome.isRetryable());
+			assertFalse(outcome.canFallBack());
+		}
+		assertTrue(DispatchOutcome.RESPONSE_TIMEOUT.isRetryable());
+		assertFalse(DispatchOutcome.RESPONSE_TIMEOUT.canFallBack());
+		assertTrue(DispatchOutcome.SERVER_ERROR.canFallBack());
+	}
+
+	@Test
+	void aDuplicateOnARetryMeansTheEarlierAttemptWentThrough() {
+		assertEquals(DispatchOutcome.DUPLICATE, DispatchOutcome.DUPLICATE.forAttempt(0));
+		assertEquals(DispatchOutcome.SUCCESS, DispatchOutcome.DUPLICATE.forAttempt(1));
+		assertEquals(DispatchOutcome.CLIENT_ERROR, DispatchOutcome.CLIENT_ERROR.forAttempt(1));
+	}
+}
@@ -0,0 +1,120 @@
+package br.com.rinha.pagamentos.codec;
+
+import br.com.rinha.pagamentos.model.PaymentSent;
+import br.com.rinha.pagamentos.model.PaymentsSummaryResponse;
+import br.com.rinha.pagamentos.model.QueuedPayment;
+import br.com.rinha.pagamentos.model.Summary;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PaymentJsonTest {
+
+	private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+	@Test
+	void readsQueuedPaymentWithWhitespaceAndUnknownFields() {
+		UUID correlationId = UUID.randomUUID();
+		QueuedPayment payment = read("{ \"extra\": {\"a\": [1, \"}\", null]}, \"amount\" : 19.90,\n\"correlationId\":\"" + correlationId + "\" }");
+
+		assertEquals(correlationId, payment.getCorrelationId());
+		assertEquals(1990, payment.getAmountCents());
+	}
+
+	@Test
+	void readsAmountsAsCents() {
+		assertEquals(1900, readAmount("19").getAmountCents());
+		assertEquals(1990, readAmount("19.9").getAmountCents());
+		assertEquals(1990, readAmount("19.9000").getAmountCents());
+		assertEquals(-5, readAmount("-0.05").getAmountCents());
+		assertEquals(15000, readAmount("1.5e2").getAmountCents());
+	}
+
+	@Test
+	void rejectsAmountsThatAreNotWholeCents() {
+		assertThrows(DecodingException.class, () -> readAmount("19.901"));
+		assertThrows(DecodingException.class, () -> readAmount("1e-3"));
+		assertThrows(DecodingException.class, () -> readAmount("92233720368547758.08"));
+		assertThrows(DecodingException.class, () -> readAmount("null"));
+	}
+
+	@Test
+	void rejectsMalformedPayloads() {
+		assertThrows(DecodingException.class, () -> read("{\"correlationId\":\"not-a-uuid\"}"));
+		assertThrows(DecodingException.class, () -> read("{\"correlationId\":\"" + UUID.randomUUID() + "\",\"amount\":19.90"));
+		assertThrows(DecodingException.class, () -> readAmount(""));
+	}
+
+	@Test
+	void rejectsPayloadsWithoutAnAmount() {
+		assertThrows(DecodingException.class, () -> read("{}"));
+		assertThrows(DecodingException.class, () -> read("{\"correlationId\":\"" + UUID.randomUUID() + "\"}"));
+		assertThrows(DecodingException.class, () -> read("{\"correlationId\":\"" + UUID.randomUUID() + "\",\"value\":19.90}"));
+	}
+
+	@Test
+	void rejectsPayloadsWithoutACorrelationId() {
+		assertThrows(DecodingException.class, () -> read("{\"amount\":19.90}"));
+		assertThrows(DecodingException.class, () -> read("{\"correlationId\":null,\"amount\":19.90}"));
+		assertThrows(DecodingException.class, () -> read("{\"amount\":19.90,\"id\":\"" + UUID.randomUUID() + "\"}"));
+	}
+
+	@Test
+	void writesPaymentSentAsProcessorPayload() {
+		UUID correlationId = UUID.fromString("4a7901b8-7d26-4d9d-aa19-4dc1c7cf60b3");
+		PaymentSent payment = new PaymentSent(new QueuedPayment(1990, correlationId), Instant.parse("2025-07-15T12:34:56.007Z"));
+
+		assertEquals(
+				"{\"correlationId\":\"4a7901b8-7d26-4d9d-aa19-4dc1c7cf60b3\",\"amount\":19.90,\"requestedAt\":\"2025-07-15T12:34:56.007Z\"}",
+				write(payment));
+	}
+
+	@Test
+	void writesInstantsThatRoundTrip() {
+		Random random = new Random(7);
+		for (int i = 0; i < 10_000; i++) {
+			long epochMillis = random.nextLong(0, 4_102_444_800_000L);
+			PaymentSent payment = new PaymentSent(new QueuedPayment(100, UUID.randomUUID()), Instant.ofEpochMilli(epochMillis));
+			String json = write(payment);
+			String requestedAt = json.substring(json.indexOf("\"requestedAt\":\"") + 15, json.length() - 2);
+			assertEquals(epochMillis, Instant.parse(requestedAt).toEpochMilli());
+		}
+	}
+
+	@Test
+	void writesPaymentsSummary() {
+		PaymentsSummaryResponse response = new PaymentsSummaryResponse(
+				new Summary(3, 5970),
+				new Summary(0, 0));
+
+		DataBuffer buffer = bufferFactory.allocateBuffer(PaymentJson.SUMMARY_MAX_BYTES);
+		PaymentJson.writePaymentsSummary(response, buffer);
+
+		assertEquals(
+				"{\"default\":{\"totalRequests\":3,\"totalAmount\":59.70},\"fallback\":{\"totalRequests\":0,\"totalAmount\":0.00}}",
+				buffer.toString(StandardCharsets.UTF_8));
+	}
+
+	private QueuedPayment readAmount(String amount) {
+		return read("{\"correlationId\":\"" + UUID.randomUUID() + "\",\"amount\":" + amount + "}");
+	}
+
+	private QueuedPayment read(String json) {
+		return PaymentJson.readQueuedPayment(bufferFactory.wrap(json.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private String write(PaymentSent payment) {
+		DataBuffer buffer = bufferFactory.allocateBuffer(PaymentJson.PAYMENT_SENT_MAX_BYTES);
+		PaymentJson.writePaymentSent(payment, buffer);
+		return buffer.toString(StandardCharsets.UTF_8);
+	}
+}
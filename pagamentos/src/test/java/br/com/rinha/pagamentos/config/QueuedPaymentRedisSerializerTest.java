@@ -0,0 +1,40 @@
+package br.com.rinha.pagamentos.config;
+
+import br.com.rinha.pagamentos.model.QueuedPayment;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueuedPaymentRedisSerializerTest {
+
+	private final QueuedPaymentRedisSerializer serializer = new QueuedPaymentRedisSerializer();
+
+	@Test
+	void roundTripsThroughTheCompactLayout() {
+		QueuedPayment payment = new QueuedPayment(1990, UUID.randomUUID());
+		payment.setAttempts(3);
+
+		byte[] bytes = serializer.serialize(payment);
+		QueuedPayment read = serializer.deserialize(bytes);
+
+		assertEquals(QueuedPaymentRedisSerializer.COMPACT_V1_BYTES, bytes.length);
+		assertEquals(payment.getCorrelationId(), read.getCorrelationId());
+		assertEquals(1990, read.getAmountCents());
+		assertEquals(3, read.getAttempts());
+	}
+
+	@Test
+	void readsEntriesWrittenByTheKryoSerializer() {
+		UUID correlationId = UUID.randomUUID();
+		byte[] legacyBytes = new KyroRedisSerializer().serialize(new LegacyQueuedPayment(correlationId, new BigDecimal("19.90")));
+
+		QueuedPayment read = serializer.deserialize(legacyBytes);
+
+		assertEquals(correlationId, read.getCorrelationId());
+		assertEquals(1990, read.getAmountCents());
+		assertEquals(0, read.getAttempts());
+	}
+}
@@ -0,0 +1,39 @@
+package br.com.rinha.pagamentos.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CorrelationIdSetTest {
+
+	@Test
+	void detectsDuplicatesUntilTheyExpire() {
+		CorrelationIdSet set = new CorrelationIdSet(4, 100);
+		UUID id = UUID.randomUUID();
+
+		assertTrue(set.addIfAbsent(id.getMostSignificantBits(), id.getLeastSignificantBits(), 1_000));
+		assertFalse(set.addIfAbsent(id.getMostSignificantBits(), id.getLeastSignificantBits(), 1_099));
+		assertTrue(set.addIfAbsent(id.getMostSignificantBits(), id.getLeastSignificantBits(), 1_100));
+	}
+
+	@Test
+	void reusesExpiredSlotsAndEvictsTheOldestWhenFull() {
+		CorrelationIdSet set = new CorrelationIdSet(3, 1_000);
+		UUID[] ids = new UUID[8];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = UUID.randomUUID();
+			assertTrue(set.addIfAbsent(ids[i].getMostSignificantBits(), ids[i].getLeastSignificantBits(), i));
+		}
+		assertEquals(8, set.getOccupied());
+
+		UUID newcomer = UUID.randomUUID();
+		assertTrue(set.addIfAbsent(newcomer.getMostSignificantBits(), newcomer.getLeastSignificantBits(), 10));
+		assertEquals(8, set.getOccupied());
+		assertTrue(set.addIfAbsent(ids[0].getMostSignificantBits(), ids[0].getLeastSignificantBits(), 11));
+		assertFalse(set.addIfAbsent(ids[7].getMostSignificantBits(), ids[7].getLeastSignificantBits(), 12));
+	}
+}
@@ -0,0 +1,45 @@
+package br.com.rinha.pagamentos.health;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcessorHealthMonitorTest {
+
+	@Test
+	void appliesNewerStatusesAndIgnoresOlderOnes() {
+		ProcessorHealthMonitor monitor = monitor(15_000);
+
+		monitor.apply("7;1:20;0");
+		monitor.apply("6;0;1:5");
+		monitor.apply("7;0;0");
+
+		assertTrue(monitor.isDefaultProcessorAvailable());
+		assertFalse(monitor.isFallbackProcessorAvailable());
+		assertEquals(20, monitor.getDefaultMinResponseTime());
+
+		monitor.apply("8;0;1:5");
+
+		assertFalse(monitor.isDefaultProcessorAvailable());
+		assertTrue(monitor.isFallbackProcessorAvailable());
+		assertEquals(5, monitor.getFallbackMinResponseTime());
+	}
+
+	@Test
+	void acceptsALowerSequenceOnceTheCurrentStatusIsStale() throws InterruptedException {
+		ProcessorHealthMonitor monitor = monitor(20);
+		monitor.apply("900;1:20;0");
+
+		Thread.sleep(40);
+		monitor.apply("1;0;1:5");
+
+		assertFalse(monitor.isDefaultProcessorAvailable());
+		assertTrue(monitor.isFallbackProcessorAvailable());
+	}
+
+	private static ProcessorHealthMonitor monitor(long leaseMs) {
+		return new ProcessorHealthMonitor(null, null, null, null, "http://default", "http://fallback", leaseMs);
+	}
+}
@@ -0,0 +1,74 @@
+package br.com.rinha.pagamentos.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+	@Test
+	void bucketsAreContiguousAndBoundTheRelativeError() {
+		int previous = -1;
+		for (long value = 0; value < 1 << 20; value++) {
+			int index = LatencyHistogram.indexOf(value);
+			assertTrue(index == previous || index == previous + 1);
+			long highest = LatencyHistogram.highestValueAt(index);
+			assertTrue(highest >= value);
+			assertTrue(highest - value <= value / 32);
+			previous = index;
+		}
+	}
+
+	@Test
+	void reportsPercentilesAcrossStripes() throws InterruptedException {
+		LatencyHistogram histogram = new LatencyHistogram(4);
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 1; i <= 2_500; i++) {
+					histogram.record(i);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+		assertEquals(10_000, snapshot.getCount());
+		assertEquals(4L * 2_500 * 2_501 / 2, snapshot.getSumMicros());
+		assertTrue(Math.abs(snapshot.percentileMicros(0.5) - 1_250) <= 1_250 / 32);
+		assertTrue(Math.abs(snapshot.percentileMicros(0.99) - 2_475) <= 2_475 / 32);
+		assertTrue(snapshot.maxMicros() >= 2_500);
+	}
+
+	@Test
+	void mergesRecordsFromVirtualThreads() throws InterruptedException {
+		LatencyHistogram histogram = new LatencyHistogram(8);
+		Thread[] threads = new Thread[1_000];
+		for (int t = 0; t < threads.length; t++) {
+			long value = t + 1;
+			threads[t] = Thread.ofVirtual().start(() -> histogram.record(value));
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+		assertEquals(1_000, snapshot.getCount());
+		assertEquals(1_000L * 1_001 / 2, snapshot.getSumMicros());
+	}
+
+	@Test
+	void clampsOutOfRangeValues() {
+		LatencyHistogram histogram = new LatencyHistogram(1);
+		histogram.record(-5);
+		histogram.record(Long.MAX_VALUE);
+
+		LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+		assertEquals(0, snapshot.percentileMicros(0.5));
+		assertEquals((1L << 32) - 1, snapshot.maxMicros());
+	}
+}
@@ -0,0 +1,125 @@
+package br.com.rinha.pagamentos.persistence;
+
+import br.com.rinha.pagamentos.timeseries.TimeSeriesCommands;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentWriteBehindBufferTest {
+
+	@Test
+	void retriesAFailedBatchUntilItIsWritten() {
+		FlakyTimeSeries timeSeries = new FlakyTimeSeries(2, 0);
+		PaymentWriteBehindBuffer buffer = new PaymentWriteBehindBuffer(timeSeries, List.of(), 2, 1_000, 4, 1);
+
+		buffer.persist("default", 1_000, 1990);
+		buffer.persist("default", 1_001, 1990).block(Duration.ofSeconds(2));
+
+		assertEquals(3, timeSeries.calls.get());
+		assertEquals(2, timeSeries.written.get());
+		assertEquals(1, buffer.getStats().flushes());
+		assertEquals(2, buffer.getStats().retries());
+		assertEquals(0, buffer.getStats().failedFlushes());
+		assertEquals(1, timeSeries.markers.size());
+	}
+
+	@Test
+	void givesEveryBatchItsOwnMarker() {
+		FlakyTimeSeries timeSeries = new FlakyTimeSeries(0, 0);
+		PaymentWriteBehindBuffer buffer = new PaymentWriteBehindBuffer(timeSeries, List.of(), 1, 1_000, 4, 1);
+
+		buffer.persist("default", 1_000, 1990).block(Duration.ofSeconds(2));
+		buffer.persist("default", 1_001, 1990).block(Duration.ofSeconds(2));
+		buffer.persist("fallback", 1_000, 1990).block(Duration.ofSeconds(2));
+
+		assertEquals(3, timeSeries.markers.size());
+	}
+
+	@Test
+	void failsTheBatchOnceTheRetriesAreExhausted() {
+		FlakyTimeSeries timeSeries = new FlakyTimeSeries(Integer.MAX_VALUE, 0);
+		PaymentWriteBehindBuffer buffer = new PaymentWriteBehindBuffer(timeSeries, List.of(), 1, 1_000, 2, 1);
+
+		assertThrows(RuntimeException.class, () -> buffer.persist("default", 1_000, 1990).block(Duration.ofSeconds(2)));
+		assertEquals(3, timeSeries.calls.get());
+		assertEquals(1, buffer.getStats().failedFlushes());
+	}
+
+	@Test
+	void shutdownWaitsForBatchesStillBeingRetried() {
+		FlakyTimeSeries timeSeries = new FlakyTimeSeries(3, 0);
+		PaymentWriteBehindBuffer buffer = new PaymentWriteBehindBuffer(timeSeries, List.of(), 256, 60_000, 8, 20);
+		buffer.persist("default", 1_000, 1990);
+		buffer.persist("fallback", 1_000, 1990);
+
+		buffer.flushOnShutdown();
+
+		assertEquals(2, timeSeries.written.get());
+		assertEquals(0, buffer.getStats().abandonedBatches());
+	}
+
+	@Test
+	void shutdownGivesUpOnBatchesThatOutliveTheDeadline() {
+		FlakyTimeSeries timeSeries = new FlakyTimeSeries(Integer.MAX_VALUE, 0);
+		PaymentWriteBehindBuffer buffer = new PaymentWriteBehindBuffer(timeSeries, List.of(), 256, 60_000, 100, 1_000);
+		buffer.persist("default", 1_000, 1990);
+
+		long start = System.nanoTime();
+		buffer.flushOnShutdown();
+
+		assertTrue(System.nanoTime() - start < Duration.ofSeconds(10).toNanos());
+		assertEquals(1, buffer.getStats().abandonedBatches());
+		assertEquals(0, timeSeries.written.get());
+	}
+
+	@Test
+	void countsSamplesRejectedIndividuallyWithoutRetryingTheBatch() {
+		FlakyTimeSeries timeSeries = new FlakyTimeSeries(0, 1);
+		PaymentWriteBehindBuffer buffer = new PaymentWriteBehindBuffer(timeSeries, List.of(), 1, 1_000, 4, 1);
+
+		buffer.persist("default", 1_000, 1990).block(Duration.ofSeconds(2));
+
+		assertEquals(1, timeSeries.calls.get());
+		assertEquals(0, buffer.getStats().retries());
+		assertEquals(1, buffer.getStats().rejectedSamples());
+	}
+
+	private static final class FlakyTimeSeries extends TimeSeriesCommands {
+
+		private final int failures;
+		private final int rejected;
+		private final AtomicInteger calls = new AtomicInteger();
+		private final AtomicLong written = new AtomicLong();
+		private final Set<String> markers = ConcurrentHashMap.newKeySet();
+
+		private FlakyTimeSeries(int failures, int rejected) {
+			super(null);
+			this.failures = failures;
+			this.rejected = rejected;
+		}
+
+		@Override
+		public Mono<Long> madd(byte[] batchKey, byte[] amountKey, byte[] countKey, long[] timestamps, long[] amounts,
+				long[] counts, int size) {
+			return Mono.defer(() -> {
+				markers.add(new String(batchKey, StandardCharsets.UTF_8));
+				if (calls.incrementAndGet() <= failures) {
+					return Mono.error(new IllegalStateException("connection reset"));
+				}
+				written.addAndGet(size);
+				return Mono.just((long) size * 2 - rejected);
+			});
+		}
+	}
+}
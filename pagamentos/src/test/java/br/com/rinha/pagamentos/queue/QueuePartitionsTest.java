@@ -0,0 +1,56 @@
+package br.com.rinha.pagamentos.queue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueuePartitionsTest {
+
+	@Test
+	void everyPartitionHasExactlyOneOwner() {
+		for (int nodes = 1; nodes <= 10; nodes++) {
+			List<String> members = new ArrayList<>();
+			for (int i = 0; i < nodes; i++) {
+				members.add("node-" + i);
+			}
+			int[] owners = new int[8];
+			for (String member : members) {
+				int[] owned = QueuePartitions.assign(members, member, 8);
+				assertTrue(owned.length <= (8 + nodes - 1) / nodes);
+				for (int partition : owned) {
+					owners[partition]++;
+				}
+			}
+			assertArrayEquals(new int[] { 1, 1, 1, 1, 1, 1, 1, 1 }, owners);
+		}
+	}
+
+	@Test
+	void rebalancesWhenANodeLeaves() {
+		assertArrayEquals(new int[] { 1, 4, 7 }, QueuePartitions.assign(List.of("c", "a", "b"), "b", 8));
+		assertArrayEquals(new int[] { 1, 3, 5, 7 }, QueuePartitions.assign(List.of("c", "b"), "c", 8));
+		assertNull(QueuePartitions.assign(List.of("a", "b"), "c", 8));
+	}
+
+	@Test
+	void hashesCorrelationIdsAcrossAllPartitions() {
+		int[] counts = new int[8];
+		for (int i = 0; i < 8_000; i++) {
+			counts[QueuePartitions.partitionOf(UUID.randomUUID(), 8)]++;
+		}
+		for (int count : counts) {
+			assertTrue(count > 800 && count < 1_200);
+		}
+
+		UUID correlationId = UUID.randomUUID();
+		assertEquals(QueuePartitions.partitionOf(correlationId, 8), QueuePartitions.partitionOf(correlationId, 8));
+		assertEquals(0, QueuePartitions.partitionOf(correlationId, 1));
+	}
+}
@@ -0,0 +1,28 @@
+package br.com.rinha.pagamentos.retry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BackoffTest {
+
+	@Test
+	void doublesPerAttemptWithEqualJitter() {
+		Backoff backoff = new Backoff(20, 5_000);
+
+		assertEquals(10, backoff.delayMillis(0, 0.0));
+		assertEquals(10, backoff.delayMillis(1, 0.0));
+		assertEquals(20, backoff.delayMillis(1, 1.0));
+		assertEquals(20, backoff.delayMillis(2, 0.0));
+		assertEquals(40, backoff.delayMillis(2, 1.0));
+		assertEquals(960, backoff.delayMillis(7, 0.5));
+	}
+
+	@Test
+	void capsAtTheMaximumDelay() {
+		Backoff backoff = new Backoff(20, 5_000);
+
+		assertEquals(2_500, backoff.delayMillis(20, 0.0));
+		assertEquals(5_000, backoff.delayMillis(Integer.MAX_VALUE, 1.0));
+	}
+}
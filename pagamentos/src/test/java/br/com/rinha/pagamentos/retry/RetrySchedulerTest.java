@@ -0,0 +1,111 @@
+package br.com.rinha.pagamentos.retry;
+
+import br.com.rinha.pagamentos.model.QueuedPayment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetrySchedulerTest {
+
+	private static final long MAX_DELAY_MS = 5_000;
+
+	private final Map<QueuedPayment, Double> retrySet = new ConcurrentHashMap<>();
+	private final RetryScheduler scheduler = new RetryScheduler(
+			null, new StubReactiveTemplate(retrySet), new StubTemplate(retrySet), null, null,
+			25, MAX_DELAY_MS, 10, 1_000, 50, 128);
+
+	@AfterEach
+	void stop() {
+		scheduler.stopTimer();
+	}
+
+	@Test
+	void parksPaymentsPastTheMaximumAttemptsAtTheCappedDelay() {
+		QueuedPayment reactive = payment(51);
+		QueuedPayment blocking = payment(Integer.MAX_VALUE);
+
+		long before = System.currentTimeMillis();
+		scheduler.schedule(reactive).block();
+		scheduler.scheduleBlocking(blocking);
+
+		assertEquals(2, retrySet.size());
+		assertTrue(retrySet.get(reactive) >= before + MAX_DELAY_MS);
+		assertTrue(retrySet.get(blocking) >= before + MAX_DELAY_MS);
+		assertEquals(2, scheduler.getStats().parked());
+		assertEquals(2, scheduler.getStats().redisScheduled());
+	}
+
+	@Test
+	void doesNotParkPaymentsWithinTheMaximumAttempts() {
+		QueuedPayment payment = payment(50);
+
+		scheduler.scheduleBlocking(payment);
+
+		assertEquals(1, retrySet.size());
+		assertEquals(0, scheduler.getStats().parked());
+	}
+
+	private static QueuedPayment payment(int attempts) {
+		QueuedPayment payment = new QueuedPayment(1990, UUID.randomUUID());
+		payment.setAttempts(attempts);
+		return payment;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T stub(Class<T> type, Map<QueuedPayment, Double> retrySet, Object added) {
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+			if (!method.getName().equals("add") || args.length != 3) {
+				throw new UnsupportedOperationException(method.getName());
+			}
+			retrySet.put((QueuedPayment) args[1], (Double) args[2]);
+			return added;
+		});
+	}
+
+	private static final class StubTemplate extends RedisTemplate<String, QueuedPayment> {
+
+		private final ZSetOperations<String, QueuedPayment> zSet;
+
+		@SuppressWarnings("unchecked")
+		private StubTemplate(Map<QueuedPayment, Double> retrySet) {
+			this.zSet = stub(ZSetOperations.class, retrySet, true);
+		}
+
+		@Override
+		public ZSetOperations<String, QueuedPayment> opsForZSet() {
+			return zSet;
+		}
+	}
+
+	private static final class StubReactiveTemplate extends ReactiveRedisTemplate<String, QueuedPayment> {
+
+		private final ReactiveZSetOperations<String, QueuedPayment> zSet;
+
+		@SuppressWarnings("unchecked")
+		private StubReactiveTemplate(Map<QueuedPayment, Double> retrySet) {
+			super(stub(ReactiveRedisConnectionFactory.class, retrySet, null),
+					RedisSerializationContext.<String, QueuedPayment>newSerializationContext(RedisSerializer.java()).build());
+			this.zSet = stub(ReactiveZSetOperations.class, retrySet, Mono.just(true));
+		}
+
+		@Override
+		public ReactiveZSetOperations<String, QueuedPayment> opsForZSet() {
+			return zSet;
+		}
+	}
+}
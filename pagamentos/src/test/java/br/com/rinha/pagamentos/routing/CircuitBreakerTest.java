@@ -0,0 +1,113 @@
+package br.com.rinha.pagamentos.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+	private final List<CircuitBreaker.State> published = new ArrayList<>();
+
+	@Test
+	void opensOnceTheFailureRateCrossesTheThreshold() {
+		CircuitBreaker breaker = breaker();
+		for (int i = 0; i < 9; i++) {
+			breaker.recordFailure(0);
+		}
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+		breaker.recordFailure(0);
+
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		assertFalse(breaker.isAvailable(100));
+		assertFalse(breaker.tryAcquirePermission(100));
+		assertEquals(List.of(CircuitBreaker.State.OPEN), published);
+	}
+
+	@Test
+	void checkingAvailabilityDoesNotConsumeProbes() {
+		CircuitBreaker breaker = open();
+
+		for (int i = 0; i < 100; i++) {
+			assertTrue(breaker.isAvailable(500));
+		}
+		assertTrue(breaker.tryAcquirePermission(500));
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertTrue(breaker.tryAcquirePermission(500));
+		assertTrue(breaker.tryAcquirePermission(500));
+		assertFalse(breaker.tryAcquirePermission(500));
+		assertFalse(breaker.isAvailable(500));
+	}
+
+	@Test
+	void anUnusedProbeCanBeGivenBack() {
+		CircuitBreaker breaker = open();
+		for (int i = 0; i < 3; i++) {
+			assertTrue(breaker.tryAcquirePermission(500));
+		}
+
+		breaker.releasePermission();
+
+		assertTrue(breaker.isAvailable(500));
+		assertTrue(breaker.tryAcquirePermission(500));
+		assertFalse(breaker.tryAcquirePermission(500));
+	}
+
+	@Test
+	void closesAfterEnoughSuccessfulProbes() {
+		CircuitBreaker breaker = open();
+		for (int i = 0; i < 3; i++) {
+			assertTrue(breaker.tryAcquirePermission(500));
+			breaker.recordSuccess(510);
+		}
+
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		assertEquals(List.of(CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.CLOSED), published);
+	}
+
+	@Test
+	void aFailedProbeReopens() {
+		CircuitBreaker breaker = open();
+		assertTrue(breaker.tryAcquirePermission(500));
+
+		breaker.recordFailure(510);
+
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		assertFalse(breaker.isAvailable(600));
+		assertTrue(breaker.isAvailable(1_010));
+	}
+
+	@Test
+	void lostProbesExpireBackToOpenAndAreRetried() {
+		CircuitBreaker breaker = open();
+		for (int i = 0; i < 3; i++) {
+			assertTrue(breaker.tryAcquirePermission(500));
+		}
+		assertFalse(breaker.isAvailable(2_000));
+
+		assertFalse(breaker.isAvailable(3_500));
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+		assertTrue(breaker.isAvailable(4_000));
+		assertTrue(breaker.tryAcquirePermission(4_000));
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+	}
+
+	private CircuitBreaker open() {
+		CircuitBreaker breaker = breaker();
+		for (int i = 0; i < 10; i++) {
+			breaker.recordFailure(0);
+		}
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		return breaker;
+	}
+
+	private CircuitBreaker breaker() {
+		return new CircuitBreaker(1_000, 10, 0.5, 10, 500, 3, 3_000, published::add);
+	}
+}
@@ -0,0 +1,93 @@
+package br.com.rinha.pagamentos.routing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimiterTest {
+
+	private static final long MILLI = 1_000_000;
+
+	@Test
+	void rejectsAboveTheLimit() {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(4, 1, 100, 0.9);
+		for (int i = 0; i < 4; i++) {
+			assertTrue(limiter.tryAcquire());
+		}
+		assertFalse(limiter.tryAcquire());
+		assertFalse(limiter.hasCapacity());
+		assertEquals(1, limiter.getRejections());
+
+		limiter.release(10 * MILLI, false);
+		assertTrue(limiter.tryAcquire());
+	}
+
+	@Test
+	void cancellingReturnsThePermitWithoutMovingTheLimit() {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1, 100, 0.5);
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+
+		limiter.cancel();
+
+		assertEquals(1, limiter.getInFlight());
+		assertEquals(2, limiter.getLimit());
+		assertTrue(limiter.tryAcquire());
+	}
+
+	@Test
+	void capacityFollowsTheRoutedPrimary() {
+		ProcessorConcurrencyLimits limits = new ProcessorConcurrencyLimits(1, 1, 10, 0.9);
+		assertTrue(limits.get(Processor.DEFAULT).tryAcquire());
+
+		assertFalse(limits.hasCapacity(RoutingDecision.DEFAULT_ONLY));
+		assertFalse(limits.hasCapacity(RoutingDecision.DEFAULT_THEN_FALLBACK));
+		assertTrue(limits.hasCapacity(RoutingDecision.FALLBACK_ONLY));
+		assertFalse(limits.hasCapacity(RoutingDecision.QUEUE));
+	}
+
+	@Test
+	void growsWhileLatencyIsStableAndShrinksWhenItRises() {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 2, 200, 0.9);
+		saturate(limiter, 10 * MILLI, 200);
+		int grown = limiter.getLimit();
+		assertTrue(grown > 50, () -> "limit " + grown);
+
+		saturate(limiter, 200 * MILLI, 5);
+		assertTrue(limiter.getLimit() < grown, () -> "limit " + limiter.getLimit());
+	}
+
+	@Test
+	void doesNotGrowWhenApplicationLimited() {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(20, 2, 200, 0.9);
+		for (int i = 0; i < 500; i++) {
+			assertTrue(limiter.tryAcquire());
+			limiter.release(10 * MILLI, false);
+		}
+		assertEquals(20, limiter.getLimit());
+	}
+
+	@Test
+	void backsOffOnDropsDownToTheMinimum() {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(100, 5, 200, 0.5);
+		for (int i = 0; i < 20; i++) {
+			assertTrue(limiter.tryAcquire());
+			limiter.release(MILLI, true);
+		}
+		assertEquals(5, limiter.getLimit());
+	}
+
+	private static void saturate(ConcurrencyLimiter limiter, long rttNanos, int rounds) {
+		for (int round = 0; round < rounds; round++) {
+			int acquired = 0;
+			while (limiter.tryAcquire()) {
+				acquired++;
+			}
+			for (int i = 0; i < acquired; i++) {
+				limiter.release(rttNanos, false);
+			}
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package br.com.rinha.pagamentos.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.LongPredicate;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutingPolicySimulationTest {
+
+	private static final long ARRIVAL_WINDOW_MS = 10_000;
+	private static final long DRAIN_WINDOW_MS = 5_000;
+	private static final int ARRIVALS_PER_MS = 1;
+	private static final int MAX_IN_FLIGHT = 256;
+	private static final double AMOUNT = 19.90;
+	private static final double DEFAULT_FEE = 0.05;
+	private static final double FALLBACK_FEE = 0.15;
+
+	private static final long ARRIVALS = ARRIVAL_WINDOW_MS * ARRIVALS_PER_MS;
+
+	private static final Scenario HEALTHY = new Scenario("healthy",
+			behavior(t -> 10, t -> 0.0, t -> true),
+			behavior(t -> 10, t -> 0.0, t -> true));
+	private static final Scenario DEFAULT_SLOW = new Scenario("default slow",
+			behavior(t -> 1_500, t -> 0.0, t -> true),
+			behavior(t -> 10, t -> 0.0, t -> true));
+	private static final Scenario DEFAULT_FLAKY = new Scenario("default flaky",
+			behavior(t -> 20, t -> 0.4, t -> true),
+			behavior(t -> 20, t -> 0.0, t -> true));
+	private static final Scenario DEFAULT_FAILING_BETWEEN_HEALTH_CHECKS = new Scenario("default failing between health checks",
+			behavior(t -> 20, t -> t > 2_000 && t < 7_000 ? 1.0 : 0.0, t -> true),
+			behavior(t -> 20, t -> 0.0, t -> true));
+	private static final Scenario DEFAULT_OUTAGE = new Scenario("default outage",
+			behavior(t -> 20, t -> 0.0, t -> t < 3_000 || t > 6_000),
+			behavior(t -> 20, t -> 0.0, t -> true));
+
+	@Test
+	void adaptivePolicyIsNeverLessProfitableThanFixedPriority() {
+		for (Scenario scenario : List.of(HEALTHY, DEFAULT_SLOW, DEFAULT_FLAKY, DEFAULT_FAILING_BETWEEN_HEALTH_CHECKS, DEFAULT_OUTAGE)) {
+			Result fixed = simulate(scenario, new FixedPriorityRoutingPolicy());
+			Result adaptive = simulate(scenario, adaptive());
+
+			assertTrue(adaptive.profit() >= fixed.profit() * 0.99,
+					() -> scenario.name() + ": adaptive " + adaptive.profit() + " < fixed " + fixed.profit());
+		}
+	}
+
+	@Test
+	void keepsEveryPaymentOnDefaultWhileBothAreHealthy() {
+		Result adaptive = simulate(HEALTHY, adaptive());
+
+		assertEquals(ARRIVALS, adaptive.processed());
+		assertEquals(0.0, adaptive.fallbackShare());
+	}
+
+	@Test
+	void waitsForASlowDefaultInsteadOfSpillingToFallback() {
+		Result fixed = simulate(DEFAULT_SLOW, new FixedPriorityRoutingPolicy());
+		Result adaptive = simulate(DEFAULT_SLOW, adaptive());
+
+		assertEquals(0.0, adaptive.fallbackShare());
+		assertEquals(fixed.processed(), adaptive.processed());
+		assertEquals(fixed.profit(), adaptive.profit(), 0.001);
+	}
+
+	@Test
+	void sendsLessToFallbackThanFixedPriorityWhenDefaultIsFlaky() {
+		Result fixed = simulate(DEFAULT_FLAKY, new FixedPriorityRoutingPolicy());
+		Result adaptive = simulate(DEFAULT_FLAKY, adaptive());
+
+		assertEquals(ARRIVALS, adaptive.processed());
+		assertTrue(adaptive.fallbackShare() < fixed.fallbackShare() / 2,
+				() -> "fallback share " + adaptive.fallbackShare() + " vs fixed " + fixed.fallbackShare());
+		assertTrue(adaptive.profit() > fixed.profit());
+	}
+
+	@Test
+	void processesEveryPaymentThroughDefaultFailuresAndOutages() {
+		for (Scenario scenario : List.of(DEFAULT_FAILING_BETWEEN_HEALTH_CHECKS, DEFAULT_OUTAGE)) {
+			Result adaptive = simulate(scenario, adaptive());
+
+			assertEquals(ARRIVALS, adaptive.processed(), scenario.name());
+			assertTrue(adaptive.fallbackShare() > 0 && adaptive.fallbackShare() < 60,
+					() -> scenario.name() + ": fallback share " + adaptive.fallbackShare());
+		}
+	}
+
+	private static AdaptiveRoutingPolicy adaptive() {
+		return new AdaptiveRoutingPolicy(0.5, 300);
+	}
+
+	private static Result simulate(Scenario scenario, RoutingPolicy policy) {
+		Random random = new Random(42);
+		ProcessorStats defaultStats = new ProcessorStats(Processor.DEFAULT, DEFAULT_FEE);
+		ProcessorStats fallbackStats = new ProcessorStats(Processor.FALLBACK, FALLBACK_FEE);
+		Deque<SimulatedPayment> backlog = new ArrayDeque<>();
+		PriorityQueue<Attempt> inFlight = new PriorityQueue<>((a, b) -> Long.compare(a.completesAt(), b.completesAt()));
+
+		long processed = 0;
+		long processedByFallback = 0;
+		double profit = 0;
+
+		for (long t = 0; t < ARRIVAL_WINDOW_MS + DRAIN_WINDOW_MS; t++) {
+			Behavior defaultBehavior = scenario.defaultBehavior();
+			Behavior fallbackBehavior = scenario.fallbackBehavior();
+			defaultStats.updateHealth(defaultBehavior.available().test(t), defaultBehavior.latency().applyAsLong(t), t + 1);
+			fallbackStats.updateHealth(fallbackBehavior.available().test(t), fallbackBehavior.latency().applyAsLong(t), t + 1);
+
+			if (t < ARRIVAL_WINDOW_MS) {
+				for (int i = 0; i < ARRIVALS_PER_MS; i++) {
+					backlog.addLast(new SimulatedPayment());
+				}
+			}
+
+			while (!inFlight.isEmpty() && inFlight.peek().completesAt() <= t) {
+				Attempt attempt = inFlight.poll();
+				ProcessorStats stats = attempt.processor() == Processor.DEFAULT ? defaultStats : fallbackStats;
+				long latencyNanos = attempt.latencyMillis() * 1_000_000L;
+
+				if (attempt.succeeded()) {
+					stats.recordSuccess(latencyNanos);
+					processed++;
+					profit += AMOUNT * (1.0 - stats.getFee());
+					if (attempt.processor() == Processor.FALLBACK) {
+						processedByFallback++;
+					}
+				} else {
+					stats.recordFailure(latencyNanos);
+					if (attempt.secondary() != null) {
+						inFlight.add(start(scenario, attempt.secondary(), null, t, random));
+					} else {
+						backlog.addLast(attempt.payment());
+					}
+				}
+			}
+
+			while (!backlog.isEmpty() && inFlight.size() < MAX_IN_FLIGHT) {
+				RoutingDecision decision = policy.route(defaultStats, fallbackStats, t + 1);
+				if (decision.isQueued()) {
+					break;
+				}
+				backlog.pollFirst();
+				inFlight.add(start(scenario, decision.primary(), decision.secondary(), t, random));
+			}
+		}
+
+		return new Result(processed, profit, processed == 0 ? 0 : 100.0 * processedByFallback / processed);
+	}
+
+	private static Attempt start(Scenario scenario, Processor processor, Processor secondary, long now, Random random) {
+		Behavior behavior = processor == Processor.DEFAULT ? scenario.defaultBehavior() : scenario.fallbackBehavior();
+		long latency = Math.max(1, behavior.latency().applyAsLong(now));
+		boolean succeeded = behavior.available().test(now) && random.nextDouble() >= behavior.failureRate().applyAsDouble(now);
+		return new Attempt(new SimulatedPayment(), processor, secondary, now + latency, latency, succeeded);
+	}
+
+	private static Behavior behavior(LongUnaryOperator latency, LongToDoubleFunction failureRate, LongPredicate available) {
+		return new Behavior(latency, failureRate, available);
+	}
+
+	private record Behavior(LongUnaryOperator latency, LongToDoubleFunction failureRate, LongPredicate available) {
+	}
+
+	private record Scenario(String name, Behavior defaultBehavior, Behavior fallbackBehavior) {
+	}
+
+	private record SimulatedPayment() {
+	}
+
+	private record Attempt(SimulatedPayment payment, Processor processor, Processor secondary, long completesAt, long latencyMillis, boolean succeeded) {
+	}
+
+	private record Result(long processed, double profit, double fallbackShare) {
+	}
+}
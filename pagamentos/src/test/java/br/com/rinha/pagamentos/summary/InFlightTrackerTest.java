@@ -0,0 +1,43 @@
+package br.com.rinha.pagamentos.summary;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InFlightTrackerTest {
+
+	@Test
+	void watermarkStaysBelowOldestInFlightPayment() throws InterruptedException {
+		InFlightTracker tracker = new InFlightTracker(4);
+		int oldest = tracker.begin();
+		Thread.sleep(5);
+		int newest = tracker.begin();
+		long oldestRequestedAt = tracker.requestedAt(oldest);
+		long newestRequestedAt = tracker.requestedAt(newest);
+
+		assertTrue(tracker.getWatermark() < oldestRequestedAt);
+
+		tracker.end(oldest);
+		assertTrue(tracker.getWatermark() >= oldestRequestedAt);
+		assertTrue(tracker.getWatermark() < newestRequestedAt);
+
+		tracker.end(newest);
+		assertTrue(tracker.getWatermark() >= newestRequestedAt - 1);
+		assertEquals(0, tracker.getInFlight());
+	}
+
+	@Test
+	void overflowHoldsTheWatermarkBack() {
+		InFlightTracker tracker = new InFlightTracker(1);
+		int tracked = tracker.begin();
+		int untracked = tracker.begin();
+
+		assertEquals(InFlightTracker.UNTRACKED, untracked);
+		tracker.end(tracked);
+		assertEquals(Long.MIN_VALUE, tracker.getWatermark());
+
+		tracker.end(untracked);
+		assertTrue(tracker.getWatermark() > 0);
+	}
+}
@@ -0,0 +1,68 @@
+package br.com.rinha.pagamentos.summary;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MRangeTotalsOutputTest {
+
+	@Test
+	void accumulatesResp2Replies() {
+		MRangeTotalsOutput output = new MRangeTotalsOutput(new long[4], null);
+
+		series(output, "payments:count:ts:default", "count", "default");
+		output.set(1_000L);
+		output.set(bytes("3"));
+		output.set(2_000L);
+		output.set(bytes("4"));
+		series(output, "payments:amount:ts:fallback", "amount", "fallback");
+		output.set(1_000L);
+		output.set(bytes("19990"));
+
+		assertArrayEquals(new long[] { 7, 0, 0, 19_990 }, output.get());
+	}
+
+	@Test
+	void accumulatesResp3DoublesIntoSamples() {
+		TimeSeriesSamples samples = new TimeSeriesSamples();
+		MRangeTotalsOutput output = new MRangeTotalsOutput(new long[4], samples);
+
+		series(output, "payments:amount:ts:default", "amount", "default");
+		output.set(1_500L);
+		output.set(1990.0);
+		series(output, "payments:count:ts:fallback", "count", "fallback");
+		output.set(1_500L);
+		output.set(2.0);
+
+		assertArrayEquals(new long[] { 0, 1_990, 2, 0 }, output.get());
+		assertEquals(2, samples.size());
+		assertEquals(SummaryIndex.DEFAULT, samples.processor(0));
+		assertEquals(1_990, samples.amount(0));
+		assertEquals(SummaryIndex.FALLBACK, samples.processor(1));
+		assertEquals(1_500, samples.timestamp(1));
+		assertEquals(2, samples.count(1));
+	}
+
+	@Test
+	void parsesIntegralAndExponentValues() {
+		assertEquals(1234, MRangeTotalsOutput.parseValue(bytes("1234")));
+		assertEquals(-5, MRangeTotalsOutput.parseValue(bytes("-5")));
+		assertEquals(12_345_678_901_234_568L, MRangeTotalsOutput.parseValue(bytes("1.2345678901234568e+16")));
+	}
+
+	private static void series(MRangeTotalsOutput output, String key, String type, String processor) {
+		output.set(bytes(key));
+		output.set(bytes("type"));
+		output.set(bytes(type));
+		output.set(bytes("processor"));
+		output.set(bytes(processor));
+	}
+
+	private static ByteBuffer bytes(String value) {
+		return ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII));
+	}
+}
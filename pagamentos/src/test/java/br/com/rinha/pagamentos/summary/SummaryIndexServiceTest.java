@@ -0,0 +1,51 @@
+package br.com.rinha.pagamentos.summary;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SummaryIndexServiceTest {
+
+	private static final long PUBLISHER = 42;
+
+	private final SummaryIndexService service = new SummaryIndexService(null, new SummaryResponseCache(0, 5_000), true, 10);
+
+	@Test
+	void coversASequenceOnlyOnceEveryEarlierDeltaIsApplied() {
+		service.onMessage(delta(PUBLISHER, 1), null);
+		service.onMessage(delta(PUBLISHER, 3), null);
+
+		assertTrue(service.hasApplied(PUBLISHER, 1));
+		assertFalse(service.hasApplied(PUBLISHER, 3));
+
+		service.onMessage(delta(PUBLISHER, 2), null);
+
+		assertTrue(service.hasApplied(PUBLISHER, 3));
+		assertFalse(service.hasApplied(PUBLISHER, 4));
+	}
+
+	@Test
+	void waitsForPublishersItHasNotHeardFrom() {
+		assertFalse(service.hasApplied(PUBLISHER, 1));
+		assertTrue(service.hasApplied(PUBLISHER, 0));
+		assertTrue(service.hasApplied(service.getInstanceId(), Long.MAX_VALUE));
+	}
+
+	private static DefaultMessage delta(long publisher, long sequence) {
+		ByteBuffer buffer = ByteBuffer.allocate(1 + 2 * Long.BYTES + 1 + Integer.BYTES + 3 * Long.BYTES);
+		buffer.put((byte) 2);
+		buffer.putLong(publisher);
+		buffer.putLong(sequence);
+		buffer.put((byte) SummaryIndex.DEFAULT);
+		buffer.putInt(1);
+		buffer.putLong(1_000 + sequence);
+		buffer.putLong(1990);
+		buffer.putLong(1);
+		return new DefaultMessage("summary:deltas".getBytes(StandardCharsets.UTF_8), buffer.array());
+	}
+}
@@ -0,0 +1,130 @@
+package br.com.rinha.pagamentos.summary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SummaryIndexTest {
+
+	private static final int WINDOW_BITS = 10;
+	private static final int WINDOW = 1 << WINDOW_BITS;
+	private static final long START = 1_700_000_000_000L;
+
+	@Test
+	void matchesBruteForceSumsAcrossRingWrapAround() {
+		Random random = new Random(42);
+		SummaryIndex index = new SummaryIndex(WINDOW_BITS, START);
+		long[][] expected = new long[4][40_000];
+
+		long now = START;
+		for (int i = 0; i < 20_000; i++) {
+			now += random.nextInt(3);
+			long timestamp = Math.max(START, now - random.nextInt(50));
+			int processor = random.nextInt(2);
+			long amount = 1 + random.nextInt(10_000);
+			index.add(processor, timestamp, amount, 1);
+			if (timestamp > index.getHead() - WINDOW) {
+				expected[processor * 2][(int) (timestamp - START)]++;
+				expected[processor * 2 + 1][(int) (timestamp - START)] += amount;
+			}
+
+			if (i % 97 == 0) {
+				long from = Math.max(START, index.getHead() - WINDOW + 1 + random.nextInt(WINDOW));
+				long to = from + random.nextInt(WINDOW * 2);
+				long[] actual = new long[4];
+				assertTrue(index.summarize(from, to, actual));
+				assertArrayEquals(bruteForce(expected, from, Math.min(to, index.getHead())), actual);
+			}
+		}
+	}
+
+	@Test
+	void refusesRangesOutsideCoverage() {
+		SummaryIndex index = new SummaryIndex(WINDOW_BITS, START);
+		index.add(SummaryIndex.DEFAULT, START + WINDOW * 3L, 100, 1);
+
+		assertFalse(index.summarize(START - 1, START + 10, new long[4]));
+		assertFalse(index.summarize(START + WINDOW, START + WINDOW * 3L, new long[4]));
+		assertTrue(index.summarize(START + WINDOW * 2L + 1, START + WINDOW * 3L, new long[4]));
+	}
+
+	@Test
+	void replaceOverwritesOnlyTheGivenRange() {
+		SummaryIndex index = new SummaryIndex(WINDOW_BITS, START);
+		index.add(SummaryIndex.DEFAULT, START + 10, 100, 1);
+		index.add(SummaryIndex.DEFAULT, START + 20, 200, 2);
+		index.add(SummaryIndex.FALLBACK, START + 30, 300, 3);
+
+		TimeSeriesSamples samples = new TimeSeriesSamples();
+		samples.add(SummaryIndex.DEFAULT, START + 20, 250, 0);
+		samples.add(SummaryIndex.DEFAULT, START + 20, 0, 3);
+		index.replace(START + 15, START + 25, samples);
+
+		long[] actual = new long[4];
+		assertTrue(index.summarize(START, START + 40, actual));
+		assertArrayEquals(new long[]{4, 350, 3, 300}, actual);
+	}
+
+	@Test
+	void deltasBehindTheSealSendOverlappingQueriesToRedisUntilReconciled() {
+		SummaryIndex index = new SummaryIndex(WINDOW_BITS, START);
+		index.add(SummaryIndex.DEFAULT, START + 10, 100, 1);
+		long marks = index.getDirtyMarks();
+		assertEquals(Long.MAX_VALUE, index.seal(START + 50));
+
+		index.add(SummaryIndex.DEFAULT, START + 40, 200, 1);
+		index.add(SummaryIndex.DEFAULT, START + 20, 200, 1);
+		index.add(SummaryIndex.DEFAULT, START + 60, 300, 1);
+
+		long[] actual = new long[4];
+		assertFalse(index.summarize(START, START + 100, actual));
+		assertFalse(index.summarize(START + 30, START + 50, actual));
+		assertTrue(index.summarize(START, START + 15, actual));
+		assertArrayEquals(new long[]{1, 100, 0, 0}, actual);
+		assertTrue(index.summarize(START + 51, START + 100, actual));
+		assertArrayEquals(new long[]{1, 300, 0, 0}, actual);
+
+		assertEquals(START + 20, index.seal(START + 50));
+		TimeSeriesSamples samples = new TimeSeriesSamples();
+		samples.add(SummaryIndex.DEFAULT, START + 20, 200, 1);
+		samples.add(SummaryIndex.DEFAULT, START + 40, 200, 1);
+		index.replace(START + 20, START + 50, samples);
+		index.clean(marks);
+		assertFalse(index.summarize(START, START + 100, actual));
+
+		marks = index.getDirtyMarks();
+		index.clean(marks);
+
+		assertTrue(index.summarize(START, START + 100, actual));
+		assertArrayEquals(new long[]{4, 800, 0, 0}, actual);
+	}
+
+	@Test
+	void resetDropsTotalsAndMovesCoverageForward() {
+		SummaryIndex index = new SummaryIndex(WINDOW_BITS, START);
+		index.add(SummaryIndex.DEFAULT, START + 10, 100, 1);
+
+		index.reset(START + 500);
+
+		assertFalse(index.summarize(START, START + 600, new long[4]));
+		index.add(SummaryIndex.FALLBACK, START + 510, 300, 1);
+		long[] actual = new long[4];
+		assertTrue(index.summarize(START + 500, START + 600, actual));
+		assertArrayEquals(new long[]{0, 0, 1, 300}, actual);
+	}
+
+	private static long[] bruteForce(long[][] expected, long from, long to) {
+		long[] totals = new long[4];
+		for (long timestamp = from; timestamp <= to; timestamp++) {
+			for (int i = 0; i < 4; i++) {
+				totals[i] += expected[i][(int) (timestamp - START)];
+			}
+		}
+		return totals;
+	}
+}
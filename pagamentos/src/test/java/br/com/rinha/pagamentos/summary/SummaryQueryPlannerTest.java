@@ -0,0 +1,86 @@
+package br.com.rinha.pagamentos.summary;
+
+import br.com.rinha.pagamentos.summary.SummaryQueryPlanner.Segment;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SummaryQueryPlannerTest {
+
+	@Test
+	void shortRangesStayOnTheRawSeries() {
+		List<Segment> segments = SummaryQueryPlanner.plan(1_250, 1_900);
+
+		assertEquals(List.of(new Segment(CompactionTier.RAW, 1_250, 1_900)), segments);
+	}
+
+	@Test
+	void splitsIntoRawEdgesAroundCoarseMiddles() {
+		long hour = 3_600_000;
+		List<Segment> segments = SummaryQueryPlanner.plan(hour - 60_500, 2 * hour + 61_250);
+
+		assertEquals(List.of(
+				new Segment(CompactionTier.RAW, hour - 60_500, hour - 60_001),
+				new Segment(CompactionTier.MINUTE, hour - 60_000, hour - 1),
+				new Segment(CompactionTier.HOUR, hour, 2 * hour - 1),
+				new Segment(CompactionTier.MINUTE, 2 * hour, 2 * hour + 59_999),
+				new Segment(CompactionTier.SECOND, 2 * hour + 60_000, 2 * hour + 60_999),
+				new Segment(CompactionTier.RAW, 2 * hour + 61_000, 2 * hour + 61_250)
+		), segments);
+	}
+
+	@Test
+	void widensEdgesOlderThanARetentionToTheFinestRetainedTier() {
+		long hour = 3_600_000;
+		long now = 10 * hour;
+		Map<CompactionTier, Long> retentions = Map.of(
+				CompactionTier.RAW, hour,
+				CompactionTier.SECOND, 6 * hour,
+				CompactionTier.MINUTE, 0L,
+				CompactionTier.HOUR, 0L);
+
+		assertEquals(List.of(new Segment(CompactionTier.SECOND, 8 * hour + 1_000, 8 * hour + 2_999)),
+				SummaryQueryPlanner.plan(8 * hour + 1_250, 8 * hour + 2_500, now, retentions));
+		assertEquals(List.of(new Segment(CompactionTier.MINUTE, hour, hour + 59_999)),
+				SummaryQueryPlanner.plan(hour + 1_250, hour + 2_500, now, retentions));
+		assertEquals(List.of(
+				new Segment(CompactionTier.SECOND, 8 * hour + 1_000, 8 * hour + 59_999),
+				new Segment(CompactionTier.MINUTE, 8 * hour + 60_000, 9 * hour - 1),
+				new Segment(CompactionTier.HOUR, 9 * hour, 10 * hour - 1),
+				new Segment(CompactionTier.RAW, 10 * hour, 10 * hour + 250)
+		), SummaryQueryPlanner.plan(8 * hour + 1_250, 10 * hour + 250, now, retentions));
+	}
+
+	@Test
+	void keepsRecentEdgesExact() {
+		Map<CompactionTier, Long> retentions = Map.of(CompactionTier.RAW, 3_600_000L);
+
+		assertEquals(SummaryQueryPlanner.plan(1_250, 1_900), SummaryQueryPlanner.plan(1_250, 1_900, 2_000, retentions));
+		assertEquals(SummaryQueryPlanner.plan(0, Long.MAX_VALUE), SummaryQueryPlanner.plan(0, Long.MAX_VALUE, 2_000, retentions));
+	}
+
+	@Test
+	void segmentsCoverTheRangeWithoutGapsOrOverlaps() {
+		long[][] ranges = { { 0, 0 }, { 999, 1_000 }, { 17, 7_654_321 }, { 0, Long.MAX_VALUE }, { 5, 4 } };
+		for (long[] range : ranges) {
+			long expectedFrom = range[0];
+			for (Segment segment : SummaryQueryPlanner.plan(range[0], range[1])) {
+				assertEquals(expectedFrom, segment.from());
+				assertTrue(segment.to() >= segment.from());
+				long bucket = segment.tier().bucketMillis();
+				assertEquals(0, Math.floorMod(segment.from(), bucket));
+				if (segment.to() != range[1]) {
+					assertEquals(0, Math.floorMod(segment.to() + 1, bucket));
+				}
+				expectedFrom = segment.to() + 1;
+			}
+			if (range[0] <= range[1]) {
+				assertEquals(range[1], expectedFrom - 1);
+			}
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package br.com.rinha.pagamentos.summary;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SummaryResponseCacheTest {
+
+	private static final byte[] BODY = "{\"default\":{}}".getBytes(StandardCharsets.US_ASCII);
+
+	@Test
+	void onlyWindowsOlderThanTheMinimumAgeAreCacheable() {
+		SummaryResponseCache cache = new SummaryResponseCache(4, 5_000);
+		long now = System.currentTimeMillis();
+
+		assertTrue(cache.isCacheable(now - 10_000));
+		assertFalse(cache.isCacheable(now - 1_000));
+		assertFalse(new SummaryResponseCache(0, 5_000).isCacheable(now - 10_000));
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedWindow() {
+		SummaryResponseCache cache = new SummaryResponseCache(2, 5_000);
+		cache.put(0, 1_000, BODY, cache.epoch());
+		cache.put(1_000, 2_000, BODY, cache.epoch());
+
+		assertArrayEquals(BODY, cache.get(0, 1_000));
+		cache.put(2_000, 3_000, BODY, cache.epoch());
+
+		assertArrayEquals(BODY, cache.get(0, 1_000));
+		assertNull(cache.get(1_000, 2_000));
+		assertEquals(2, cache.getStats().entries());
+	}
+
+	@Test
+	void aLatePersistDropsOnlyTheWindowsItFallsInto() {
+		SummaryResponseCache cache = new SummaryResponseCache(4, 5_000);
+		cache.put(0, 1_000, BODY, cache.epoch());
+		cache.put(2_000, 3_000, BODY, cache.epoch());
+
+		cache.onPersisted("default", new long[]{500, System.currentTimeMillis()}, new long[]{1990, 1990}, new long[]{1, 1}, 2);
+
+		assertNull(cache.get(0, 1_000));
+		assertArrayEquals(BODY, cache.get(2_000, 3_000));
+		assertEquals(1, cache.getStats().invalidations());
+	}
+
+	@Test
+	void recentPersistsLeaveTheCacheAlone() {
+		SummaryResponseCache cache = new SummaryResponseCache(4, 5_000);
+		long epoch = cache.epoch();
+
+		cache.invalidate(System.currentTimeMillis());
+
+		assertEquals(epoch, cache.epoch());
+	}
+
+	@Test
+	void aResultQueriedBeforeALatePersistIsNotStored() {
+		SummaryResponseCache cache = new SummaryResponseCache(4, 5_000);
+		long epoch = cache.epoch();
+
+		cache.invalidate(500);
+		cache.put(0, 1_000, BODY, epoch);
+
+		assertNull(cache.get(0, 1_000));
+	}
+
+	@Test
+	void restartingDropsEntriesAndResultsQueriedBeforeIt() {
+		SummaryResponseCache cache = new SummaryResponseCache(4, 5_000);
+		cache.put(0, 1_000, BODY, cache.epoch());
+		long epoch = cache.epoch();
+
+		cache.stop();
+		cache.start();
+		cache.put(2_000, 3_000, BODY, epoch);
+
+		assertNull(cache.get(0, 1_000));
+		assertNull(cache.get(2_000, 3_000));
+		assertEquals(0, cache.getStats().entries());
+	}
+}
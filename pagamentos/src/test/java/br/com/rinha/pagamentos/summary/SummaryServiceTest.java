@@ -0,0 +1,140 @@
+package br.com.rinha.pagamentos.summary;
+
+import br.com.rinha.pagamentos.config.NodeIdentity;
+import br.com.rinha.pagamentos.model.PaymentsSummaryResponse;
+import br.com.rinha.pagamentos.model.Summary;
+import br.com.rinha.pagamentos.service.PaymentService;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SummaryServiceTest {
+
+	private static final String FROM = "2025-07-15T12:00:00.000Z";
+	private static final String TO = "2025-07-15T12:01:00.000Z";
+
+	private final StubPaymentService paymentService = new StubPaymentService();
+	private final SummaryService summaryService = new SummaryService(
+			paymentService, new ImmediateBarrier(), new SummaryResponseCache(0, 5_000));
+
+	@Test
+	void joinsAFlightThatStartedAfterTheWindowEnded() {
+		AtomicReference<byte[]> first = new AtomicReference<>();
+		AtomicReference<byte[]> second = new AtomicReference<>();
+		summaryService.getSummaryJson(FROM, TO).subscribe(first::set);
+		summaryService.getSummaryJson(FROM, TO).subscribe(second::set);
+
+		paymentService.complete(0, summary(3, 5970));
+
+		assertEquals(1, paymentService.calls.size());
+		assertEquals(1, summaryService.getCoalesced());
+		assertSame(first.get(), second.get());
+		assertTrue(new String(first.get(), StandardCharsets.UTF_8).contains("\"totalRequests\":3"));
+	}
+
+	@Test
+	void startsANewFlightWhenTheWindowEndsAfterTheCurrentOneStarted() {
+		String future = Instant.now().plusSeconds(3_600).toString();
+		summaryService.getSummaryJson(FROM, future).subscribe();
+		summaryService.getSummaryJson(FROM, future).subscribe();
+		summaryService.getSummaryJson(FROM, null).subscribe();
+		summaryService.getSummaryJson(FROM, null).subscribe();
+
+		assertEquals(4, paymentService.calls.size());
+		assertEquals(0, summaryService.getCoalesced());
+	}
+
+	@Test
+	void removesTheFlightOnceItCompletes() {
+		summaryService.getSummaryJson(FROM, TO).subscribe();
+		paymentService.complete(0, summary(1, 100));
+
+		summaryService.getSummaryJson(FROM, TO).subscribe();
+
+		assertEquals(2, paymentService.calls.size());
+		assertEquals(0, summaryService.getCoalesced());
+	}
+
+	@Test
+	void sharesAnErrorWithJoinedRequestsOnly() {
+		List<Throwable> errors = new ArrayList<>();
+		summaryService.getSummaryJson(FROM, TO).subscribe(body -> {}, errors::add);
+		summaryService.getSummaryJson(FROM, TO).subscribe(body -> {}, errors::add);
+
+		paymentService.calls.get(0).tryEmitError(new IllegalStateException("redis down"));
+
+		assertEquals(2, errors.size());
+		assertSame(errors.get(0), errors.get(1));
+
+		AtomicReference<byte[]> retried = new AtomicReference<>();
+		summaryService.getSummaryJson(FROM, TO).subscribe(retried::set);
+		paymentService.complete(1, summary(1, 100));
+
+		assertEquals(2, paymentService.calls.size());
+		assertNotNull(retried.get());
+	}
+
+	@Test
+	void aCancelledRequestDoesNotCancelTheOthersInItsFlight() {
+		AtomicReference<byte[]> cancelled = new AtomicReference<>();
+		AtomicReference<byte[]> joined = new AtomicReference<>();
+		Disposable first = summaryService.getSummaryJson(FROM, TO).subscribe(cancelled::set);
+		summaryService.getSummaryJson(FROM, TO).subscribe(joined::set);
+
+		first.dispose();
+		paymentService.complete(0, summary(2, 200));
+
+		assertEquals(1, paymentService.calls.size());
+		assertNull(cancelled.get());
+		assertNotNull(joined.get());
+	}
+
+	private static PaymentsSummaryResponse summary(long requests, long amountCents) {
+		return new PaymentsSummaryResponse(new Summary(requests, amountCents), new Summary(0, 0));
+	}
+
+	private static final class StubPaymentService extends PaymentService {
+
+		private final List<Sinks.One<PaymentsSummaryResponse>> calls = new ArrayList<>();
+
+		private StubPaymentService() {
+			super(null, null, null);
+		}
+
+		@Override
+		public Mono<PaymentsSummaryResponse> getPaymentsSummary(String from, String to) {
+			Sinks.One<PaymentsSummaryResponse> call = Sinks.one();
+			calls.add(call);
+			return call.asMono();
+		}
+
+		private void complete(int call, PaymentsSummaryResponse response) {
+			calls.get(call).tryEmitValue(response);
+		}
+	}
+
+	private static final class ImmediateBarrier extends SummaryBarrier {
+
+		private ImmediateBarrier() {
+			super(null, null, null, new NodeIdentity("test"), 1_000);
+		}
+
+		@Override
+		public Mono<Void> await(Long to) {
+			return Mono.empty();
+		}
+	}
+}